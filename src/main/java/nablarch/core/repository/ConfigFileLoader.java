@@ -72,7 +72,7 @@ import nablarch.core.util.annotation.Published;
  * @see nablarch.core.repository.di.config.xml.schema.ConfigFile
  */
 @Published(tag = "architect")
-public class ConfigFileLoader implements ObjectLoader {
+public class ConfigFileLoader implements StreamingObjectLoader {
 
     /**
      * ロガー。
@@ -160,7 +160,29 @@ public class ConfigFileLoader implements ObjectLoader {
      * このため、値は常に文字列となる。
      */
     public Map<String, Object> load() {
-        Map<String, Object> values;
+        final Map<String, Object> values = new HashMap<String, Object>();
+        load(new Sink() {
+            @Override
+            public void put(String key, Object value) {
+                if (values.containsKey(key)) {
+                    logWarn("duplicate key ["
+                            + key + "]. change [" + values.get(key)
+                            + "] to [" + value + "]");
+                }
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * {@inheritDoc} <br/>
+     *
+     * ConfigFileLoaderでは、設定ファイルに書かれたキーと値の組合せを、読み込んだ順に受け渡す。
+     * 同じキーが複数回書かれている場合は、その都度受け渡す。
+     */
+    @Override
+    public void load(Sink sink) {
         BufferedReader reader = null;
         if (LOGGER.isDebugEnabled()) {
             LOGGER.logDebug("load environment config file."
@@ -174,9 +196,8 @@ public class ConfigFileLoader implements ObjectLoader {
                 }
             }
 
-            if (inStream == null) {
-                inStream = FileUtil.getResource(url);
-            }
+            // URLを指定した場合は、ロードのたびにファイルを開く
+            InputStream in = inStream != null ? inStream : FileUtil.getResource(url);
             
             String configFileEncoding;
             if (this.encoding != null) {
@@ -185,10 +206,10 @@ public class ConfigFileLoader implements ObjectLoader {
                 configFileEncoding = DEFAULT_CONFIG_FILE_ENCODING;
             }
 
-            reader = new BufferedReader(new InputStreamReader(inStream,
+            reader = new BufferedReader(new InputStreamReader(in,
                     configFileEncoding));
 
-            values = readFile(reader);
+            readFile(reader, sink);
         } catch (UnsupportedEncodingException e) {
             throw new RuntimeException(
                     "config file read failed.", e);
@@ -205,21 +226,18 @@ public class ConfigFileLoader implements ObjectLoader {
                 }
             }
         }
-
-        return values;
     }
 
     /**
      * ファイルの読み込み処理を行う。
      * 
      * @param reader ファイルのリーダ
-     * @return 読み込み結果
+     * @param sink 読み込み結果の受け渡し先
      * @throws IOException readLineに失敗した場合
      */
-    private Map<String, Object> readFile(BufferedReader reader)
+    private void readFile(BufferedReader reader, Sink sink)
             throws IOException {
 
-        Map<String, Object> values = new HashMap<String, Object>();
         String sentence = null;
 
         // 一文(行末にESC_CHARがある場合に複数行を連結したもの)を読み込み
@@ -266,17 +284,10 @@ public class ConfigFileLoader implements ObjectLoader {
 
             // キーと値を格納
             if (0 != trimmedValue.length()) {
-                if (values.containsKey(trimmedKey)) {
-                    logWarn("duplicate key ["
-                            + trimmedKey + "]. change [" + values.get(trimmedKey)
-                            + "] to [" + trimmedValue + "]");
-                }
-
-                values.put(trimmedKey, trimmedValue);
+                sink.put(trimmedKey, trimmedValue);
             }
 
         } // １行読込みLoop
-        return values;
     }
 
     /**
@@ -11,7 +11,6 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Properties;
 
 /**
@@ -23,7 +22,7 @@ import java.util.Properties;
  * @see java.util.Properties
  */
 @Published(tag = "architect")
-public class PropertiesFileLoader implements ObjectLoader {
+public class PropertiesFileLoader implements StreamingObjectLoader {
 
     /**
      * ロガー。
@@ -76,6 +75,24 @@ public class PropertiesFileLoader implements ObjectLoader {
      */
     @Override
     public Map<String, Object> load() {
+        final Map<String, Object> values = new HashMap<String, Object>();
+        load(new Sink() {
+            @Override
+            public void put(String key, Object value) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * {@inheritDoc} <br/>
+     *
+     * {@link java.util.Properties}がパースしたkeyとvalueを、{@link java.util.Properties}に格納せずに受け渡す。
+     * 同じキーが複数回書かれている場合は、その都度受け渡す。
+     */
+    @Override
+    public void load(final Sink sink) {
 
         if (LOGGER.isDebugEnabled()) {
             LOGGER.logDebug("load environment properties file."
@@ -86,18 +103,20 @@ public class PropertiesFileLoader implements ObjectLoader {
                     + " url = " + url);
         }
 
-        Map<String, Object> values = new HashMap<String, Object>();
         BufferedReader reader = null;
         InputStream inStream = FileUtil.getResource(url);
         try {
             reader = new BufferedReader(new InputStreamReader(inStream,
                     encoding));
 
-            Properties prop = new Properties();
+            Properties prop = new Properties() {
+                @Override
+                public synchronized Object put(Object key, Object value) {
+                    sink.put((String) key, value);
+                    return null;
+                }
+            };
             prop.load(reader);
-            for (Entry<Object, Object> e : prop.entrySet()) {
-                values.put((String) e.getKey(),e.getValue());
-            }
 
         } catch (IOException e) {
             throw new RuntimeException(
@@ -110,8 +129,6 @@ public class PropertiesFileLoader implements ObjectLoader {
                         + " url = " + url);
             }
         }
-
-        return values;
     }
 
 }
@@ -0,0 +1,40 @@
+package nablarch.core.repository;
+
+import nablarch.core.util.annotation.Published;
+
+/**
+ * ロードしたオブジェクトを、{@link java.util.Map}にまとめずに1件ずつ受け渡す{@link ObjectLoader}。
+ * <p/>
+ * {@link nablarch.core.repository.di.DiContainer}は、コンポーネント定義にある{@link ObjectLoader}が
+ * このインタフェースを実装している場合、{@link #load(Sink)}で受け取ったオブジェクトをその場でコンポーネントとして登録する。
+ * このため、ロード結果全体を保持する{@link java.util.Map}が作成されず、大量の設定値を登録する際のメモリ使用量が抑えられる。
+ * このインタフェースを実装していない{@link ObjectLoader}は、従来どおり{@link #load()}の結果が登録される。
+ * <p/>
+ * 同じキーのオブジェクトを複数回渡した場合は、後に渡したオブジェクトが有効となる。
+ * ({@link java.util.Map#put(Object, Object)}で上書きした場合と同じ結果となる。)
+ */
+@Published(tag = "architect")
+public interface StreamingObjectLoader extends ObjectLoader {
+
+    /**
+     * オブジェクトをロードし、1件ずつ受け渡す。
+     *
+     * @param sink ロードしたオブジェクトの受け渡し先
+     */
+    void load(Sink sink);
+
+    /**
+     * ロードしたオブジェクトの受け渡し先。
+     */
+    @Published(tag = "architect")
+    interface Sink {
+
+        /**
+         * ロードしたオブジェクトを受け取る。
+         *
+         * @param key キー
+         * @param value オブジェクト
+         */
+        void put(String key, Object value);
+    }
+}
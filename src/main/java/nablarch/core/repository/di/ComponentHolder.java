@@ -1,5 +1,8 @@
 package nablarch.core.repository.di;
 
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * DIコンテナ内でコンポーネントとコンポーネントの状態を保持するクラス。<br/>
  * コンポーネントを生成後はこのクラスがコンポーネントを保持する。
@@ -35,6 +38,26 @@ public class ComponentHolder {
      */
     private ComponentState state = ComponentState.NOT_INSTANTIATE;
 
+    /**
+     * コンポーネントの取得回数を数えるカウンタ(取得回数を集計しない場合は{@code null})。
+     */
+    private volatile LongAdder lookupCounter;
+
+    /**
+     * コンポーネントの生成にかかった時間(ナノ秒)。依存するコンポーネントの生成とインジェクションの時間は含まない。
+     */
+    private long createNanos;
+
+    /**
+     * コンポーネントへのインジェクションにかかった時間(ナノ秒)。依存するコンポーネントの生成とインジェクションの時間は含まない。
+     */
+    private long injectNanos;
+
+    /**
+     * インジェクションに使用する参照(コンポーネント定義の参照をそのまま使用する場合は{@code null})。
+     */
+    private List<ComponentReference> injectionReferences;
+
     /**
      * 生成されたコンポーネントを取得する。
      * @return 生成されたコンポーネント
@@ -84,4 +107,61 @@ public class ComponentHolder {
     public void setInitializedComponent(Object initializedComponent) {
         this.initializedComponent = initializedComponent;
     }
+
+    /**
+     * コンポーネントの取得回数を数えるカウンタを取得する。
+     * @return カウンタ(取得回数を集計しない場合は{@code null})
+     */
+    LongAdder getLookupCounter() {
+        return lookupCounter;
+    }
+    /**
+     * コンポーネントの取得回数を数えるカウンタをセットする。
+     * @param lookupCounter カウンタ
+     */
+    void setLookupCounter(LongAdder lookupCounter) {
+        this.lookupCounter = lookupCounter;
+    }
+    /**
+     * コンポーネントの生成にかかった時間を取得する。
+     * @return コンポーネントの生成にかかった時間(ナノ秒)
+     */
+    long getCreateNanos() {
+        return createNanos;
+    }
+    /**
+     * コンポーネントの生成にかかった時間を加算する。
+     * @param nanos 加算する時間(ナノ秒)
+     */
+    void addCreateNanos(long nanos) {
+        createNanos += nanos;
+    }
+    /**
+     * コンポーネントへのインジェクションにかかった時間を取得する。
+     * @return コンポーネントへのインジェクションにかかった時間(ナノ秒)
+     */
+    long getInjectNanos() {
+        return injectNanos;
+    }
+    /**
+     * コンポーネントへのインジェクションにかかった時間を加算する。
+     * @param nanos 加算する時間(ナノ秒)
+     */
+    void addInjectNanos(long nanos) {
+        injectNanos += nanos;
+    }
+    /**
+     * インジェクションに使用する参照を取得する。
+     * @return インジェクションに使用する参照
+     */
+    List<ComponentReference> getInjectionReferences() {
+        return injectionReferences != null ? injectionReferences : definition.getReferences();
+    }
+    /**
+     * インジェクションに使用する参照をセットする。
+     * @param injectionReferences インジェクションに使用する参照
+     */
+    void setInjectionReferences(List<ComponentReference> injectionReferences) {
+        this.injectionReferences = injectionReferences;
+    }
 }
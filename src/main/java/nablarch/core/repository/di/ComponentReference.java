@@ -26,6 +26,19 @@ public class ComponentReference {
         this.injectionType = injectionType;
         this.targetId = targetId;
     }
+
+    /**
+     * リテラル値をインジェクションする参照を生成するコンストラクタ。
+     * <p/>
+     * インジェクションのタイプは{@link InjectionType#LITERAL}となる。
+     * @param propertyName プロパティ名
+     * @param requiredType プロパティの型
+     * @param valueCreator インジェクションする値を生成するクラス
+     */
+    public ComponentReference(String propertyName, Class<?> requiredType, ComponentCreator valueCreator) {
+        this(propertyName, null, requiredType, InjectionType.LITERAL, -1);
+        this.valueCreator = valueCreator;
+    }
     /**
      * プロパティ名。
      */
@@ -46,6 +59,10 @@ public class ComponentReference {
      * インジェクションするオブジェクトのID。
      */
     private int targetId;
+    /**
+     * インジェクションする値を生成するクラス(リテラル値の参照でない場合は{@code null})。
+     */
+    private ComponentCreator valueCreator;
 
     /**
      * プロパティ名を取得する。
@@ -83,4 +100,12 @@ public class ComponentReference {
         return targetId;
     }
 
+    /**
+     * インジェクションする値を生成するクラスを取得する。
+     * @return インジェクションする値を生成するクラス(リテラル値の参照でない場合は{@code null})
+     */
+    public ComponentCreator getValueCreator() {
+        return valueCreator;
+    }
+
 }
@@ -0,0 +1,622 @@
+package nablarch.core.repository.di;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import nablarch.core.repository.di.config.ListComponentCreator;
+import nablarch.core.repository.di.config.ListElementDefinition;
+import nablarch.core.repository.di.config.MapComponentCreator;
+import nablarch.core.repository.di.config.MapEntryDefinition;
+import nablarch.core.util.annotation.Published;
+
+/**
+ * {@link DiContainer}が保持するコンポーネント間の参照関係を表すグラフ。
+ * <p/>
+ * コンポーネントを頂点、参照を辺とする有向グラフで、辺は参照元から参照先に向かう。
+ * 辺には、プロパティへのインジェクション({@link InjectionType})と、
+ * リストの要素およびマップのキーと値の参照が含まれる。参照先が解決できない参照(自動インジェクションの対象が
+ * 存在しない場合など)は辺に含まない。
+ * <p/>
+ * 頂点には、コンポーネントの生成とインジェクションにかかった時間を持つ。
+ * この時間には、依存するコンポーネントの生成とインジェクションの時間は含まない。
+ * <p/>
+ * クリティカルパスは、参照をたどった経路のうち、経路上のコンポーネントの時間の合計が最も大きい経路である。
+ * この経路上のコンポーネントは、順番に生成とインジェクションを行う必要があるため、コンテナの起動時間の下限を決める。
+ * 循環参照がある場合は、循環を閉じる辺を無視して経路を求める。
+ */
+@Published(tag = "architect")
+public final class ComponentReferenceGraph {
+
+    /** リストの要素の参照を表す辺の種類 */
+    public static final String LIST_ELEMENT = "LIST_ELEMENT";
+
+    /** マップのキーの参照を表す辺の種類 */
+    public static final String MAP_KEY = "MAP_KEY";
+
+    /** マップの値の参照を表す辺の種類 */
+    public static final String MAP_VALUE = "MAP_VALUE";
+
+    /** 頂点(ID順) */
+    private final Map<Integer, Node> nodes = new LinkedHashMap<Integer, Node>();
+
+    /** 辺 */
+    private final List<Edge> edges = new ArrayList<Edge>();
+
+    /** 頂点のIDごとの、その頂点を参照元とする辺 */
+    private final Map<Integer, List<Edge>> outgoing = new HashMap<Integer, List<Edge>>();
+
+    /**
+     * コンストラクタ。
+     *
+     * @param holders コンポーネントホルダ(ID順)
+     * @param nameIndex 名前をキーにコンポーネントホルダを取得するMap
+     * @param typeIndex 型をキーにコンポーネントホルダを取得するMap
+     */
+    ComponentReferenceGraph(Collection<ComponentHolder> holders,
+            Map<String, ComponentHolder> nameIndex, Map<Class<?>, ComponentHolder> typeIndex) {
+        Map<Integer, ComponentHolder> idIndex = new HashMap<Integer, ComponentHolder>();
+        for (ComponentHolder holder : holders) {
+            idIndex.put(holder.getDefinition().getId(), holder);
+            nodes.put(holder.getDefinition().getId(), new Node(holder));
+        }
+        for (ComponentHolder holder : holders) {
+            ComponentDefinition def = holder.getDefinition();
+            for (ComponentReference ref : def.getReferences()) {
+                ComponentHolder target;
+                switch (ref.getInjectionType()) {
+                case ID:
+                    target = idIndex.get(ref.getTargetId());
+                    break;
+                case BY_TYPE:
+                    target = typeIndex.get(ref.getRequiredType());
+                    break;
+                case LITERAL:
+                    // リテラル値は参照先のコンポーネントを持たない。
+                    target = null;
+                    break;
+                default:
+                    target = nameIndex.get(ref.getReferenceName());
+                    break;
+                }
+                addEdge(def, target, ref.getInjectionType().name(), ref.getPropertyName());
+            }
+            ComponentCreator creator = def.getCreator();
+            if (creator instanceof ListComponentCreator) {
+                int index = 0;
+                for (ListElementDefinition element : ((ListComponentCreator) creator).getElementDefinitions()) {
+                    ComponentHolder target = element.getId() != null
+                            ? idIndex.get(element.getId())
+                            : nameIndex.get(element.getName());
+                    addEdge(def, target, LIST_ELEMENT, "[" + index++ + "]");
+                }
+            } else if (creator instanceof MapComponentCreator) {
+                for (MapEntryDefinition entry : ((MapComponentCreator) creator).getEntries()) {
+                    String label = entry.getKeyType() == MapEntryDefinition.DataType.STRING ? entry.getKey() : null;
+                    addEdge(def, findEntryTarget(entry.getKeyType(), entry.getKeyId(), entry.getKeyRef(),
+                            idIndex, nameIndex), MAP_KEY, label);
+                    addEdge(def, findEntryTarget(entry.getValueType(), entry.getValueId(), entry.getValueRef(),
+                            idIndex, nameIndex), MAP_VALUE, label);
+                }
+            }
+        }
+    }
+
+    /**
+     * マップのキーまたは値が参照するコンポーネントホルダを取得する。
+     *
+     * @param type キーまたは値の種類
+     * @param id 参照先のID
+     * @param ref 参照先の名前
+     * @param idIndex IDをキーにコンポーネントホルダを取得するMap
+     * @param nameIndex 名前をキーにコンポーネントホルダを取得するMap
+     * @return 参照先のコンポーネントホルダ(参照でない場合は{@code null})
+     */
+    private static ComponentHolder findEntryTarget(MapEntryDefinition.DataType type, int id, String ref,
+            Map<Integer, ComponentHolder> idIndex, Map<String, ComponentHolder> nameIndex) {
+        if (type == MapEntryDefinition.DataType.COMPONENT) {
+            return idIndex.get(id);
+        }
+        if (type == MapEntryDefinition.DataType.REF) {
+            return nameIndex.get(ref);
+        }
+        return null;
+    }
+
+    /**
+     * 辺を追加する。
+     *
+     * @param from 参照元のコンポーネント定義
+     * @param target 参照先のコンポーネントホルダ({@code null}の場合は追加しない)
+     * @param kind 辺の種類
+     * @param label 辺のラベル
+     */
+    private void addEdge(ComponentDefinition from, ComponentHolder target, String kind, String label) {
+        if (target == null) {
+            return;
+        }
+        Edge edge = new Edge(from.getId(), target.getDefinition().getId(), kind, label);
+        edges.add(edge);
+        List<Edge> list = outgoing.get(edge.getFrom());
+        if (list == null) {
+            list = new ArrayList<Edge>();
+            outgoing.put(edge.getFrom(), list);
+        }
+        list.add(edge);
+    }
+
+    /**
+     * 頂点を取得する。
+     *
+     * @return 頂点(ID順、変更不可)
+     */
+    public List<Node> getNodes() {
+        return Collections.unmodifiableList(new ArrayList<Node>(nodes.values()));
+    }
+
+    /**
+     * 辺を取得する。
+     *
+     * @return 辺(変更不可)
+     */
+    public List<Edge> getEdges() {
+        return Collections.unmodifiableList(edges);
+    }
+
+    /**
+     * 指定した頂点から参照をたどって到達できる頂点のIDを取得する。
+     *
+     * @param rootIds 起点とする頂点のID
+     * @return 到達できる頂点のID(起点を含む)
+     */
+    Set<Integer> getReachableIds(Collection<Integer> rootIds) {
+        Set<Integer> reachable = new HashSet<Integer>(rootIds);
+        LinkedList<Integer> queue = new LinkedList<Integer>(rootIds);
+        while (!queue.isEmpty()) {
+            List<Edge> list = outgoing.get(queue.removeFirst());
+            if (list == null) {
+                continue;
+            }
+            for (Edge edge : list) {
+                if (reachable.add(edge.getTo())) {
+                    queue.add(edge.getTo());
+                }
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * クリティカルパスを取得する。
+     *
+     * @return クリティカルパス上の頂点(参照元から参照先の順、頂点がない場合は空のリスト)
+     */
+    public List<Node> getCriticalPath() {
+        Map<Integer, Long> costs = new HashMap<Integer, Long>();
+        Map<Integer, Integer> next = new HashMap<Integer, Integer>();
+        Set<Integer> visiting = new HashSet<Integer>();
+        Integer start = null;
+        long max = -1;
+        for (Integer id : nodes.keySet()) {
+            long cost = computeCost(id, costs, next, visiting);
+            if (cost > max) {
+                max = cost;
+                start = id;
+            }
+        }
+        List<Node> path = new ArrayList<Node>();
+        for (Integer id = start; id != null; id = next.get(id)) {
+            path.add(nodes.get(id));
+        }
+        return path;
+    }
+
+    /**
+     * 頂点から始まる経路のうち、経路上の頂点の時間の合計が最も大きいものを求める。
+     * <p/>
+     * 参照の連鎖が長い場合にスタックが溢れないよう、再帰を使わずに明示的なスタックで帰りがけ順に探索する。
+     *
+     * @param id 頂点のID
+     * @param costs 頂点ごとの時間の合計(計算済みのもの)
+     * @param next 頂点ごとの経路上の次の頂点
+     * @param visiting 探索中の頂点
+     * @return 時間の合計(ナノ秒)
+     */
+    private long computeCost(Integer id, Map<Integer, Long> costs, Map<Integer, Integer> next, Set<Integer> visiting) {
+        Long cached = costs.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        LinkedList<CostFrame> stack = new LinkedList<CostFrame>();
+        visiting.add(id);
+        stack.addFirst(new CostFrame(id));
+        long cost = 0;
+        while (!stack.isEmpty()) {
+            CostFrame frame = stack.getFirst();
+            List<Edge> list = outgoing.get(frame.id);
+            if (list != null && frame.edgeIndex < list.size()) {
+                Integer to = list.get(frame.edgeIndex).getTo();
+                if (visiting.contains(to)) {
+                    // 循環を閉じる辺は無視する。
+                    frame.edgeIndex++;
+                    continue;
+                }
+                Long child = costs.get(to);
+                if (child == null) {
+                    // 参照先を先に計算し、計算後に同じ辺を再度処理する。
+                    visiting.add(to);
+                    stack.addFirst(new CostFrame(to));
+                    continue;
+                }
+                if (child > frame.maxChild || !next.containsKey(frame.id)) {
+                    frame.maxChild = child;
+                    next.put(frame.id, to);
+                }
+                frame.edgeIndex++;
+                continue;
+            }
+            stack.removeFirst();
+            visiting.remove(frame.id);
+            cost = nodes.get(frame.id).getTotalNanos() + frame.maxChild;
+            costs.put(frame.id, cost);
+        }
+        return cost;
+    }
+
+    /**
+     * 時間の合計を計算中の頂点の探索状態。
+     */
+    private static final class CostFrame {
+
+        /** 頂点のID */
+        private final Integer id;
+
+        /** 次に処理する辺の位置 */
+        private int edgeIndex;
+
+        /** 処理済みの参照先の時間の合計の最大値 */
+        private long maxChild;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param id 頂点のID
+         */
+        private CostFrame(Integer id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * グラフをJSON形式で出力する。
+     * <p/>
+     * 頂点({@literal "nodes"})、辺({@literal "edges"})、クリティカルパス({@literal "criticalPath"})を出力する。
+     *
+     * @return JSON形式の文字列
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"nodes\":[");
+        String separator = "";
+        for (Node node : nodes.values()) {
+            sb.append(separator).append("{\"id\":").append(node.getId())
+              .append(",\"name\":").append(quoteJson(node.getName()))
+              .append(",\"type\":").append(quoteJson(node.getType().getName()))
+              .append(",\"state\":").append(quoteJson(node.getState().name()))
+              .append(",\"createNanos\":").append(node.getCreateNanos())
+              .append(",\"injectNanos\":").append(node.getInjectNanos())
+              .append('}');
+            separator = ",";
+        }
+        sb.append("],\"edges\":[");
+        separator = "";
+        for (Edge edge : edges) {
+            sb.append(separator).append("{\"from\":").append(edge.getFrom())
+              .append(",\"to\":").append(edge.getTo())
+              .append(",\"kind\":").append(quoteJson(edge.getKind()))
+              .append(",\"label\":").append(quoteJson(edge.getLabel()))
+              .append('}');
+            separator = ",";
+        }
+        List<Node> criticalPath = getCriticalPath();
+        long total = 0;
+        sb.append("],\"criticalPath\":{\"ids\":[");
+        separator = "";
+        for (Node node : criticalPath) {
+            sb.append(separator).append(node.getId());
+            total += node.getTotalNanos();
+            separator = ",";
+        }
+        sb.append("],\"totalNanos\":").append(total).append("}}");
+        return sb.toString();
+    }
+
+    /**
+     * グラフをGraphvizのDOT形式で出力する。
+     * <p/>
+     * クリティカルパス上の頂点と辺は赤色で出力する。
+     *
+     * @return DOT形式の文字列
+     */
+    public String toDot() {
+        List<Node> criticalPath = getCriticalPath();
+        Set<Integer> criticalNodes = new HashSet<Integer>();
+        Set<String> criticalEdges = new HashSet<String>();
+        for (int i = 0; i < criticalPath.size(); i++) {
+            criticalNodes.add(criticalPath.get(i).getId());
+            if (i > 0) {
+                criticalEdges.add(criticalPath.get(i - 1).getId() + "->" + criticalPath.get(i).getId());
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("digraph components {\n");
+        sb.append("  node [shape=box];\n");
+        for (Node node : nodes.values()) {
+            sb.append("  n").append(node.getId()).append(" [label=")
+              .append(quoteDot(node.getName() + "\n" + node.getType().getName()
+                      + "\ncreate=" + toMillis(node.getCreateNanos())
+                      + "ms inject=" + toMillis(node.getInjectNanos()) + "ms"));
+            if (criticalNodes.contains(node.getId())) {
+                sb.append(", color=red");
+            }
+            sb.append("];\n");
+        }
+        for (Edge edge : edges) {
+            String label = edge.getLabel() == null ? edge.getKind() : edge.getLabel() + " (" + edge.getKind() + ")";
+            sb.append("  n").append(edge.getFrom()).append(" -> n").append(edge.getTo())
+              .append(" [label=").append(quoteDot(label));
+            if (criticalEdges.contains(edge.getFrom() + "->" + edge.getTo())) {
+                sb.append(", color=red");
+            }
+            sb.append("];\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * ナノ秒をミリ秒の文字列に変換する。
+     *
+     * @param nanos ナノ秒
+     * @return ミリ秒の文字列(小数点以下3桁)
+     */
+    private static String toMillis(long nanos) {
+        return String.format("%.3f", nanos / 1000000.0);
+    }
+
+    /**
+     * JSONの文字列に変換する。
+     *
+     * @param value 値
+     * @return JSONの文字列({@code null}の場合は{@literal "null"})
+     */
+    private static String quoteJson(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * DOT形式の文字列に変換する。
+     *
+     * @param value 値
+     * @return DOT形式の文字列
+     */
+    private static String quoteDot(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + '"';
+    }
+
+    /**
+     * グラフの頂点(コンポーネント)。
+     */
+    @Published(tag = "architect")
+    public static final class Node {
+
+        /** コンポーネントID */
+        private final int id;
+
+        /** コンポーネント名 */
+        private final String name;
+
+        /** コンポーネントの型 */
+        private final Class<?> type;
+
+        /** コンポーネントの状態 */
+        private final ComponentState state;
+
+        /** 生成にかかった時間(ナノ秒) */
+        private final long createNanos;
+
+        /** インジェクションにかかった時間(ナノ秒) */
+        private final long injectNanos;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param holder コンポーネントホルダ
+         */
+        Node(ComponentHolder holder) {
+            id = holder.getDefinition().getId();
+            name = holder.getDefinition().getName();
+            type = holder.getDefinition().getType();
+            state = holder.getState();
+            createNanos = holder.getCreateNanos();
+            injectNanos = holder.getInjectNanos();
+        }
+
+        /**
+         * コンポーネントIDを取得する。
+         *
+         * @return コンポーネントID
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * コンポーネント名を取得する。
+         *
+         * @return コンポーネント名(名前のないコンポーネントの場合は{@code null})
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * コンポーネントの型を取得する。
+         *
+         * @return コンポーネントの型
+         */
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * グラフの作成時点のコンポーネントの状態を取得する。
+         *
+         * @return コンポーネントの状態
+         */
+        public ComponentState getState() {
+            return state;
+        }
+
+        /**
+         * 生成にかかった時間を取得する。
+         *
+         * @return 生成にかかった時間(ナノ秒)
+         */
+        public long getCreateNanos() {
+            return createNanos;
+        }
+
+        /**
+         * インジェクションにかかった時間を取得する。
+         *
+         * @return インジェクションにかかった時間(ナノ秒)
+         */
+        public long getInjectNanos() {
+            return injectNanos;
+        }
+
+        /**
+         * 生成とインジェクションにかかった時間の合計を取得する。
+         *
+         * @return 生成とインジェクションにかかった時間の合計(ナノ秒)
+         */
+        public long getTotalNanos() {
+            return createNanos + injectNanos;
+        }
+    }
+
+    /**
+     * グラフの辺(参照)。
+     */
+    @Published(tag = "architect")
+    public static final class Edge {
+
+        /** 参照元のコンポーネントID */
+        private final int from;
+
+        /** 参照先のコンポーネントID */
+        private final int to;
+
+        /** 辺の種類 */
+        private final String kind;
+
+        /** ラベル */
+        private final String label;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param from 参照元のコンポーネントID
+         * @param to 参照先のコンポーネントID
+         * @param kind 辺の種類
+         * @param label ラベル
+         */
+        Edge(int from, int to, String kind, String label) {
+            this.from = from;
+            this.to = to;
+            this.kind = kind;
+            this.label = label;
+        }
+
+        /**
+         * 参照元のコンポーネントIDを取得する。
+         *
+         * @return 参照元のコンポーネントID
+         */
+        public int getFrom() {
+            return from;
+        }
+
+        /**
+         * 参照先のコンポーネントIDを取得する。
+         *
+         * @return 参照先のコンポーネントID
+         */
+        public int getTo() {
+            return to;
+        }
+
+        /**
+         * 辺の種類を取得する。
+         * <p/>
+         * プロパティへのインジェクションの場合は{@link InjectionType}の名前、
+         * リストの要素の場合は{@link #LIST_ELEMENT}、マップのキーと値の場合は{@link #MAP_KEY}と{@link #MAP_VALUE}。
+         *
+         * @return 辺の種類
+         */
+        public String getKind() {
+            return kind;
+        }
+
+        /**
+         * ラベルを取得する。
+         * <p/>
+         * プロパティへのインジェクションの場合はプロパティ名、リストの要素の場合は要素の位置、
+         * マップのキーと値の場合は文字列のキー(キーが参照の場合は{@code null})。
+         *
+         * @return ラベル
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+}
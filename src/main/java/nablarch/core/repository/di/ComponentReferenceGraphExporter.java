@@ -0,0 +1,88 @@
+package nablarch.core.repository.di;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+import nablarch.core.repository.di.config.xml.XmlComponentDefinitionLoader;
+import nablarch.core.util.FileUtil;
+
+/**
+ * コンポーネント設定ファイルを読み込み、コンポーネント間の参照関係を表すグラフを出力するコマンド。
+ * <p/>
+ * 以下の引数を指定して実行する。
+ * <ol>
+ * <li>コンポーネント設定ファイルのパス(必須)</li>
+ * <li>出力形式。{@literal "json"}または{@literal "dot"}(省略時は{@literal "json"})</li>
+ * <li>出力先のファイルパス(省略時は標準出力)</li>
+ * </ol>
+ * グラフの時間を計測するため、コンポーネント設定ファイルは実際に{@link DiContainer}に読み込む。
+ * このため、初期化対象クラスの初期化も行われる。
+ * <p/>
+ * 実行例を以下に示す。
+ * <pre>
+ * java nablarch.core.repository.di.ComponentReferenceGraphExporter web-component-configuration.xml dot graph.dot
+ * </pre>
+ *
+ * @see ComponentReferenceGraph
+ */
+public final class ComponentReferenceGraphExporter {
+
+    /** 出力時の文字コード */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private ComponentReferenceGraphExporter() {
+    }
+
+    /**
+     * コマンドを実行する。
+     *
+     * @param args 引数
+     * @throws IOException 出力に失敗した場合
+     * @throws IllegalArgumentException 引数が不正な場合
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 3) {
+            throw new IllegalArgumentException(
+                    "usage: ComponentReferenceGraphExporter <component configuration file> [json|dot] [output file]");
+        }
+        String format = args.length >= 2 ? args[1] : "json";
+        if (!format.equals("json") && !format.equals("dot")) {
+            throw new IllegalArgumentException("format must be json or dot. format = [" + format + "]");
+        }
+
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(args[0]));
+        ComponentReferenceGraph graph = container.createReferenceGraph();
+        String output = format.equals("json") ? graph.toJson() : graph.toDot();
+
+        if (args.length == 3) {
+            OutputStream out = new FileOutputStream(args[2]);
+            try {
+                write(out, output);
+            } finally {
+                FileUtil.closeQuietly(out);
+            }
+        } else {
+            write(System.out, output);
+        }
+    }
+
+    /**
+     * 文字列を出力する。
+     *
+     * @param out 出力先
+     * @param output 出力する文字列
+     * @throws IOException 出力に失敗した場合
+     */
+    private static void write(OutputStream out, String output) throws IOException {
+        Writer writer = new OutputStreamWriter(out, UTF_8);
+        writer.write(output);
+        writer.flush();
+    }
+}
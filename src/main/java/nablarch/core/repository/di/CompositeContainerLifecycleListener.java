@@ -0,0 +1,86 @@
+package nablarch.core.repository.di;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * 複数の{@link ContainerLifecycleListener}に順番に通知するリスナ。
+ */
+final class CompositeContainerLifecycleListener implements ContainerLifecycleListener {
+
+    /** 通知先のリスナ */
+    private final ContainerLifecycleListener[] listeners;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param listeners 通知先のリスナ
+     */
+    CompositeContainerLifecycleListener(List<ContainerLifecycleListener> listeners) {
+        this.listeners = listeners.toArray(new ContainerLifecycleListener[listeners.size()]);
+    }
+
+    /**
+     * {@link ServiceLoader}で登録されたリスナを読み込む。
+     * <p/>
+     * リスナが1つの場合はそのリスナを、複数の場合は全てのリスナに通知するリスナを返す。
+     *
+     * @return リスナ(登録されていない場合は{@code null})
+     */
+    static ContainerLifecycleListener load() {
+        List<ContainerLifecycleListener> listeners = new ArrayList<ContainerLifecycleListener>();
+        for (ContainerLifecycleListener listener : ServiceLoader.load(ContainerLifecycleListener.class)) {
+            listeners.add(listener);
+        }
+        if (listeners.isEmpty()) {
+            return null;
+        }
+        if (listeners.size() == 1) {
+            return listeners.get(0);
+        }
+        return new CompositeContainerLifecycleListener(listeners);
+    }
+
+    @Override
+    public void definitionRegistered(ComponentDefinition definition) {
+        for (ContainerLifecycleListener listener : listeners) {
+            listener.definitionRegistered(definition);
+        }
+    }
+
+    @Override
+    public void componentCreated(ComponentDefinition definition, Object component, long elapsedNanos) {
+        for (ContainerLifecycleListener listener : listeners) {
+            listener.componentCreated(definition, component, elapsedNanos);
+        }
+    }
+
+    @Override
+    public void componentInjected(ComponentDefinition definition, Object component, long elapsedNanos) {
+        for (ContainerLifecycleListener listener : listeners) {
+            listener.componentInjected(definition, component, elapsedNanos);
+        }
+    }
+
+    @Override
+    public void factoryObjectCreated(ComponentDefinition definition, Object createdObject, long elapsedNanos) {
+        for (ContainerLifecycleListener listener : listeners) {
+            listener.factoryObjectCreated(definition, createdObject, elapsedNanos);
+        }
+    }
+
+    @Override
+    public void containerInitialized(ComponentDefinition definition, long elapsedNanos) {
+        for (ContainerLifecycleListener listener : listeners) {
+            listener.containerInitialized(definition, elapsedNanos);
+        }
+    }
+
+    @Override
+    public void containerDisposed(DiContainer container) {
+        for (ContainerLifecycleListener listener : listeners) {
+            listener.containerDisposed(container);
+        }
+    }
+}
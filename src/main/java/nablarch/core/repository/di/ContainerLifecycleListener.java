@@ -0,0 +1,69 @@
+package nablarch.core.repository.di;
+
+import nablarch.core.util.annotation.Published;
+
+/**
+ * {@link DiContainer}の処理の前後に通知を受け取るリスナ。
+ * <p/>
+ * 実装クラスは{@link java.util.ServiceLoader}の仕組みで登録する。
+ * ({@literal META-INF/services/nablarch.core.repository.di.ContainerLifecycleListener}に実装クラスの完全修飾名を記述する。)
+ * リスナが1つも登録されていない場合、{@link DiContainer}はリスナの呼び出しを行わない。
+ * <p/>
+ * 通知は、コンテナの処理を行うスレッドで同期的に行われる。
+ * リスナで発生した例外はコンテナの処理の例外として送出されるため、リスナは例外を送出しないように実装すること。
+ * また、通知されたコンポーネント定義やコンポーネントの状態を変更してはならない。
+ * <p/>
+ * 経過時間は、依存するコンポーネントの生成やインジェクションにかかった時間を含む。
+ */
+@Published(tag = "architect")
+public interface ContainerLifecycleListener {
+
+    /**
+     * コンポーネント定義がコンテナに登録されたことを通知する。
+     *
+     * @param definition コンポーネント定義
+     */
+    void definitionRegistered(ComponentDefinition definition);
+
+    /**
+     * コンポーネントが生成されたことを通知する。
+     *
+     * @param definition コンポーネント定義
+     * @param component 生成したコンポーネント
+     * @param elapsedNanos 生成にかかった時間(ナノ秒)
+     */
+    void componentCreated(ComponentDefinition definition, Object component, long elapsedNanos);
+
+    /**
+     * コンポーネントへのインジェクションが完了したことを通知する。
+     *
+     * @param definition コンポーネント定義
+     * @param component インジェクションしたコンポーネント
+     * @param elapsedNanos インジェクションにかかった時間(ナノ秒)
+     */
+    void componentInjected(ComponentDefinition definition, Object component, long elapsedNanos);
+
+    /**
+     * {@link ComponentFactory#createObject()}でオブジェクトが生成されたことを通知する。
+     *
+     * @param definition {@link ComponentFactory}のコンポーネント定義
+     * @param createdObject 生成したオブジェクト
+     * @param elapsedNanos 生成にかかった時間(ナノ秒)
+     */
+    void factoryObjectCreated(ComponentDefinition definition, Object createdObject, long elapsedNanos);
+
+    /**
+     * 初期化対象クラス({@literal "initializer"})による初期化が完了したことを通知する。
+     *
+     * @param definition 初期化を行ったコンポーネントの定義
+     * @param elapsedNanos 初期化にかかった時間(ナノ秒)
+     */
+    void containerInitialized(ComponentDefinition definition, long elapsedNanos);
+
+    /**
+     * {@link DiContainer#dispose()}でコンテナが破棄されたことを通知する。
+     *
+     * @param container 破棄したコンテナ
+     */
+    void containerDisposed(DiContainer container);
+}
@@ -1,26 +1,55 @@
 package nablarch.core.repository.di;
 
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 import nablarch.core.exception.IllegalConfigurationException;
 import nablarch.core.log.Logger;
 import nablarch.core.log.LoggerManager;
 import nablarch.core.repository.IgnoreProperty;
 import nablarch.core.repository.ObjectLoader;
+import nablarch.core.repository.StreamingObjectLoader;
+import nablarch.core.repository.di.config.BeanComponentCreator;
+import nablarch.core.repository.di.config.ListComponentCreator;
+import nablarch.core.repository.di.config.ListElementDefinition;
+import nablarch.core.repository.di.config.LiteralComponentCreator;
+import nablarch.core.repository.di.config.LiteralConverterRegistry;
+import nablarch.core.repository.di.config.LiteralExpressionUtil;
+import nablarch.core.repository.di.config.MapComponentCreator;
+import nablarch.core.repository.di.config.MapEntryDefinition;
 import nablarch.core.repository.di.config.externalize.CompositeExternalizedLoader;
 import nablarch.core.repository.di.config.externalize.ExternalizedComponentDefinitionLoader;
 import nablarch.core.repository.di.config.externalize.SystemPropertyExternalizedLoader;
+import nablarch.core.repository.di.jfr.ComponentLookupEvent;
+import nablarch.core.repository.di.jfr.ReloadPhase;
+import nablarch.core.repository.di.jfr.ReloadPhaseEvent;
 import nablarch.core.repository.initialization.ApplicationInitializer;
+import nablarch.core.repository.initialization.BasicApplicationInitializer;
 import nablarch.core.util.Builder;
 import nablarch.core.util.ObjectUtil;
 import nablarch.core.util.StringUtil;
@@ -36,6 +65,30 @@ import nablarch.core.util.annotation.Published;
  * 後方互換性を維持するするため、システムプロパティ{@literal "nablarch.diContainer.allowStaticInjection"}に
  * {@code true}を設定することで、staticプロパティへのインジェクションを許可できる。
  * 後方互換性維持以外の目的での使用は推奨しない。
+ *<p>
+ * システムプロパティ{@literal "nablarch.diContainer.deduplicateStrings"}に{@code true}を設定すると、
+ * 読み込み時にコンポーネント名や設定値などの同じ内容の文字列を1つのインスタンスに集約する。
+ * 集約はコンテナの読み込み単位で行い、削減できたおおよそのバイト数をINFOレベルでログ出力する。
+ *<p>
+ * システムプロパティ{@literal "nablarch.diContainer.jmx"}に{@code true}を設定すると、
+ * コンテナの状態を公開するMBean({@link DiContainerMXBean})をプラットフォームMBeanサーバに登録する。
+ * MBeanはコンテナを弱参照で保持するため、MBeanの登録によってコンテナがガベージコレクションの対象外になることはない。
+ *<p>
+ * システムプロパティ{@literal "nablarch.diContainer.lookupStatistics"}に{@code true}を設定すると、
+ * 読み込み完了後のコンポーネントの取得回数をコンポーネントごとに集計する。
+ * さらにシステムプロパティ{@literal "nablarch.diContainer.lookupStatistics.sampleInterval"}に1以上の値を設定すると、
+ * おおよそその間隔に1回の割合で取得元を記録する。集計結果はMBeanから参照できる。
+ *<p>
+ * システムプロパティ{@literal "nablarch.diContainer.pruningRoots"}にカンマ区切りでコンポーネント名を設定すると、
+ * それらのコンポーネント(と{@literal "initializer"})から参照をたどって到達できないコンポーネント定義を登録から除外し、
+ * 生成しない。除外したコンポーネントは{@link #getPrunedComponentNames()}で取得できる。
+ *<p>
+ * システムプロパティ{@literal "nablarch.diContainer.reinjectLiterals"}に{@code true}を設定すると、
+ * 差分の再読み込み({@link #reloadIncrementally()})で、変更がリテラルの値のみであるコンポーネントを再生成せずに、
+ * 値が変わったプロパティを再インジェクションする。
+ *<p>
+ * 読み込みの処理段階と時間のかかったコンポーネントの取得は、Java Flight Recorder(JFR)のイベントとして記録する。
+ * イベントの詳細は{@link nablarch.core.repository.di.jfr}パッケージを参照。
  *
  * @author Koichi Asano
  *
@@ -51,23 +104,74 @@ public class DiContainer implements ObjectLoader {
     /** staticプロパティへのインジェクションを許容する場合のシステムプロパティ名 */
     static final String ALLOW_STATIC_INJECTION_SYSTEM_PROP_NAME = "nablarch.diContainer.allowStaticInjection";
 
+    /** 文字列の集約を行う場合のシステムプロパティ名 */
+    static final String DEDUPLICATE_STRINGS_SYSTEM_PROP_NAME = "nablarch.diContainer.deduplicateStrings";
+
+    /** JMXでコンテナの状態を公開する場合のシステムプロパティ名 */
+    static final String JMX_SYSTEM_PROP_NAME = "nablarch.diContainer.jmx";
+
+    /** コンポーネントの取得回数を集計する場合のシステムプロパティ名 */
+    static final String LOOKUP_STATISTICS_SYSTEM_PROP_NAME = "nablarch.diContainer.lookupStatistics";
+
+    /** 取得元のサンプリング間隔を指定するシステムプロパティ名 */
+    static final String LOOKUP_SAMPLE_INTERVAL_SYSTEM_PROP_NAME = "nablarch.diContainer.lookupStatistics.sampleInterval";
+
+    /** 差分の再読み込みで、変更されたリテラルを既存のコンポーネントに再インジェクションする場合のシステムプロパティ名 */
+    static final String REINJECT_LITERALS_SYSTEM_PROP_NAME = "nablarch.diContainer.reinjectLiterals";
+
+    /** 到達可能性による除外の起点とするコンポーネント名を指定するシステムプロパティ名 */
+    static final String PRUNING_ROOTS_SYSTEM_PROP_NAME = "nablarch.diContainer.pruningRoots";
+
+    /** MBeanのオブジェクト名に使用する連番 */
+    private static final AtomicInteger MBEAN_ID = new AtomicInteger();
+
+    /** ガベージコレクションされたコンテナの、MBeanが保持する参照を受け取るキュー */
+    private static final ReferenceQueue<DiContainer> COLLECTED_CONTAINERS = new ReferenceQueue<DiContainer>();
+
     /**
-     * idをキーにコンポーネントホルダを取得するMap。
-     */
-    private Map<Integer, ComponentHolder> holders;
-    /**
-     * 名前をキーにコンポーネントホルダを取得するMap。
-     */
-    private Map<String, ComponentHolder> nameIndex;
-    /**
-     * 型をキーにコンポーネントホルダを取得するMap。
+     * クラスごとの上位型の一覧。
+     * <p/>
+     * 同じクラスのコンポーネント定義が多数ある場合でも、上位型の探索はクラスごとに1度だけ行う。
+     * {@link ClassValue}で保持するため、クラスローダが破棄されると合わせて破棄される。
      */
-    private Map<Class<?>, ComponentHolder> typeIndex;
+    private static final ClassValue<List<Class<?>>> SUPERTYPES = new ClassValue<List<Class<?>>>() {
+        @Override
+        protected List<Class<?>> computeValue(Class<?> type) {
+            Set<Class<?>> supertypes = new LinkedHashSet<Class<?>>();
+            List<Class<?>> classes = new ArrayList<Class<?>>();
+            classes.add(type);
+            if (!type.isInterface()) {
+                classes.addAll(ObjectUtil.getAncestorClasses(type));
+            }
+            for (Class<?> clazz : classes) {
+                supertypes.add(clazz);
+                addInterfaces(clazz, supertypes);
+            }
+            return Collections.unmodifiableList(new ArrayList<Class<?>>(supertypes));
+        }
+
+        /**
+         * インタフェースを、そのスーパーインタフェースも含めて追加する。
+         *
+         * @param type 型
+         * @param supertypes 追加先
+         */
+        private void addInterfaces(Class<?> type, Set<Class<?>> supertypes) {
+            for (Class<?> anInterface : type.getInterfaces()) {
+                if (supertypes.add(anInterface)) {
+                    addInterfaces(anInterface, supertypes);
+                }
+            }
+        }
+    };
 
     /**
-     * 複数登録された型のSet。
+     * コンポーネントの取得に使用する、最後に完了した読み込みの世代。
+     * <p/>
+     * 読み込みは別のコンテナで新しい世代を構築し、構築が完了してからこのフィールドへの1度の書き込みで公開する。
+     * 取得処理はこのフィールドを1度だけ読み込み、得られた世代のみを参照すること。
      */
-    private Set<Class<?>> multiRegisteredType;
+    private volatile Generation generation;
 
     /**
      * 循環参照の情報を保持するための参照スタック。
@@ -77,11 +181,95 @@ public class DiContainer implements ObjectLoader {
     /** staticプロパティへのインジェクションを許容するかどうか。 */
     private final boolean allowStaticInjection;
 
+    /** 読み込み時に文字列の集約を行うかどうか。 */
+    private final boolean deduplicateStrings = Boolean.getBoolean(DEDUPLICATE_STRINGS_SYSTEM_PROP_NAME);
+
+    /**
+     * 読み込み中に使用する文字列プール。
+     */
+    private StringPool stringPool = new StringPool(false);
+
     /**
      * 外部化されたコンポーネント定義を読み込むローダー。
      */
     private final ExternalizedComponentDefinitionLoader externalizedComponentDefinitionLoader;
 
+    /**
+     * リテラルを変換するコンバータのレジストリ。
+     */
+    private final LiteralConverterRegistry literalConverterRegistry;
+
+    /**
+     * 読み込みが完了した回数。
+     */
+    private volatile long reloadCount;
+
+    /**
+     * 最後に完了した読み込みの所要時間(ナノ秒)。
+     */
+    private volatile long lastReloadDurationNanos;
+
+    /**
+     * 到達可能性による除外の起点とするコンポーネント名(除外を行わない場合は空のリスト)。
+     */
+    private final List<String> pruningRoots = parsePruningRoots(System.getProperty(PRUNING_ROOTS_SYSTEM_PROP_NAME));
+
+    /**
+     * 読み込み中に到達できないため除外したコンポーネントの名前。
+     */
+    private List<String> prunedComponentNames = Collections.emptyList();
+
+    /**
+     * 読み込み中に解決した、自動インジェクションの対象となったプロパティと、インジェクションするコンポーネント。
+     */
+    private List<String> autowireReport = Collections.emptyList();
+
+    /**
+     * 生成中またはインジェクション中のコンポーネントから呼び出された、
+     * 依存するコンポーネントの生成とインジェクションにかかった時間(ナノ秒)。
+     * コンポーネントごとの生成とインジェクションの時間から、依存するコンポーネントの時間を除くために使用する。
+     */
+    private long nestedNanos;
+
+    /**
+     * 登録したMBeanのオブジェクト名(登録していない場合は{@code null})。
+     */
+    private ObjectName mbeanName;
+
+    /**
+     * コンポーネントの取得回数の集計(集計しない場合と、新しい世代を構築するコンテナの場合は{@code null})。
+     */
+    private final LookupStatistics lookupStatistics;
+
+    /**
+     * コンテナの処理を通知するリスナ(登録されていない場合は{@code null})。
+     */
+    private final ContainerLifecycleListener lifecycleListener;
+
+    /**
+     * 差分の再読み込みで、変更のないコンポーネントを引き継ぐ前の世代のコンテナ
+     * (差分の再読み込みで新しい世代を構築するコンテナでない場合は{@code null})。
+     */
+    private final DiContainer previousGeneration;
+
+    /**
+     * 前の世代から引き継いだコンポーネント(同一性で判定する)。
+     */
+    private Set<Object> carriedOverComponents = Collections.emptySet();
+
+    /** 差分の再読み込みで、変更されたリテラルを既存のコンポーネントに再インジェクションするかどうか。 */
+    private final boolean literalReinjectionEnabled = Boolean.getBoolean(REINJECT_LITERALS_SYSTEM_PROP_NAME);
+
+    /**
+     * 前の世代から引き継いだコンポーネントと、新しい世代の公開後に再インジェクションする変更されたリテラルの参照。
+     */
+    private Map<ComponentHolder, List<ComponentReference>> literalReinjections = Collections.emptyMap();
+
+    /**
+     * 読み込み中の差分の再読み込みで再生成する、名前で参照できるコンポーネントの名前。
+     */
+    private List<String> rebuiltComponentNames = Collections.emptyList();
+
     /**
      * コンストラクタ。
      * @param loader コンポーネント定義のローダ
@@ -100,7 +288,108 @@ public class DiContainer implements ObjectLoader {
         this.loader = loader;
         this.allowStaticInjection = allowStaticInjection;
         this.externalizedComponentDefinitionLoader = loadExternalizedComponentDefinitionLoader();
+        this.literalConverterRegistry = LiteralConverterRegistry.load();
+        this.lifecycleListener = CompositeContainerLifecycleListener.load();
+        this.lookupStatistics = Boolean.getBoolean(LOOKUP_STATISTICS_SYSTEM_PROP_NAME)
+                ? new LookupStatistics(Integer.getInteger(LOOKUP_SAMPLE_INTERVAL_SYSTEM_PROP_NAME, 0))
+                : null;
+        this.previousGeneration = null;
         reload();
+        if (Boolean.getBoolean(JMX_SYSTEM_PROP_NAME)) {
+            registerMBean();
+        }
+    }
+
+    /**
+     * 再読み込みで、新しい世代を構築するためのコンストラクタ。
+     * <p/>
+     * ローダや設定は現在のコンテナのものを使用し、MBeanの登録や取得回数の集計は行わない。
+     *
+     * @param current 現在のコンテナ
+     * @param incremental 差分の再読み込みの場合は{@code true}
+     */
+    private DiContainer(DiContainer current, boolean incremental) {
+        super();
+        this.loader = current.loader;
+        this.allowStaticInjection = current.allowStaticInjection;
+        this.externalizedComponentDefinitionLoader = current.externalizedComponentDefinitionLoader;
+        this.literalConverterRegistry = current.literalConverterRegistry;
+        this.lifecycleListener = current.lifecycleListener;
+        this.lookupStatistics = null;
+        this.previousGeneration = incremental ? current : null;
+    }
+
+    /**
+     * コンテナの状態を公開するMBeanをプラットフォームMBeanサーバに登録する。
+     * <p/>
+     * 登録の前に、{@link #dispose()}されずにガベージコレクションされたコンテナのMBeanの登録を解除する。
+     * 登録に失敗した場合は、コンテナの動作には影響しないため、ワーニングログを出力して処理を継続する。
+     */
+    private void registerMBean() {
+        unregisterCollectedMBeans();
+        try {
+            ObjectName name = new ObjectName("nablarch:type=DiContainer,id=" + MBEAN_ID.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Monitor(this, name), name);
+            mbeanName = name;
+        } catch (JMException e) {
+            LOGGER.logWarn("failed to register DiContainer MBean.", e);
+        }
+    }
+
+    /**
+     * ガベージコレクションされたコンテナのMBeanの登録を解除する。
+     */
+    private static void unregisterCollectedMBeans() {
+        Reference<? extends DiContainer> collected;
+        while ((collected = COLLECTED_CONTAINERS.poll()) != null) {
+            unregisterMBean(((ContainerReference) collected).mbeanName);
+        }
+    }
+
+    /**
+     * MBeanの登録を解除する。
+     * <p/>
+     * 既に登録が解除されている場合は何もしない。
+     * 登録の解除に失敗した場合は、ワーニングログを出力して処理を継続する。
+     *
+     * @param name MBeanのオブジェクト名
+     */
+    private static void unregisterMBean(ObjectName name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (InstanceNotFoundException e) {
+            // 破棄やガベージコレクションの検知により、既に登録が解除されている。
+        } catch (JMException e) {
+            LOGGER.logWarn("failed to unregister DiContainer MBean.", e);
+        }
+    }
+
+    /**
+     * コンテナを破棄する。
+     * <p/>
+     * MBeanを登録している場合は登録を解除し、{@link ContainerLifecycleListener}に破棄を通知する。
+     * コンポーネントの破棄は行わないため、{@link nablarch.core.repository.disposal.ApplicationDisposer}で行うこと。
+     * <p/>
+     * 破棄されずにガベージコレクションされたコンテナのMBeanは、MBeanの属性の参照時、
+     * または次にコンテナがMBeanを登録する時に登録が解除される。
+     */
+    public void dispose() {
+        if (mbeanName != null) {
+            unregisterMBean(mbeanName);
+            mbeanName = null;
+        }
+        if (lifecycleListener != null) {
+            lifecycleListener.containerDisposed(this);
+        }
+    }
+
+    /**
+     * 登録したMBeanのオブジェクト名を取得する。
+     *
+     * @return MBeanのオブジェクト名(登録していない場合は{@code null})
+     */
+    ObjectName getMBeanName() {
+        return mbeanName;
     }
 
     /**
@@ -139,16 +428,28 @@ public class DiContainer implements ObjectLoader {
 
     /**
      * DIしたオブジェクトを取得するロードメソッド。
+     * <p/>
+     * 返却するMapは、最後に完了した読み込み時のコンポーネントを参照する読み取り専用のビューであり、
+     * 呼び出しのたびにコンポーネントをコピーすることはない。
+     * コンテナを再読み込みした場合、再読み込み前に返却したMapの内容は変わらない。
      *
      * @return 名前をキーにしてロードしたオブジェクトを保持するMap。
      * @see nablarch.core.repository.ObjectLoader#load()
      */
     public Map<String, Object> load() {
-        Map<String, Object> loadedValues = new HashMap<String, Object>();
-        for (Map.Entry<String, ComponentHolder> entry : nameIndex.entrySet()) {
-            loadedValues.put(entry.getKey(), entry.getValue().getInitializedComponent());
-        }
-        return Collections.unmodifiableMap(loadedValues);
+        return generation.loadedComponents;
+    }
+
+    /**
+     * コンポーネント間の参照関係を表すグラフを作成する。
+     * <p/>
+     * グラフには、コンポーネントごとの生成とインジェクションにかかった時間が含まれる。
+     *
+     * @return コンポーネント間の参照関係を表すグラフ
+     */
+    public ComponentReferenceGraph createReferenceGraph() {
+        Generation current = generation;
+        return new ComponentReferenceGraph(current.holders.values(), current.nameIndex, current.typeIndex);
     }
 
     /**
@@ -165,33 +466,61 @@ public class DiContainer implements ObjectLoader {
      * <ol>
      * <li>設定の読み込み</li>
      * <li>コンポーネント定義の登録</li>
-     * <li>コンポーネント定義にあるObjectLoaderの生成とObjectLoader内のコンポーネントのロード</li>
+     * <li>コンポーネント定義にあるObjectLoaderの生成とObjectLoader内のコンポーネントのロード
+     * (ObjectLoaderが{@link LiteralStore}を実装している場合は、ストアの保持)</li>
      * <li>システムプロパティによるコンポーネント定義の上書き</li>
+     * <li>到達できないコンポーネント定義の除外(除外の起点が指定されている場合のみ)</li>
+     * <li>自動インジェクションの参照先の解決</li>
+     * <li>変更のないコンポーネントの前の世代からの引き継ぎ({@link #reloadIncrementally()}の場合のみ)</li>
      * <li>コンポーネントの生成</li>
      * <li>コンポーネントに対するインジェクションの実行</li>
      * <li>初期化対象クラスの初期化実行</li>
      * </ol>
+     * 各段階の処理は、JFRのイベント({@link ReloadPhaseEvent})として記録する。
+     * <p/>
+     * 新しい世代は現在のコンテナとは別に構築し、構築が完了してから1度に切り替える。
+     * このため、再読み込み中に他のスレッドが取得するコンポーネントは前の世代のものとなり、
+     * 構築に失敗した場合は前の世代のまま変わらない。
+     * <p/>
+     * 再読み込み({@link #reloadIncrementally()}を含む)はコンテナごとに同期化しており、
+     * 複数のスレッドから同時に呼び出された場合は1つずつ行う。
      */
-    public void reload() {
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        DiContainer next = new DiContainer(this, false);
+        next.build();
+        publish(next, start);
+    }
+
+    /**
+     * 新しい世代を構築する。
+     * <p/>
+     * 新しい世代を構築するコンテナで呼び出す。処理の順序は{@link #reload()}を参照。
+     */
+    private void build() {
         maxId = 0;
+        stringPool = new StringPool(deduplicateStrings);
+        generation = new Generation();
+        ReloadPhaseEvent phase = ReloadPhaseEvent.start();
         List<ComponentDefinition> defs = loader.load(this);
+        phase.finish(ReloadPhase.LOAD_DEFINITIONS, defs.size());
         if (LOGGER.isTraceEnabled()) {
             dump(defs);
         }
 
-        holders = new TreeMap<Integer, ComponentHolder>();
-        nameIndex = new HashMap<String, ComponentHolder>();
-        typeIndex = new HashMap<Class<?>, ComponentHolder>();
-        multiRegisteredType = new HashSet<Class<?>>();
+        phase = ReloadPhaseEvent.start();
+        Map<Integer, ComponentHolder> holders = generation.holders;
         for (ComponentDefinition def : defs) {
             register(def);
         }
+        phase.finish(ReloadPhase.REGISTER_DEFINITIONS, holders.size());
 
         // holders内のオブジェクトにObjectLoaderがあった際の処理に使用するループ用List
         List<Map.Entry<Integer, ComponentHolder>> prevEntries = new ArrayList<Map.Entry<Integer, ComponentHolder>>(
                 holders.entrySet());
 
         // ObjectLoaderを優先的にロード
+        phase = ReloadPhaseEvent.start();
         for (Map.Entry<Integer, ComponentHolder> entry : prevEntries) {
             ComponentHolder holder = entry.getValue();
             ComponentDefinition def = holder.getDefinition();
@@ -202,44 +531,824 @@ public class DiContainer implements ObjectLoader {
                 // コンポーネントにObjectLoaderが入っていたら、
                 // ObjectLoaderからロードされるものを全てコンポーネントとして扱う
                 Object component = holder.getComponent();
-                if (component instanceof ObjectLoader) {
-                    registerAll((ObjectLoader) component);
+                if (component instanceof LiteralStore) {
+                    // ストアの値はコンポーネント定義として登録せず、名前での参照時に問い合わせる。
+                    if (component instanceof ExternalizedLiteralStore) {
+                        ((ExternalizedLiteralStore) component).setExternalizedComponentDefinitionLoader(
+                                externalizedComponentDefinitionLoader);
+                    }
+                    generation.literalStores.add((LiteralStore) component);
+                } else if (component instanceof ObjectLoader) {
+                    ObjectLoader source = (ObjectLoader) component;
+                    if (def.getCreator() instanceof PreloadedObjectLoaderCreator) {
+                        // 読み込みを開始済みの場合は、元のObjectLoaderを再度読み込まない。
+                        // 読み込み結果は登録後に不要となるため、定義からの参照を解放する。
+                        ObjectLoader preloaded = ((PreloadedObjectLoaderCreator) def.getCreator()).releasePreloaded();
+                        if (preloaded != null) {
+                            source = preloaded;
+                        }
+                    }
+                    registerAll(source);
                 } else {
                     // def.getType() が ObjectLoader だったらここには到達しない。
                     throw new ContainerProcessException("ObjectLoader instantiation failed.");
                 }
             }
         }
+        phase.finish(ReloadPhase.LOAD_OBJECT_LOADERS, holders.size());
+
+        // 外部化されたコンポーネント定義で上書き
+        phase = ReloadPhaseEvent.start();
+        List<ComponentDefinition> externalized = externalizedComponentDefinitionLoader.load(this, generation.nameIndex);
+        for (ComponentDefinition definition : externalized) {
+            register(definition);
+        }
+        phase.finish(ReloadPhase.OVERRIDE_EXTERNALIZED, holders.size());
+
+        // 到達できないコンポーネント定義を除外
+        prunedComponentNames = Collections.emptyList();
+        if (!pruningRoots.isEmpty()) {
+            prune();
+        }
+
+        // 自動インジェクションの参照先を解決
+        planAutowire();
+
+        // 差分の再読み込みの場合は、変更のないコンポーネントを前の世代から引き継ぐ
+        if (previousGeneration != null) {
+            carryOver();
+        }
+
+        // コンポーネント生成ループ
+        phase = ReloadPhaseEvent.start();
+        for (Map.Entry<Integer, ComponentHolder> entry : holders.entrySet()) {
+            ComponentHolder holder = entry.getValue();
+            if (holder.getState() == ComponentState.NOT_INSTANTIATE) {
+                createComponent(holder);
+            }
+        }
+        phase.finish(ReloadPhase.CREATE_COMPONENTS, holders.size());
+
+        // インジェクション解決ループ
+        phase = ReloadPhaseEvent.start();
+        for (Map.Entry<Integer, ComponentHolder> entry : holders.entrySet()) {
+            ComponentHolder holder = entry.getValue();
+            if (holder.getState() == ComponentState.INSTANTIATED) {
+                completeInject(holder);
+            }
+        }
+        phase.finish(ReloadPhase.INJECT_COMPONENTS, holders.size());
+
+        // 読み込みが完了したので、文字列プールを破棄する。
+        reportStringPool();
+        stringPool = new StringPool(false);
+
+        // 初期化対象クラスを初期化する。
+        ApplicationInitializer initializer = this.getComponentByName("initializer");
+        if (initializer != null && !carriedOverComponents.contains(initializer)) {
+            phase = ReloadPhaseEvent.start();
+            long initializeStart = System.nanoTime();
+            if (!carriedOverComponents.isEmpty() && initializer instanceof BasicApplicationInitializer) {
+                // 引き継いだコンポーネントは初期化済みのため、新しく生成したコンポーネントのみを初期化する
+                ((BasicApplicationInitializer) initializer).initializeExcluding(carriedOverComponents);
+            } else {
+                initializer.initialize();
+            }
+            phase.finish(ReloadPhase.INITIALIZE, holders.size());
+            if (lifecycleListener != null) {
+                lifecycleListener.containerInitialized(generation.nameIndex.get("initializer").getDefinition(),
+                        System.nanoTime() - initializeStart);
+            }
+        }
+
+        generation = generation.complete(prunedComponentNames, autowireReport, rebuiltComponentNames);
+    }
+
+    /**
+     * 新しい世代を構築したコンテナから、構築した世代を公開する。
+     * <p/>
+     * 取得回数を集計する場合は、公開前に新しい世代のコンポーネントホルダにカウンタを割り当てる。
+     * 読み込み中の取得(インジェクション)は集計しない。
+     *
+     * @param next 新しい世代を構築したコンテナ
+     * @param start 読み込みの開始時刻(ナノ秒)
+     */
+    private void publish(DiContainer next, long start) {
+        Generation built = next.generation;
+        if (lookupStatistics != null) {
+            lookupStatistics.reset(built.holders.values());
+            lookupStatistics.attach(built.holders.values());
+        }
+        maxId = next.maxId;
+        generation = built;
+
+        lastReloadDurationNanos = System.nanoTime() - start;
+        reloadCount++;
+    }
+
+    /**
+     * 変更されたコンポーネントのみを再生成する、差分の再読み込みを行う。
+     * <p/>
+     * {@link #reload()}と同じ順序でコンポーネント定義を読み込み、前回の読み込み結果とコンポーネント定義の内容を比較する。
+     * 内容が変わっていないコンポーネントは前回生成したインスタンスを引き継ぎ、
+     * 内容が変わったコンポーネントと、それらを直接または間接に参照するコンポーネントのみを再生成する。
+     * 世代間のコンポーネントの対応付けは、名前で参照できるコンポーネントは名前で行い、
+     * それ以外のコンポーネント(プロパティやリストの要素に直接定義したコンポーネントなど)は
+     * 参照元のコンポーネントとプロパティ名(リストの要素やマップのエントリの場合はその位置)で行う。
+     * 対応付けられないコンポーネントと、生成方法をコンポーネント定義から判断できないコンポーネント
+     * (コンストラクタインジェクションなど)は常に再生成する。
+     * <p/>
+     * {@link #reload()}と同様に、新しい世代は現在のコンテナとは別に構築し、構築が完了してから1度に切り替える。
+     * 構築に失敗した場合は前の世代のまま変わらない。
+     * <p/>
+     * 初期化対象クラス({@literal "initializer"})を引き継いだ場合は初期化を行わない。
+     * 初期化対象クラスが{@link BasicApplicationInitializer}の場合は、引き継いだコンポーネントを除いて初期化する。
+     * 再生成したコンポーネントの名前は{@link #getRebuiltComponentNames()}で取得できる。
+     * <p/>
+     * システムプロパティ{@literal "nablarch.diContainer.reinjectLiterals"}に{@code true}を設定すると、
+     * 変更がリテラルの値(設定ファイルやシステムプロパティによる上書きで変わった値を含む)のみであるコンポーネントは、
+     * 再生成せずに引き継ぎ、値が変わったプロパティのみを再インジェクションする。
+     * このため、そのコンポーネントを参照するコンポーネントも再生成されない。
+     * コンポーネントが{@link LiteralReinjectable}を実装している場合は、再インジェクション後に通知する。
+     * 再インジェクションは新しい世代の初期化と公開が完了した後に行うため、構築に失敗した場合は行わない。
+     * 再インジェクションは実行中のコンポーネントに対して行うため、コンポーネント側でスレッドセーフに扱うこと。
+     */
+    public synchronized void reloadIncrementally() {
+        long start = System.nanoTime();
+        DiContainer next = new DiContainer(this, true);
+        next.build();
+        publish(next, start);
+
+        // 引き継いだコンポーネントは前の世代でも使用しているため、新しい世代の公開が完了してから再インジェクションする
+        if (!next.literalReinjections.isEmpty()) {
+            reinjectLiterals(next.literalReinjections);
+        }
+    }
+
+    /**
+     * 前の世代と内容が変わらないコンポーネントを、前の世代から引き継ぐ。
+     * <p/>
+     * 内容が変わったコンポーネントと、それらを参照するコンポーネントを参照元へ再帰的にたどったものを再生成の対象とし、
+     * それ以外の未生成のコンポーネントには、前の世代で生成したコンポーネントを設定する。
+     */
+    private void carryOver() {
+        Map<String, ComponentHolder> previousKeys = previousGeneration.keyHolders();
+        Map<String, ComponentHolder> currentKeys = keyHolders();
+
+        Set<Integer> changed = new HashSet<Integer>();
+        for (ComponentHolder holder : generation.holders.values()) {
+            changed.add(holder.getDefinition().getId());
+        }
+        Map<ComponentHolder, ComponentHolder> unchanged = new IdentityHashMap<ComponentHolder, ComponentHolder>();
+        Map<ComponentHolder, List<ComponentReference>> reinjections
+                = new IdentityHashMap<ComponentHolder, List<ComponentReference>>();
+        for (Map.Entry<String, ComponentHolder> entry : currentKeys.entrySet()) {
+            ComponentHolder holder = entry.getValue();
+            ComponentHolder previous = previousKeys.get(entry.getKey());
+            if (holder.getState() != ComponentState.NOT_INSTANTIATE
+                    || previous == null || previous.getState() != ComponentState.INJECTED) {
+                continue;
+            }
+            String signature = signature(holder);
+            if (signature == null) {
+                continue;
+            }
+            if (signature.equals(previousGeneration.signature(previous)) && isSameStoredValue(holder, previous)) {
+                changed.remove(holder.getDefinition().getId());
+                unchanged.put(holder, previous);
+            } else if (literalReinjectionEnabled) {
+                List<ComponentReference> literals = findChangedLiterals(holder, previous);
+                if (literals != null) {
+                    changed.remove(holder.getDefinition().getId());
+                    unchanged.put(holder, previous);
+                    reinjections.put(holder, literals);
+                }
+            }
+        }
+
+        // 変更されたコンポーネントを参照するコンポーネントも再生成する
+        Map<Integer, List<Integer>> referrers = new HashMap<Integer, List<Integer>>();
+        ComponentReferenceGraph graph = new ComponentReferenceGraph(
+                generation.holders.values(), generation.nameIndex, generation.typeIndex);
+        for (ComponentReferenceGraph.Edge edge : graph.getEdges()) {
+            List<Integer> from = referrers.get(edge.getTo());
+            if (from == null) {
+                from = new ArrayList<Integer>();
+                referrers.put(edge.getTo(), from);
+            }
+            from.add(edge.getFrom());
+        }
+        LinkedList<Integer> queue = new LinkedList<Integer>(changed);
+        while (!queue.isEmpty()) {
+            List<Integer> from = referrers.get(queue.removeFirst());
+            if (from == null) {
+                continue;
+            }
+            for (Integer id : from) {
+                if (changed.add(id)) {
+                    queue.add(id);
+                }
+            }
+        }
+
+        Set<Object> carried = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        Map<ComponentHolder, List<ComponentReference>> carriedReinjections
+                = new LinkedHashMap<ComponentHolder, List<ComponentReference>>();
+        int carriedCount = 0;
+        for (ComponentHolder holder : generation.holders.values()) {
+            ComponentHolder previous = unchanged.get(holder);
+            if (previous == null || changed.contains(holder.getDefinition().getId())) {
+                continue;
+            }
+            if (reinjections.containsKey(holder)) {
+                carriedReinjections.put(holder, reinjections.get(holder));
+            }
+            holder.setComponent(previous.getComponent());
+            holder.setInitializedComponent(previous.getInitializedComponent());
+            holder.setState(ComponentState.INJECTED);
+            carried.add(previous.getComponent());
+            carried.add(previous.getInitializedComponent());
+            carriedCount++;
+        }
+        List<String> rebuilt = new ArrayList<String>();
+        for (ComponentHolder holder : generation.holders.values()) {
+            String name = holder.getDefinition().getName();
+            if (name != null && generation.nameIndex.get(name) == holder && changed.contains(holder.getDefinition().getId())) {
+                rebuilt.add(name);
+            }
+        }
+        carriedOverComponents = carried;
+        literalReinjections = carriedReinjections;
+        rebuiltComponentNames = Collections.unmodifiableList(rebuilt);
+
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.logInfo("components were carried over from the previous generation."
+                    + " carried over components = " + carriedCount
+                    + ", rebuilt components = " + (generation.holders.size() - carriedCount));
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.logDebug("rebuilt component names = " + rebuilt);
+        }
+    }
+
+    /**
+     * 前の世代からの変更がリテラルの値のみである場合に、値が変わったリテラルの参照を取得する。
+     * <p/>
+     * プロパティへのインジェクションで生成するコンポーネント({@link ComponentFactory}を除く)のみを対象とする。
+     * 型や生成方法、リテラル以外の参照、またはプロパティの構成が変わった場合は再インジェクションできない。
+     *
+     * @param holder 新しい世代のコンポーネントホルダ
+     * @param previous 前の世代のコンポーネントホルダ
+     * @return 値が変わったリテラルの参照(再インジェクションできない場合は{@code null})
+     */
+    private List<ComponentReference> findChangedLiterals(ComponentHolder holder, ComponentHolder previous) {
+        ComponentDefinition def = holder.getDefinition();
+        if (def.getCreator().getClass() != BeanComponentCreator.class
+                || previous.getComponent() instanceof ComponentFactory<?>
+                || !creatorSignature(def).equals(previousGeneration.creatorSignature(previous.getDefinition()))) {
+            return null;
+        }
+        List<ComponentReference> references = holder.getInjectionReferences();
+        List<ComponentReference> previousReferences = previous.getInjectionReferences();
+        if (references.size() != previousReferences.size()) {
+            return null;
+        }
+        List<ComponentReference> literals = new ArrayList<ComponentReference>();
+        for (int i = 0; i < references.size(); i++) {
+            ComponentReference ref = references.get(i);
+            ComponentReference previousRef = previousReferences.get(i);
+            String signature = referenceSignature(ref);
+            if (signature != null && signature.equals(previousGeneration.referenceSignature(previousRef))) {
+                continue;
+            }
+            if (signature == null
+                    || ref.getInjectionType() != InjectionType.LITERAL
+                    || previousRef.getInjectionType() != InjectionType.LITERAL
+                    || !ref.getPropertyName().equals(previousRef.getPropertyName())) {
+                return null;
+            }
+            literals.add(ref);
+        }
+        return literals;
+    }
+
+    /**
+     * 前の世代から引き継いだコンポーネントに、値が変わったリテラルを再インジェクションする。
+     * <p/>
+     * 新しい世代を公開したコンテナで呼び出す。
+     * リテラルは公開した新しい世代の設定値を使用して、{@link LiteralExpressionUtil}で変換する。
+     * コンポーネントが{@link LiteralReinjectable}を実装している場合は、再インジェクションしたプロパティ名を通知する。
+     *
+     * @param literalReinjections 引き継いだコンポーネントと、再インジェクションする変更されたリテラルの参照
+     */
+    private void reinjectLiterals(Map<ComponentHolder, List<ComponentReference>> literalReinjections) {
+        List<String> reinjected = new ArrayList<String>();
+        for (Map.Entry<ComponentHolder, List<ComponentReference>> entry : literalReinjections.entrySet()) {
+            ComponentHolder holder = entry.getKey();
+            ComponentDefinition def = holder.getDefinition();
+            List<String> propertyNames = new ArrayList<String>();
+            for (ComponentReference ref : entry.getValue()) {
+                injectObject(holder, ref);
+                propertyNames.add(ref.getPropertyName());
+                reinjected.add((def.getName() != null ? def.getName() : "#" + def.getId()) + "." + ref.getPropertyName());
+            }
+            if (holder.getComponent() instanceof LiteralReinjectable) {
+                ((LiteralReinjectable) holder.getComponent()).literalsReinjected(
+                        Collections.unmodifiableList(propertyNames));
+            }
+        }
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.logInfo("changed literals were reinjected into carried over components."
+                    + " components = " + literalReinjections.size()
+                    + ", properties = " + reinjected.size());
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.logDebug("reinjected properties = " + reinjected);
+        }
+    }
+
+    /**
+     * 世代間でコンポーネントを対応付けるためのキーと、コンポーネントホルダのMapを作成する。
+     * <p/>
+     * 名前で参照できるコンポーネントは名前をキーとする。
+     * それ以外のコンポーネントは、参照元のキーに{@literal "#"}とプロパティ名
+     * (リストの要素は{@literal "[位置]"}、マップのエントリは{@literal "{key位置}"}または{@literal "{value位置}"})
+     * を連結したものをキーとする。
+     *
+     * @return キーとコンポーネントホルダのMap
+     */
+    private Map<String, ComponentHolder> keyHolders() {
+        Map<String, ComponentHolder> keys = new HashMap<String, ComponentHolder>(generation.nameIndex);
+        LinkedList<String> queue = new LinkedList<String>(generation.nameIndex.keySet());
+        while (!queue.isEmpty()) {
+            String key = queue.removeFirst();
+            ComponentDefinition def = keys.get(key).getDefinition();
+            for (ComponentReference ref : def.getReferences()) {
+                if (ref.getInjectionType() == InjectionType.ID) {
+                    addChildKey(keys, queue, key + "#" + ref.getPropertyName(), ref.getTargetId());
+                }
+            }
+            ComponentInjector injector = def.getInjector();
+            if (injector instanceof ListComponentCreator) {
+                List<ListElementDefinition> elements = ((ListComponentCreator) injector).getElementDefinitions();
+                for (int i = 0; i < elements.size(); i++) {
+                    if (elements.get(i).getId() != null) {
+                        addChildKey(keys, queue, key + "#[" + i + "]", elements.get(i).getId());
+                    }
+                }
+            } else if (injector instanceof MapComponentCreator) {
+                List<MapEntryDefinition> entries = ((MapComponentCreator) injector).getEntries();
+                for (int i = 0; i < entries.size(); i++) {
+                    MapEntryDefinition entry = entries.get(i);
+                    if (entry.getKeyType() == MapEntryDefinition.DataType.COMPONENT) {
+                        addChildKey(keys, queue, key + "#{key" + i + "}", entry.getKeyId());
+                    }
+                    if (entry.getValueType() == MapEntryDefinition.DataType.COMPONENT) {
+                        addChildKey(keys, queue, key + "#{value" + i + "}", entry.getValueId());
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 名前で参照できないコンポーネントに、参照元から作成したキーを割り当てる。
+     *
+     * @param keys キーとコンポーネントホルダのMap
+     * @param queue 参照先をたどるキーのキュー
+     * @param key 割り当てるキー
+     * @param id コンポーネントID
+     */
+    private void addChildKey(Map<String, ComponentHolder> keys, LinkedList<String> queue, String key, int id) {
+        ComponentHolder child = generation.holders.get(id);
+        if (child == null || keys.containsKey(key)) {
+            return;
+        }
+        String name = child.getDefinition().getName();
+        if (name != null && generation.nameIndex.get(name) == child) {
+            return;
+        }
+        keys.put(key, child);
+        queue.add(key);
+    }
+
+    /**
+     * 世代間でコンポーネント定義の内容を比較するためのシグネチャを作成する。
+     * <p/>
+     * 生成方法のシグネチャ({@link #creatorSignature(ComponentDefinition)})と、
+     * プロパティごとのシグネチャ({@link #referenceSignature(ComponentReference)})を連結したものとする。
+     *
+     * @param holder コンポーネントホルダ
+     * @return シグネチャ(生成方法をコンポーネント定義から判断できない場合は{@code null})
+     */
+    private String signature(ComponentHolder holder) {
+        String creatorSignature = creatorSignature(holder.getDefinition());
+        if (creatorSignature == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(creatorSignature);
+        for (ComponentReference ref : holder.getInjectionReferences()) {
+            String referenceSignature = referenceSignature(ref);
+            if (referenceSignature == null) {
+                return null;
+            }
+            sb.append('|').append(referenceSignature);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 作成済みの値を保持するコンポーネントが、前の世代と同じ値であるか否かを判定する。
+     * <p/>
+     * 文字列の値はシグネチャで比較する。
+     * 文字列以外の値(ObjectLoaderがロードしたDataSourceなど)はシグネチャで比較できないため、
+     * 前の世代のコンポーネントと同じインスタンスである場合に同じ値とする。
+     *
+     * @param holder 新しい世代のコンポーネントホルダ
+     * @param previous 前の世代のコンポーネントホルダ
+     * @return 同じ値の場合、または作成済みの値を保持するコンポーネントでない場合は{@code true}
+     */
+    private static boolean isSameStoredValue(ComponentHolder holder, ComponentHolder previous) {
+        ComponentCreator creator = holder.getDefinition().getCreator();
+        if (!(creator instanceof StoredValueComponentCreator)) {
+            return true;
+        }
+        Object value = ((StoredValueComponentCreator) creator).getValue();
+        return value instanceof String || value == previous.getComponent();
+    }
+
+    /**
+     * コンポーネントの型と生成方法のシグネチャを作成する。
+     * <p/>
+     * 直接定義したコンポーネントの内容は、そのコンポーネント自身のシグネチャで比較するため含まない。
+     * 文字列以外の作成済みの値はシグネチャに含めず、{@link #isSameStoredValue(ComponentHolder, ComponentHolder)}で比較する。
+     *
+     * @param def コンポーネント定義
+     * @return シグネチャ(生成方法をコンポーネント定義から判断できない場合は{@code null})
+     */
+    private String creatorSignature(ComponentDefinition def) {
+        StringBuilder sb = new StringBuilder(def.getType().getName());
+        ComponentCreator creator = def.getCreator();
+        if (creator instanceof StoredValueComponentCreator) {
+            Object value = ((StoredValueComponentCreator) creator).getValue();
+            if (value instanceof String) {
+                sb.append("|value=").append(value);
+            } else {
+                sb.append("|stored");
+            }
+        } else if (creator instanceof LiteralComponentCreator) {
+            sb.append('|');
+            appendLiteral(sb, (LiteralComponentCreator) creator);
+        } else if (creator instanceof ListComponentCreator) {
+            for (ListElementDefinition element : ((ListComponentCreator) creator).getElementDefinitions()) {
+                sb.append("|element=").append(element.getId() != null ? "(component)" : describeName(element.getName()));
+            }
+        } else if (creator instanceof MapComponentCreator) {
+            for (MapEntryDefinition entry : ((MapComponentCreator) creator).getEntries()) {
+                sb.append("|key=");
+                appendMapData(sb, entry.getKeyType(), entry.getKey(), entry.getKeyRef());
+                sb.append(",value=");
+                appendMapData(sb, entry.getValueType(), entry.getValue(), entry.getValueRef());
+            }
+        } else if (creator.getClass() == BeanComponentCreator.class && def.getInjector() == null) {
+            sb.append("|bean");
+        } else {
+            return null;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * インジェクションするプロパティのシグネチャを作成する。
+     * <p/>
+     * リテラルは変数の値を、名前による参照は参照名を、自動インジェクションは解決した参照先を含む。
+     *
+     * @param ref 参照
+     * @return シグネチャ(値の生成方法を判断できない場合は{@code null})
+     */
+    private String referenceSignature(ComponentReference ref) {
+        StringBuilder sb = new StringBuilder(ref.getPropertyName()).append('=');
+        switch (ref.getInjectionType()) {
+        case LITERAL:
+            if (!(ref.getValueCreator() instanceof LiteralComponentCreator)) {
+                return null;
+            }
+            appendLiteral(sb, (LiteralComponentCreator) ref.getValueCreator());
+            break;
+        case REF:
+            sb.append(describeName(ref.getReferenceName()));
+            break;
+        case ID:
+            sb.append("(component)");
+            break;
+        default:
+            sb.append(resolveAutowireTarget(ref)).append(" [").append(ref.getInjectionType()).append(']');
+            break;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * リテラルと、リテラルに含まれる変数の値をシグネチャに追加する。
+     *
+     * @param sb シグネチャ
+     * @param creator リテラルの生成方法
+     */
+    private void appendLiteral(StringBuilder sb, LiteralComponentCreator creator) {
+        sb.append(creator);
+        appendVariables(sb, creator.getLiteral());
+    }
+
+    /**
+     * マップのキーまたは値の定義をシグネチャに追加する。
+     *
+     * @param sb シグネチャ
+     * @param type データの種類
+     * @param literal 文字列データ
+     * @param ref 参照名
+     */
+    private void appendMapData(StringBuilder sb, MapEntryDefinition.DataType type, String literal, String ref) {
+        switch (type) {
+        case STRING:
+            sb.append(literal);
+            appendVariables(sb, literal);
+            break;
+        case REF:
+            sb.append(describeName(ref));
+            break;
+        default:
+            sb.append("(component)");
+            break;
+        }
+    }
+
+    /**
+     * リテラルに含まれる変数の値をシグネチャに追加する。
+     *
+     * @param sb シグネチャ
+     * @param literal リテラル
+     */
+    private void appendVariables(StringBuilder sb, String literal) {
+        for (String name : LiteralExpressionUtil.getVariableNames(literal)) {
+            sb.append(",${").append(describeName(name)).append('}');
+        }
+    }
+
+    /**
+     * 名前による参照先を、世代間で比較できる形式で表す。
+     * <p/>
+     * 設定値は名前と値を、それ以外のコンポーネントは名前を返す。
+     * コンポーネントの内容の変更は、参照関係をたどって参照元に伝播させる。
+     *
+     * @param name 参照名
+     * @return 参照先を表す文字列
+     */
+    private String describeName(String name) {
+        ComponentHolder target = generation.nameIndex.get(name);
+        if (target == null) {
+            return name + "=" + findLiteral(name);
+        }
+        ComponentCreator creator = target.getDefinition().getCreator();
+        if (creator instanceof StoredValueComponentCreator) {
+            return name + "=" + ((StoredValueComponentCreator) creator).getValue();
+        }
+        return name;
+    }
+
+    /**
+     * 除外の起点とするコンポーネント名を解析する。
+     *
+     * @param value システムプロパティの値
+     * @return コンポーネント名のリスト(値が指定されていない場合は空のリスト)
+     */
+    private static List<String> parsePruningRoots(String value) {
+        if (StringUtil.isNullOrEmpty(value)) {
+            return Collections.emptyList();
+        }
+        List<String> roots = new ArrayList<String>();
+        for (String root : value.split(",")) {
+            if (!root.trim().isEmpty()) {
+                roots.add(root.trim());
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * 除外の起点から参照をたどって到達できないコンポーネント定義を、登録から除外する。
+     * <p/>
+     * 以下のコンポーネントを起点とする。
+     * <ul>
+     * <li>システムプロパティで指定されたコンポーネント</li>
+     * <li>初期化対象クラス({@literal "initializer"})</li>
+     * <li>生成済みのコンポーネント(ObjectLoaderとそのコンポーネント)</li>
+     * <li>作成済みのオブジェクトを保持するコンポーネント(設定値やシステムプロパティなど)</li>
+     * </ul>
+     * 型による自動インジェクションは、読み込み済みの型のインデックスで解決できる参照先をたどる。
+     * 複数登録された型は、除外後も型による自動インジェクションの対象としない。
+     */
+    private void prune() {
+        Set<Integer> roots = new HashSet<Integer>();
+        for (String name : pruningRoots) {
+            ComponentHolder holder = generation.nameIndex.get(name);
+            if (holder == null) {
+                throw new ContainerProcessException("pruning root component was not found."
+                        + " component name = [" + name + "]");
+            }
+            roots.add(holder.getDefinition().getId());
+        }
+        if (generation.nameIndex.containsKey("initializer")) {
+            roots.add(generation.nameIndex.get("initializer").getDefinition().getId());
+        }
+        for (ComponentHolder holder : generation.holders.values()) {
+            if (holder.getState() != ComponentState.NOT_INSTANTIATE
+                    || holder.getDefinition().getCreator() instanceof StoredValueComponentCreator) {
+                roots.add(holder.getDefinition().getId());
+            }
+        }
+
+        Set<Integer> reachable = new ComponentReferenceGraph(
+                generation.holders.values(), generation.nameIndex, generation.typeIndex).getReachableIds(roots);
+        List<String> pruned = new ArrayList<String>();
+        Iterator<ComponentHolder> it = generation.holders.values().iterator();
+        while (it.hasNext()) {
+            ComponentHolder holder = it.next();
+            ComponentDefinition def = holder.getDefinition();
+            if (reachable.contains(def.getId())) {
+                continue;
+            }
+            it.remove();
+            if (def.getName() != null) {
+                if (generation.nameIndex.get(def.getName()) == holder) {
+                    generation.nameIndex.remove(def.getName());
+                }
+                pruned.add(def.getName());
+            }
+        }
+        Iterator<ComponentHolder> typeIt = generation.typeIndex.values().iterator();
+        while (typeIt.hasNext()) {
+            if (!reachable.contains(typeIt.next().getDefinition().getId())) {
+                typeIt.remove();
+            }
+        }
+        prunedComponentNames = Collections.unmodifiableList(pruned);
 
-        // 外部化されたコンポーネント定義で上書き
-        List<ComponentDefinition> externalized = externalizedComponentDefinitionLoader.load(this, nameIndex);
-        for (ComponentDefinition definition : externalized) {
-            register(definition);
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.logInfo("unreachable components were pruned."
+                    + " roots = " + pruningRoots
+                    + ", kept components = " + generation.holders.size()
+                    + ", pruned named components = " + pruned.size());
         }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.logDebug("pruned component names = " + pruned);
+        }
+    }
 
-        // コンポーネント生成ループ
-        for (Map.Entry<Integer, ComponentHolder> entry : holders.entrySet()) {
-            ComponentHolder holder = entry.getValue();
-            if (holder.getState() == ComponentState.NOT_INSTANTIATE) {
-                createComponent(holder);
+    /**
+     * 自動インジェクションの参照先を、登録が完了した名前と型のインデックスで解決する。
+     * <p/>
+     * 参照先が存在しない自動インジェクションの参照は、インジェクション時に検索しても値が得られないため、
+     * コンポーネントホルダのインジェクションに使用する参照から取り除く。
+     * 参照先が存在するものは、自動インジェクションの結果として記録する。
+     * 生成済みのコンポーネント(ObjectLoader)は対象外とする。
+     */
+    private void planAutowire() {
+        List<String> report = new ArrayList<String>();
+        int dropped = 0;
+        for (ComponentHolder holder : generation.holders.values()) {
+            if (holder.getState() != ComponentState.NOT_INSTANTIATE) {
+                continue;
+            }
+            ComponentDefinition def = holder.getDefinition();
+            List<ComponentReference> plan = null;
+            List<ComponentReference> references = def.getReferences();
+            for (int i = 0; i < references.size(); i++) {
+                ComponentReference ref = references.get(i);
+                String target = resolveAutowireTarget(ref);
+                if (target == null && isAutowire(ref)) {
+                    if (plan == null) {
+                        plan = new ArrayList<ComponentReference>(references.subList(0, i));
+                    }
+                    dropped++;
+                    continue;
+                }
+                if (target != null) {
+                    report.add((def.getName() != null ? def.getName() : "#" + def.getId())
+                            + "." + ref.getPropertyName() + " <- " + target + " [" + ref.getInjectionType() + "]");
+                }
+                if (plan != null) {
+                    plan.add(ref);
+                }
+            }
+            if (plan != null) {
+                holder.setInjectionReferences(plan);
             }
         }
+        autowireReport = Collections.unmodifiableList(report);
 
-        // インジェクション解決ループ
-        for (Map.Entry<Integer, ComponentHolder> entry : holders.entrySet()) {
-            ComponentHolder holder = entry.getValue();
-            if (holder.getState() == ComponentState.INSTANTIATED) {
-                completeInject(holder);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.logDebug("autowire references were resolved."
+                    + " autowired properties = " + report.size()
+                    + ", dropped references = " + dropped);
+        }
+    }
+
+    /**
+     * 自動インジェクションの参照か否かを判定する。
+     *
+     * @param ref 参照
+     * @return 自動インジェクションの場合は{@code true}
+     */
+    private static boolean isAutowire(ComponentReference ref) {
+        return ref.getInjectionType() == InjectionType.BY_TYPE || ref.getInjectionType() == InjectionType.BY_NAME;
+    }
+
+    /**
+     * 自動インジェクションの参照先を解決する。
+     *
+     * @param ref 参照
+     * @return 参照先の表示名(自動インジェクションでない場合や、参照先が存在しない場合は{@code null})
+     */
+    private String resolveAutowireTarget(ComponentReference ref) {
+        ComponentHolder target;
+        if (ref.getInjectionType() == InjectionType.BY_TYPE) {
+            target = generation.typeIndex.get(ref.getRequiredType());
+        } else if (ref.getInjectionType() == InjectionType.BY_NAME) {
+            target = generation.nameIndex.get(ref.getReferenceName());
+            if (target == null && findLiteral(ref.getReferenceName()) != null) {
+                return ref.getReferenceName() + " (literal store)";
             }
+        } else {
+            return null;
+        }
+        if (target == null) {
+            return null;
         }
+        ComponentDefinition def = target.getDefinition();
+        return def.getName() != null ? def.getName() : "#" + def.getId();
+    }
 
-        // 初期化対象クラスを初期化する。
-        ApplicationInitializer initializer = this.getComponentByName("initializer");
-        if (initializer != null) {
-            initializer.initialize();
+    /**
+     * 自動インジェクションの対象となったプロパティと、インジェクションするコンポーネントを取得する。
+     * <p/>
+     * 要素は{@literal "コンポーネント名.プロパティ名 <- 参照先のコンポーネント名 [自動インジェクションの種類]"}の形式。
+     * 名前のないコンポーネントは{@literal "#コンポーネントID"}で表す。
+     *
+     * @return 自動インジェクションの対象となったプロパティ(変更不可)
+     */
+    public List<String> getAutowireReport() {
+        return generation.autowireReport;
+    }
+
+    /**
+     * 到達できないため除外したコンポーネントの名前を取得する。
+     * <p/>
+     * 名前のないコンポーネント(ネストしたコンポーネントや設定値など)は含まない。
+     * 除外を行っていない場合は空のリストを返す。
+     *
+     * @return 除外したコンポーネントの名前(変更不可)
+     */
+    public List<String> getPrunedComponentNames() {
+        return generation.prunedComponentNames;
+    }
+
+    /**
+     * 最後の差分の再読み込み({@link #reloadIncrementally()})で再生成した、名前で参照できるコンポーネントの名前を取得する。
+     * <p/>
+     * 差分の再読み込みを行っていない場合は空のリストを返す。
+     *
+     * @return 再生成したコンポーネントの名前(コンポーネントIDの昇順、変更不可)
+     */
+    public List<String> getRebuiltComponentNames() {
+        return generation.rebuiltComponentNames;
+    }
+
+    /**
+     * 文字列の集約結果をログ出力する。
+     */
+    private void reportStringPool() {
+        if (stringPool.isEnabled() && LOGGER.isInfoEnabled()) {
+            LOGGER.logInfo("string deduplication completed."
+                    + " pooled strings = " + stringPool.size()
+                    + ", deduplicated strings = " + stringPool.getDeduplicatedCount()
+                    + ", saved bytes (approx.) = " + stringPool.getSavedBytes());
         }
     }
 
+    /**
+     * 読み込み中に使用する文字列プールを取得する。
+     * <p/>
+     * {@link ComponentDefinitionLoader}は、コンポーネント名や設定値などの文字列をこのプールで集約してから
+     * コンポーネント定義に設定することで、同じ内容の文字列がヒープ上に重複して保持されることを防げる。
+     * 文字列の集約が無効な場合や読み込み中でない場合は、文字列をそのまま返すプールを返す。
+     *
+     * @return 文字列プール
+     */
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
     /**
      * 読み出した定義をすべて出力する。
      *
@@ -291,20 +1400,80 @@ public class DiContainer implements ObjectLoader {
 
     /**
      * ObjectLoaderからロードできるオブジェクトを全て登録する。
+     * <p/>
+     * ObjectLoaderが{@link StreamingObjectLoader}を実装している場合は、ロード結果を{@link Map}にまとめずに、
+     * 受け取ったオブジェクトを1件ずつ登録する。
      *
      * @param loader ObjectLoader
      */
     private void registerAll(ObjectLoader loader) {
-        Map<String, Object> loaded = loader.load();
-        for (Map.Entry<String, Object> entry : loaded.entrySet()) {
-            String key = entry.getKey();
-            Object value = entry.getValue();
+        final int firstId = maxId;
+        StreamingObjectLoader.Sink sink = new StreamingObjectLoader.Sink() {
+            @Override
+            public void put(String key, Object value) {
+                registerLoadedObject(key, value, firstId);
+            }
+        };
+        if (loader instanceof StreamingObjectLoader) {
+            ((StreamingObjectLoader) loader).load(sink);
+        } else {
+            for (Map.Entry<String, Object> entry : loader.load().entrySet()) {
+                sink.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * ObjectLoaderからロードしたオブジェクトを登録する。
+     * <p/>
+     * 同じObjectLoaderから同じキーのオブジェクトを受け取った場合は、先に登録したコンポーネントを取り除き、
+     * 後に受け取ったオブジェクトで置き換える。
+     *
+     * @param key キー
+     * @param value オブジェクト
+     * @param firstId ObjectLoaderのロードを開始した時点のコンポーネントIDの採番値
+     */
+    private void registerLoadedObject(String key, Object value, int firstId) {
+        key = stringPool.deduplicate(key);
+        if (value instanceof String) {
+            value = stringPool.deduplicate((String) value);
+        }
 
-            Class<?> type = value.getClass();
+        ComponentHolder previous = generation.nameIndex.get(key);
+        if (previous != null && previous.getDefinition().getId() >= firstId) {
+            if (LOGGER.isWarnEnabled()) {
+                LOGGER.logWarn("duplicate key [" + key + "]. change ["
+                        + ((StoredValueComponentCreator) previous.getDefinition().getCreator()).getValue()
+                        + "] to [" + value + "]");
+            }
+            unregister(previous);
+        }
 
-            ComponentCreator creator = new StoredValueComponentCreator(value);
-            ComponentDefinition def = new ComponentDefinition(generateId(), key, creator, type);
-            register(def);
+        Class<?> type = value.getClass();
+
+        ComponentCreator creator = new StoredValueComponentCreator(value);
+        ComponentDefinition def = new ComponentDefinition(generateId(), key, creator, type);
+        register(def);
+    }
+
+    /**
+     * 登録したコンポーネントホルダを取り除く。
+     * <p/>
+     * 型のインデックスは、このコンポーネントホルダのみが登録されていた型を取り除く。
+     * 複数登録された型は、そのまま複数登録された型として扱う。
+     *
+     * @param holder コンポーネントホルダ
+     */
+    private void unregister(ComponentHolder holder) {
+        ComponentDefinition def = holder.getDefinition();
+        generation.holders.remove(def.getId());
+        if (def.getName() != null && generation.nameIndex.get(def.getName()) == holder) {
+            generation.nameIndex.remove(def.getName());
+        }
+        for (Class<?> supertype : SUPERTYPES.get(def.getType())) {
+            if (generation.typeIndex.get(supertype) == holder) {
+                generation.typeIndex.remove(supertype);
+            }
         }
     }
 
@@ -314,14 +1483,17 @@ public class DiContainer implements ObjectLoader {
      */
     private void register(ComponentDefinition def) {
         ComponentHolder holder = new ComponentHolder(def);
-        holders.put(def.getId(), holder);
+        generation.holders.put(def.getId(), holder);
         if (def.getName() != null && !def.isUseIdOnly()) {
-            nameIndex.put(def.getName(), holder);
+            generation.nameIndex.put(def.getName(), holder);
         }
 
         if (!def.isUseIdOnly()) {
             registerTypes(def, holder);
         }
+        if (lifecycleListener != null) {
+            lifecycleListener.definitionRegistered(def);
+        }
     }
 
     /**
@@ -350,22 +1522,14 @@ public class DiContainer implements ObjectLoader {
     }
 
     /**
-     * 再帰的に型インデックスにコンポーネントホルダを登録する。
+     * 型と、その全ての上位型について型インデックスにコンポーネントホルダを登録する。
      *
      * @param type 登録する型
      * @param holder コンポーネントホルダ
      */
     private void registerTypeRecursive(Class<?> type, ComponentHolder holder) {
-        putTypeIndex(type, holder);
-
-        for (Class<?> interfaces : type.getInterfaces()) {
-            putTypeIndex(interfaces, holder);
-        }
-
-        if (!type.isInterface()) {
-            for (Class<?> ancestor : ObjectUtil.getAncestorClasses(type)) {
-                registerTypeRecursive(ancestor, holder);
-            }
+        for (Class<?> supertype : SUPERTYPES.get(type)) {
+            putTypeIndex(supertype, holder);
         }
     }
 
@@ -375,12 +1539,12 @@ public class DiContainer implements ObjectLoader {
      * @param holder ホルダ
      */
     private void putTypeIndex(Class<?> key, ComponentHolder holder) {
-        if (typeIndex.containsKey(key)) {
+        if (generation.typeIndex.containsKey(key)) {
             // 重複登録された型はからはずす
-            typeIndex.remove(key);
-            multiRegisteredType.add(key);
-        } else if (!multiRegisteredType.contains(key)) {
-            typeIndex.put(key, holder);
+            generation.typeIndex.remove(key);
+            generation.multiRegisteredType.add(key);
+        } else if (!generation.multiRegisteredType.contains(key)) {
+            generation.typeIndex.put(key, holder);
         }
     }
 
@@ -390,6 +1554,9 @@ public class DiContainer implements ObjectLoader {
      * @param holder コンポーネントホルダ
      */
     private void createComponent(ComponentHolder holder) {
+        long outerNestedNanos = nestedNanos;
+        nestedNanos = 0;
+        long start = System.nanoTime();
 
         holder.setState(ComponentState.INSTANTIATING);
 
@@ -399,18 +1566,34 @@ public class DiContainer implements ObjectLoader {
         holder.setComponent(component);
 
         holder.setState(ComponentState.INSTANTIATED);
+        if (lifecycleListener != null) {
+            lifecycleListener.componentCreated(def, component, System.nanoTime() - start);
+        }
 
         if (component instanceof ComponentFactory<?>) {
 
             holder.setState(ComponentState.INJECTING);
             // ComponentFactoryの場合は、コンポーネントを初期化して
+            long injectStart = lifecycleListener != null ? System.nanoTime() : 0L;
             initializeComponent(holder);
+            if (lifecycleListener != null) {
+                long now = System.nanoTime();
+                lifecycleListener.componentInjected(def, component, now - injectStart);
+                injectStart = now;
+            }
             ComponentFactory<?> factory = (ComponentFactory<?>) component;
             Object createdComponent = factory.createObject();
             holder.setInitializedComponent(createdComponent);
             holder.setState(ComponentState.INJECTED);
+            if (lifecycleListener != null) {
+                lifecycleListener.factoryObjectCreated(def, createdComponent, System.nanoTime() - injectStart);
+            }
 
         }
+
+        long elapsed = System.nanoTime() - start;
+        holder.addCreateNanos(elapsed - nestedNanos);
+        nestedNanos = outerNestedNanos + elapsed;
     }
 
     /**
@@ -427,11 +1610,21 @@ public class DiContainer implements ObjectLoader {
             // とりあえずできているものとして返す。
             return;
         }
+        long outerNestedNanos = nestedNanos;
+        nestedNanos = 0;
+        long start = System.nanoTime();
         holder.setState(ComponentState.INJECTING);
 
         initializeComponent(holder);
         holder.setInitializedComponent(holder.getComponent());
         holder.setState(ComponentState.INJECTED);
+
+        long elapsed = System.nanoTime() - start;
+        holder.addInjectNanos(elapsed - nestedNanos);
+        nestedNanos = outerNestedNanos + elapsed;
+        if (lifecycleListener != null) {
+            lifecycleListener.componentInjected(holder.getDefinition(), holder.getComponent(), elapsed);
+        }
     }
 
     /**
@@ -442,7 +1635,7 @@ public class DiContainer implements ObjectLoader {
 
         if (holder.getDefinition().getInjector() == null) {
             // Initializerがnullの場合、普通に初期化
-            for (ComponentReference ref : holder.getDefinition().getReferences()) {
+            for (ComponentReference ref : holder.getInjectionReferences()) {
                 injectObject(holder, ref);
             }
         } else {
@@ -466,6 +1659,8 @@ public class DiContainer implements ObjectLoader {
                 throw new ContainerProcessException("component id was not found."
                         + " id = [" + ref.getTargetId() + "]");
             }
+        } else if (ref.getInjectionType() == InjectionType.LITERAL) {
+            value = ref.getValueCreator().createComponent(this, holder.getDefinition());
         } else if (ref.getInjectionType() == InjectionType.REF) {
             value = getComponentByName(ref.getReferenceName());
             if (value == null) {
@@ -537,32 +1732,44 @@ public class DiContainer implements ObjectLoader {
      * @return コンポーネント
      */
     public Object getComponentById(int id) {
-        if (!holders.containsKey(id)) {
+        ComponentHolder holder = generation.holders.get(id);
+        if (holder == null) {
             throw new ContainerProcessException("component id was not found."
                     + " component id = [" + id + "]");
         }
 
-        ComponentHolder holder = holders.get(id);
+        ComponentLookupEvent event = ComponentLookupEvent.isLookupEnabled() ? ComponentLookupEvent.start() : null;
+        recordLookup(holder);
         refStack.push(holder.getDefinition());
         Object component = checkStateAndCreateComponent(holder);
         completeInject(holder);
         refStack.pop();
+        if (event != null) {
+            event.finish("id", id, holder.getDefinition().getName(), holder.getDefinition().getType());
+        }
         return component;
     }
 
     /**
      * コンポーネント名をキーにコンポーネントを取得する。
+     * <p/>
+     * 名前に対応するコンポーネントが存在しない場合は、{@link LiteralStore}から設定値を取得する。
+     * 複数の{@link LiteralStore}が存在する場合は、後に定義されたものから順に問い合わせる。
+     *
      * @param <T> コンポーネントの型
      * @param name コンポーネント名
      * @return コンポーネント
      */
     @SuppressWarnings("unchecked")
     public <T> T getComponentByName(String name) {
-        if (!nameIndex.containsKey(name)) {
-            return null;
+        Generation current = generation;
+        ComponentHolder holder = current.nameIndex.get(name);
+        if (holder == null) {
+            return (T) findLiteral(current, name);
         }
 
-        ComponentHolder holder = nameIndex.get(name);
+        ComponentLookupEvent event = ComponentLookupEvent.isLookupEnabled() ? ComponentLookupEvent.start() : null;
+        recordLookup(holder);
         refStack.push(holder.getDefinition());
         Object component = checkStateAndCreateComponent(holder);
         if (component == null) {
@@ -579,9 +1786,40 @@ public class DiContainer implements ObjectLoader {
         }
         completeInject(holder);
         refStack.pop();
+        if (event != null) {
+            event.finish("name", name, name, holder.getDefinition().getType());
+        }
         return (T) component;
     }
 
+    /**
+     * {@link LiteralStore}から設定値を取得する。
+     *
+     * @param name 名前
+     * @return 設定値(存在しない場合は {@code null})
+     */
+    private String findLiteral(String name) {
+        return findLiteral(generation, name);
+    }
+
+    /**
+     * 世代の{@link LiteralStore}から設定値を取得する。
+     *
+     * @param current 世代
+     * @param name 名前
+     * @return 設定値(存在しない場合は {@code null})
+     */
+    private static String findLiteral(Generation current, String name) {
+        List<LiteralStore> literalStores = current.literalStores;
+        for (int i = literalStores.size() - 1; i >= 0; i--) {
+            String value = literalStores.get(i).get(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
     /**
      * コンポーネントの型をキーにコンポーネントを取得する。
      *
@@ -591,10 +1829,12 @@ public class DiContainer implements ObjectLoader {
      */
     @SuppressWarnings("unchecked")
     public <T> T getComponentByType(Class<T> type) {
-        if (!typeIndex.containsKey(type)) {
+        ComponentHolder holder = generation.typeIndex.get(type);
+        if (holder == null) {
             return null;
         }
-        ComponentHolder holder = typeIndex.get(type);
+        ComponentLookupEvent event = ComponentLookupEvent.isLookupEnabled() ? ComponentLookupEvent.start() : null;
+        recordLookup(holder);
         refStack.push(holder.getDefinition(), type);
         Object component = checkStateAndCreateComponent(holder);
         if (component == null) {
@@ -606,9 +1846,23 @@ public class DiContainer implements ObjectLoader {
         }
         completeInject(holder);
         refStack.pop();
+        if (event != null) {
+            event.finish("type", type, holder.getDefinition().getName(), holder.getDefinition().getType());
+        }
         return (T) component;
     }
 
+    /**
+     * コンポーネントの取得を記録する。
+     *
+     * @param holder 取得したコンポーネントのホルダ
+     */
+    private void recordLookup(ComponentHolder holder) {
+        if (lookupStatistics != null) {
+            lookupStatistics.record(holder);
+        }
+    }
+
     /**
      * ステータスをチェックし、可能であればコンポーネントを取得する。
      *
@@ -633,6 +1887,162 @@ public class DiContainer implements ObjectLoader {
         }
     }
 
+    /**
+     * 1回の読み込みで構築した、コンポーネントの取得に使用する情報(世代)。
+     * <p/>
+     * 新しい世代を構築するコンテナが{@link #Generation()}で生成して内容を登録し、
+     * 構築の完了時に{@link #complete(List, List, List)}で作成したものを公開する。
+     * 公開した世代の内容は変更しない。
+     */
+    private static final class Generation {
+
+        /** idをキーにコンポーネントホルダを取得するMap */
+        private final Map<Integer, ComponentHolder> holders;
+
+        /** 名前をキーにコンポーネントホルダを取得するMap */
+        private final Map<String, ComponentHolder> nameIndex;
+
+        /** {@link #nameIndex}を参照する、名前をキーに初期化済みコンポーネントを取得する読み取り専用のMap */
+        private final Map<String, Object> loadedComponents;
+
+        /** 型をキーにコンポーネントホルダを取得するMap */
+        private final Map<Class<?>, ComponentHolder> typeIndex;
+
+        /** 複数登録された型のSet */
+        private final Set<Class<?>> multiRegisteredType;
+
+        /** {@link LiteralStore}を実装した{@link ObjectLoader}のリスト(定義順) */
+        private final List<LiteralStore> literalStores;
+
+        /** 到達できないため除外したコンポーネントの名前 */
+        private final List<String> prunedComponentNames;
+
+        /** 自動インジェクションの対象となったプロパティと、インジェクションするコンポーネント */
+        private final List<String> autowireReport;
+
+        /** 差分の再読み込みで再生成した、名前で参照できるコンポーネントの名前 */
+        private final List<String> rebuiltComponentNames;
+
+        /**
+         * 構築を開始する空の世代を生成する。
+         */
+        Generation() {
+            holders = new TreeMap<Integer, ComponentHolder>();
+            nameIndex = new HashMap<String, ComponentHolder>();
+            loadedComponents = new LoadedComponentMap(nameIndex);
+            typeIndex = new HashMap<Class<?>, ComponentHolder>();
+            multiRegisteredType = new HashSet<Class<?>>();
+            literalStores = new ArrayList<LiteralStore>();
+            prunedComponentNames = Collections.emptyList();
+            autowireReport = Collections.emptyList();
+            rebuiltComponentNames = Collections.emptyList();
+        }
+
+        /**
+         * 構築した世代の内容に、読み込みの結果を加えた世代を生成する。
+         *
+         * @param built 構築した世代
+         * @param prunedComponentNames 到達できないため除外したコンポーネントの名前
+         * @param autowireReport 自動インジェクションの対象となったプロパティ
+         * @param rebuiltComponentNames 差分の再読み込みで再生成したコンポーネントの名前
+         */
+        private Generation(Generation built, List<String> prunedComponentNames,
+                List<String> autowireReport, List<String> rebuiltComponentNames) {
+            holders = built.holders;
+            nameIndex = built.nameIndex;
+            loadedComponents = built.loadedComponents;
+            typeIndex = built.typeIndex;
+            multiRegisteredType = built.multiRegisteredType;
+            literalStores = built.literalStores;
+            this.prunedComponentNames = prunedComponentNames;
+            this.autowireReport = autowireReport;
+            this.rebuiltComponentNames = rebuiltComponentNames;
+        }
+
+        /**
+         * 構築を完了し、公開する世代を作成する。
+         *
+         * @param prunedComponentNames 到達できないため除外したコンポーネントの名前
+         * @param autowireReport 自動インジェクションの対象となったプロパティ
+         * @param rebuiltComponentNames 差分の再読み込みで再生成したコンポーネントの名前
+         * @return 公開する世代
+         */
+        Generation complete(List<String> prunedComponentNames,
+                List<String> autowireReport, List<String> rebuiltComponentNames) {
+            return new Generation(this, prunedComponentNames, autowireReport, rebuiltComponentNames);
+        }
+    }
+
+    /**
+     * 名前をキーにコンポーネントホルダを保持するMapを、初期化済みコンポーネントのMapとして参照する読み取り専用のビュー。
+     */
+    private static final class LoadedComponentMap extends AbstractMap<String, Object> {
+
+        /** 名前をキーにコンポーネントホルダを保持するMap */
+        private final Map<String, ComponentHolder> index;
+
+        /** エントリのビュー */
+        private final Set<Map.Entry<String, Object>> entrySet = new AbstractSet<Map.Entry<String, Object>>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                final Iterator<Map.Entry<String, ComponentHolder>> it = index.entrySet().iterator();
+                return new Iterator<Map.Entry<String, Object>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<String, Object> next() {
+                        Map.Entry<String, ComponentHolder> entry = it.next();
+                        return new SimpleImmutableEntry<String, Object>(
+                                entry.getKey(), entry.getValue().getInitializedComponent());
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return index.size();
+            }
+        };
+
+        /**
+         * コンストラクタ。
+         *
+         * @param index 名前をキーにコンポーネントホルダを保持するMap
+         */
+        LoadedComponentMap(Map<String, ComponentHolder> index) {
+            this.index = index;
+        }
+
+        @Override
+        public Object get(Object key) {
+            ComponentHolder holder = index.get(key);
+            return holder != null ? holder.getInitializedComponent() : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return index.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return entrySet;
+        }
+    }
+
     /**
      * コンポーネントの参照階層を保持するスタッククラス。
      */
@@ -710,11 +2120,212 @@ public class DiContainer implements ObjectLoader {
         }
     }
 
+    /**
+     * リテラルを変換するコンバータのレジストリを取得する。
+     * <p/>
+     * レジストリはコンテナの生成時に{@link ServiceLoader}を使って読み込んだ
+     * {@link nablarch.core.repository.di.config.LiteralConverter}から構築する。
+     *
+     * @return コンバータのレジストリ
+     */
+    public LiteralConverterRegistry getLiteralConverterRegistry() {
+        return literalConverterRegistry;
+    }
+
     /**
      * 外部化コンポーネント定義のローダーを取得する。
      * @return 外部化コンポーネント定義のローダー
      */
-    ExternalizedComponentDefinitionLoader getExternalizedComponentDefinitionLoader() {
+    public ExternalizedComponentDefinitionLoader getExternalizedComponentDefinitionLoader() {
         return externalizedComponentDefinitionLoader;
     }
+
+    /**
+     * コンテナの状態を公開するMBean。
+     * <p/>
+     * コンテナを弱参照で保持し、属性の参照時にコンテナが公開している世代から値を算出する。
+     * 公開済みの世代は変更されないため、コンテナの読み込み中に参照した場合も、最後に完了した読み込みの状態を返す。
+     */
+    private static final class Monitor implements DiContainerMXBean {
+
+        /** 状態を公開するコンテナ */
+        private final ContainerReference containerRef;
+
+        /**
+         * コンストラクタ。
+         * @param container 状態を公開するコンテナ
+         * @param name MBeanのオブジェクト名
+         */
+        Monitor(DiContainer container, ObjectName name) {
+            containerRef = new ContainerReference(container, name);
+        }
+
+        @Override
+        public int getHolderCount() {
+            return container().generation.holders.size();
+        }
+
+        @Override
+        public int getNameIndexSize() {
+            return container().generation.nameIndex.size();
+        }
+
+        @Override
+        public int getTypeIndexSize() {
+            return container().generation.typeIndex.size();
+        }
+
+        @Override
+        public List<String> getMultiRegisteredTypes() {
+            List<String> names = new ArrayList<String>();
+            for (Class<?> type : container().generation.multiRegisteredType) {
+                names.add(type.getName());
+            }
+            Collections.sort(names);
+            return names;
+        }
+
+        @Override
+        public long getReloadCount() {
+            return container().reloadCount;
+        }
+
+        @Override
+        public long getLastReloadDurationMillis() {
+            return container().lastReloadDurationNanos / 1000000;
+        }
+
+        @Override
+        public Map<String, Integer> getComponentStateCounts() {
+            Map<ComponentState, Integer> counts = new EnumMap<ComponentState, Integer>(ComponentState.class);
+            for (ComponentState state : ComponentState.values()) {
+                counts.put(state, 0);
+            }
+            for (ComponentHolder holder : container().generation.holders.values()) {
+                counts.put(holder.getState(), counts.get(holder.getState()) + 1);
+            }
+            Map<String, Integer> result = new LinkedHashMap<String, Integer>();
+            for (Map.Entry<ComponentState, Integer> entry : counts.entrySet()) {
+                result.put(entry.getKey().name(), entry.getValue());
+            }
+            return result;
+        }
+
+        @Override
+        public String dumpReferenceGraph() {
+            Generation generation = container().generation;
+            StringBuilder sb = new StringBuilder();
+            for (ComponentHolder holder : generation.holders.values()) {
+                appendComponent(sb, holder);
+                sb.append('\n');
+                for (ComponentReference ref : holder.getDefinition().getReferences()) {
+                    sb.append("  ").append(ref.getPropertyName()).append(" -> ");
+                    ComponentHolder target = findTarget(generation, ref);
+                    if (ref.getInjectionType() == InjectionType.LITERAL) {
+                        sb.append('(').append(ref.getValueCreator()).append(')');
+                    } else if (target == null) {
+                        sb.append("(unresolved)");
+                    } else {
+                        appendComponent(sb, target);
+                    }
+                    sb.append(" [").append(ref.getInjectionType()).append("]\n");
+                }
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public List<String> getAutowireReport() {
+            return container().generation.autowireReport;
+        }
+
+        @Override
+        public String dumpLookupStatistics(int limit) {
+            DiContainer container = container();
+            if (container.lookupStatistics == null) {
+                return "lookup statistics is disabled. set system property "
+                        + LOOKUP_STATISTICS_SYSTEM_PROP_NAME + "=true to enable it.";
+            }
+            return container.lookupStatistics.report(container.generation.holders.values(), limit);
+        }
+
+        @Override
+        public void resetLookupStatistics() {
+            DiContainer container = container();
+            if (container.lookupStatistics != null) {
+                container.lookupStatistics.reset(container.generation.holders.values());
+            }
+        }
+
+        /**
+         * 参照先のコンポーネントホルダを、コンポーネントを生成せずに取得する。
+         *
+         * @param generation 世代
+         * @param ref 参照の定義
+         * @return 参照先のコンポーネントホルダ(解決できない場合は{@code null})
+         */
+        private static ComponentHolder findTarget(Generation generation, ComponentReference ref) {
+            switch (ref.getInjectionType()) {
+            case ID:
+                return generation.holders.get(ref.getTargetId());
+            case BY_TYPE:
+                return generation.typeIndex.get(ref.getRequiredType());
+            case LITERAL:
+                return null;
+            default:
+                return generation.nameIndex.get(ref.getReferenceName());
+            }
+        }
+
+        /**
+         * コンポーネントの情報を出力する。
+         *
+         * @param sb 出力先
+         * @param holder コンポーネントホルダ
+         */
+        private static void appendComponent(StringBuilder sb, ComponentHolder holder) {
+            ComponentDefinition def = holder.getDefinition();
+            sb.append('#').append(def.getId())
+              .append(' ').append(def.getName())
+              .append(" (").append(def.getType().getName()).append(") ")
+              .append(holder.getState());
+        }
+
+        /**
+         * 状態を公開するコンテナを取得する。
+         *
+         * @return コンテナ
+         * @throws IllegalStateException コンテナがガベージコレクションされている場合
+         */
+        private DiContainer container() {
+            DiContainer container = containerRef.get();
+            if (container == null) {
+                // 参照できなくなったMBeanを残さないよう、登録を解除する。
+                unregisterMBean(containerRef.mbeanName);
+                throw new IllegalStateException("DiContainer was already garbage collected.");
+            }
+            return container;
+        }
+    }
+
+    /**
+     * MBeanが保持するコンテナの弱参照。
+     * <p/>
+     * コンテナがガベージコレクションされた場合に、MBeanの登録を解除するためにオブジェクト名を保持する。
+     */
+    private static final class ContainerReference extends WeakReference<DiContainer> {
+
+        /** MBeanのオブジェクト名 */
+        private final ObjectName mbeanName;
+
+        /**
+         * コンストラクタ。
+         * @param container コンテナ
+         * @param mbeanName MBeanのオブジェクト名
+         */
+        ContainerReference(DiContainer container, ObjectName mbeanName) {
+            super(container, COLLECTED_CONTAINERS);
+            this.mbeanName = mbeanName;
+        }
+    }
 }
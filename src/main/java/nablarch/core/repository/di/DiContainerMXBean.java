@@ -0,0 +1,104 @@
+package nablarch.core.repository.di;
+
+import java.util.List;
+import java.util.Map;
+
+import nablarch.core.util.annotation.Published;
+
+/**
+ * {@link DiContainer}の状態をJMXで公開するためのインタフェース。
+ * <p/>
+ * システムプロパティ{@literal "nablarch.diContainer.jmx"}に{@code true}を設定すると、
+ * {@link DiContainer}は{@literal "nablarch:type=DiContainer,id=<連番>"}というオブジェクト名で
+ * プラットフォームMBeanサーバに登録される。
+ * <p/>
+ * 属性は参照時にコンテナが保持する情報から算出するため、参照しない限りコンテナの処理に負荷はかからない。
+ */
+@Published(tag = "architect")
+public interface DiContainerMXBean {
+
+    /**
+     * コンポーネントホルダの数を取得する。
+     *
+     * @return コンポーネントホルダの数
+     */
+    int getHolderCount();
+
+    /**
+     * 名前で参照できるコンポーネントの数を取得する。
+     *
+     * @return 名前で参照できるコンポーネントの数
+     */
+    int getNameIndexSize();
+
+    /**
+     * 型で参照できる型の数を取得する。
+     *
+     * @return 型で参照できる型の数
+     */
+    int getTypeIndexSize();
+
+    /**
+     * 複数のコンポーネントが登録されているため、型で参照できない型のクラス名を取得する。
+     *
+     * @return クラス名のリスト(昇順)
+     */
+    List<String> getMultiRegisteredTypes();
+
+    /**
+     * コンテナの読み込みが完了した回数を取得する。
+     *
+     * @return 読み込みが完了した回数
+     */
+    long getReloadCount();
+
+    /**
+     * 最後に完了した読み込みの所要時間(ミリ秒)を取得する。
+     *
+     * @return 最後に完了した読み込みの所要時間(ミリ秒)
+     */
+    long getLastReloadDurationMillis();
+
+    /**
+     * コンポーネントの状態({@link ComponentState})ごとのコンポーネントの数を取得する。
+     *
+     * @return キーに状態名、値にコンポーネントの数を持つマップ
+     */
+    Map<String, Integer> getComponentStateCounts();
+
+    /**
+     * 自動インジェクションの対象となったプロパティと、インジェクションするコンポーネントを取得する。
+     *
+     * @return 自動インジェクションの対象となったプロパティ
+     * @see DiContainer#getAutowireReport()
+     */
+    List<String> getAutowireReport();
+
+    /**
+     * コンポーネント間の参照関係をテキスト形式で取得する。
+     * <p/>
+     * コンポーネントごとに、プロパティ名と参照先のコンポーネントを出力する。
+     * 参照先が解決できない場合は{@literal "(unresolved)"}を出力する。
+     *
+     * @return コンポーネント間の参照関係
+     */
+    String dumpReferenceGraph();
+
+    /**
+     * コンポーネントの取得回数の多い順に、コンポーネントと取得元をテキスト形式で取得する。
+     * <p/>
+     * 取得回数は、システムプロパティ{@literal "nablarch.diContainer.lookupStatistics"}に
+     * {@code true}を設定した場合のみ集計する。
+     * 取得元は、システムプロパティ{@literal "nablarch.diContainer.lookupStatistics.sampleInterval"}に
+     * 指定した間隔でサンプリングした回数を出力する。
+     *
+     * @param limit 出力するコンポーネントの最大数
+     * @return コンポーネントと取得元
+     */
+    String dumpLookupStatistics(int limit);
+
+    /**
+     * コンポーネントの取得回数と取得元をリセットする。
+     */
+    void resetLookupStatistics();
+}
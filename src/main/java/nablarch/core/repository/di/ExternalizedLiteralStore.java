@@ -0,0 +1,26 @@
+package nablarch.core.repository.di;
+
+import nablarch.core.repository.di.config.externalize.ExternalizedComponentDefinitionLoader;
+import nablarch.core.util.annotation.Published;
+
+/**
+ * 外部化された設定値による上書きを、ストアの構築時に適用する{@link LiteralStore}のインタフェース。
+ * <p/>
+ * {@link LiteralStore}の値はコンポーネント定義として登録されないため、
+ * 読み込み済みのコンポーネントの名前を元に上書きする{@link ExternalizedComponentDefinitionLoader}
+ * (OS環境変数による上書きなど)の対象とならない。
+ * {@link DiContainer}は、このインタフェースを実装したストアを保持する前に、コンテナの
+ * {@link ExternalizedComponentDefinitionLoader}を設定する。
+ * ストアは{@link nablarch.core.repository.di.config.externalize.ExternalizedValueResolver}を使用して、
+ * コンテナがコンポーネントを上書きする場合と同じ規則で値を上書きすること。
+ */
+@Published(tag = "architect")
+public interface ExternalizedLiteralStore extends LiteralStore {
+
+    /**
+     * 値の上書きに使用する外部化コンポーネント定義のローダーを設定する。
+     *
+     * @param loader 外部化コンポーネント定義のローダー
+     */
+    void setExternalizedComponentDefinitionLoader(ExternalizedComponentDefinitionLoader loader);
+}
@@ -26,5 +26,12 @@ public enum InjectionType {
     /**
      * IDベースのインジェクション
      */
-    ID
+    ID,
+
+    /**
+     * リテラル値のインジェクション。
+     * <p/>
+     * 値は参照({@link ComponentReference#getValueCreator()})が保持し、コンポーネント定義を介さずにインジェクションする。
+     */
+    LITERAL
 }
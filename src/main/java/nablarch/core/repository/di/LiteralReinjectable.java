@@ -0,0 +1,30 @@
+package nablarch.core.repository.di;
+
+import java.util.List;
+
+import nablarch.core.util.annotation.Published;
+
+/**
+ * 差分の再読み込みで、変更されたリテラルの値が再インジェクションされたことの通知を受けるインタフェース。
+ * <p/>
+ * システムプロパティ{@literal "nablarch.diContainer.reinjectLiterals"}に{@code true}を設定して
+ * {@link DiContainer#reloadIncrementally()}を行うと、変更がリテラルの値のみであるコンポーネントは再生成されず、
+ * 値が変わったプロパティのみが再インジェクションされる。
+ * このインタフェースを実装したコンポーネントは、再インジェクションの後に通知を受け、
+ * 新しい値を反映する処理(スレッド数の変更など)を行うことができる。
+ * <p/>
+ * 再インジェクションは実行中のコンポーネントに対して行われるため、
+ * プロパティの参照と更新はスレッドセーフに実装すること。
+ *
+ * @see DiContainer#reloadIncrementally()
+ */
+@Published(tag = "architect")
+public interface LiteralReinjectable {
+
+    /**
+     * 変更されたリテラルの値が再インジェクションされた後に呼び出される。
+     *
+     * @param propertyNames 再インジェクションしたプロパティ名(定義順、変更不可)
+     */
+    void literalsReinjected(List<String> propertyNames);
+}
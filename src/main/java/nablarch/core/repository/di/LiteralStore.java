@@ -0,0 +1,36 @@
+package nablarch.core.repository.di;
+
+import nablarch.core.util.annotation.Published;
+
+/**
+ * 名前をキーに文字列の設定値を参照するストアのインタフェース。
+ * <p/>
+ * {@link nablarch.core.repository.ObjectLoader}のコンポーネントがこのインタフェースを実装している場合、
+ * {@link DiContainer}はロードした値をコンポーネント定義として登録せず、ストアをそのまま保持する。
+ * ストアの値は、コンテナに同じ名前のコンポーネントが存在しない場合に限り、
+ * {@link DiContainer#getComponentByName(String)}で参照される。
+ * このため、システムプロパティなどの外部化された設定値による上書きは、ストアの値より優先される。
+ * <p/>
+ * ストアの値は{@link DiContainer#load()}の結果には含まれない。
+ * 大量の設定値をヒープ外に保持する目的のストアを、コンテナの外にコピーしてしまわないためである。
+ *
+ * @see DiContainer#getComponentByName(String)
+ */
+@Published(tag = "architect")
+public interface LiteralStore {
+
+    /**
+     * 名前に対応する設定値を取得する。
+     *
+     * @param name 名前
+     * @return 設定値(存在しない場合は {@code null})
+     */
+    String get(String name);
+
+    /**
+     * 保持している設定値の数を取得する。
+     *
+     * @return 保持している設定値の数
+     */
+    int size();
+}
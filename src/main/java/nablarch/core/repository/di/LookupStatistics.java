@@ -0,0 +1,252 @@
+package nablarch.core.repository.di;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link DiContainer}からのコンポーネントの取得回数を集計するクラス。
+ * <p/>
+ * 取得回数は、コンポーネントホルダごとに割り当てた{@link LongAdder}で数えるため、
+ * 複数スレッドから同じコンポーネントを取得しても競合しにくい。
+ * <p/>
+ * サンプリング間隔に1以上を指定した場合は、おおよそその間隔に1回の割合で取得元(呼び出し元のメソッド)を記録する。
+ * 取得元はスタックトレースから求めるため、サンプリング間隔を小さくすると取得処理の負荷が大きくなる。
+ */
+final class LookupStatistics {
+
+    /** コンポーネントごとに記録する取得元の最大数 */
+    static final int MAX_CALL_SITES = 32;
+
+    /** 取得元の最大数を超えた場合に使用する取得元 */
+    static final String OTHER_CALL_SITES = "(other)";
+
+    /** 取得元の特定時に読み飛ばすクラス名 */
+    private static final String[] SKIPPED_CLASS_NAMES = {
+            DiContainer.class.getName(), LookupStatistics.class.getName(), "nablarch.core.repository.SystemRepository"
+    };
+
+    /** 取得元の特定時に読み飛ばすクラス名の接頭辞 */
+    private static final String[] SKIPPED_CLASS_PREFIXES = {
+            "java.", "javax.", "jdk.", "sun."
+    };
+
+    /** 取得元のサンプリング間隔(0の場合は取得元を記録しない) */
+    private final int sampleInterval;
+
+    /** コンポーネントホルダごとの取得元ごとのサンプリング回数 */
+    private final ConcurrentMap<ComponentHolder, ConcurrentMap<String, LongAdder>> callSites =
+            new ConcurrentHashMap<ComponentHolder, ConcurrentMap<String, LongAdder>>();
+
+    /**
+     * コンストラクタ。
+     *
+     * @param sampleInterval 取得元のサンプリング間隔(0の場合は取得元を記録しない)
+     */
+    LookupStatistics(int sampleInterval) {
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * 集計対象のコンポーネントホルダに、取得回数を数えるカウンタを割り当てる。
+     *
+     * @param holders コンポーネントホルダ
+     */
+    void attach(Collection<ComponentHolder> holders) {
+        for (ComponentHolder holder : holders) {
+            holder.setLookupCounter(new LongAdder());
+        }
+    }
+
+    /**
+     * コンポーネントの取得を記録する。
+     * <p/>
+     * カウンタが割り当てられていないコンポーネントホルダ(コンテナの読み込み中の取得)は記録しない。
+     *
+     * @param holder 取得したコンポーネントのホルダ
+     */
+    void record(ComponentHolder holder) {
+        LongAdder counter = holder.getLookupCounter();
+        if (counter == null) {
+            return;
+        }
+        counter.increment();
+        if (sampleInterval > 0 && ThreadLocalRandom.current().nextInt(sampleInterval) == 0) {
+            recordCallSite(holder, findCallSite(new Throwable().getStackTrace()));
+        }
+    }
+
+    /**
+     * 取得元を記録する。
+     *
+     * @param holder 取得したコンポーネントのホルダ
+     * @param callSite 取得元
+     */
+    private void recordCallSite(ComponentHolder holder, String callSite) {
+        ConcurrentMap<String, LongAdder> sites = callSites.get(holder);
+        if (sites == null) {
+            ConcurrentMap<String, LongAdder> created = new ConcurrentHashMap<String, LongAdder>();
+            sites = callSites.putIfAbsent(holder, created);
+            if (sites == null) {
+                sites = created;
+            }
+        }
+        LongAdder count = sites.get(callSite);
+        if (count == null) {
+            String key = sites.size() < MAX_CALL_SITES ? callSite : OTHER_CALL_SITES;
+            LongAdder created = new LongAdder();
+            count = sites.putIfAbsent(key, created);
+            if (count == null) {
+                count = created;
+            }
+        }
+        count.increment();
+    }
+
+    /**
+     * スタックトレースから取得元を特定する。
+     *
+     * @param stackTrace スタックトレース
+     * @return 取得元(特定できない場合は{@literal "(unknown)"})
+     */
+    static String findCallSite(StackTraceElement[] stackTrace) {
+        for (StackTraceElement element : stackTrace) {
+            if (!isSkipped(element.getClassName())) {
+                return element.toString();
+            }
+        }
+        return "(unknown)";
+    }
+
+    /**
+     * 取得元の特定時に読み飛ばすクラスか否かを判定する。
+     *
+     * @param className クラス名
+     * @return 読み飛ばす場合は{@code true}
+     */
+    private static boolean isSkipped(String className) {
+        for (String name : SKIPPED_CLASS_NAMES) {
+            if (className.equals(name)) {
+                return true;
+            }
+        }
+        for (String prefix : SKIPPED_CLASS_PREFIXES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 取得回数と取得元をリセットする。
+     *
+     * @param holders コンポーネントホルダ
+     */
+    void reset(Collection<ComponentHolder> holders) {
+        for (ComponentHolder holder : holders) {
+            LongAdder counter = holder.getLookupCounter();
+            if (counter != null) {
+                counter.reset();
+            }
+        }
+        callSites.clear();
+    }
+
+    /**
+     * 取得回数の多いコンポーネントを、取得元とともにテキスト形式で出力する。
+     *
+     * @param holders コンポーネントホルダ
+     * @param limit 出力するコンポーネントの最大数
+     * @return 取得回数の多い順に並べたコンポーネントと取得元
+     */
+    String report(Collection<ComponentHolder> holders, int limit) {
+        List<Entry> entries = new ArrayList<Entry>();
+        for (ComponentHolder holder : holders) {
+            LongAdder counter = holder.getLookupCounter();
+            if (counter != null) {
+                long count = counter.sum();
+                if (count > 0) {
+                    entries.add(new Entry(holder, count));
+                }
+            }
+        }
+        Collections.sort(entries);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("lookup count, component (sampling interval = ").append(sampleInterval).append(")\n");
+        for (Entry entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            ComponentDefinition def = entry.holder.getDefinition();
+            sb.append(entry.count).append(' ').append(def.getName())
+              .append(" (").append(def.getType().getName()).append(")\n");
+            Map<String, LongAdder> sites = callSites.get(entry.holder);
+            if (sites != null) {
+                for (Map.Entry<String, Long> site : sortCallSites(sites)) {
+                    sb.append("  sampled ").append(site.getValue()).append(" at ").append(site.getKey()).append('\n');
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 取得元をサンプリング回数の多い順に並べる。
+     *
+     * @param sites 取得元ごとのサンプリング回数
+     * @return サンプリング回数の多い順に並べた取得元
+     */
+    private static List<Map.Entry<String, Long>> sortCallSites(Map<String, LongAdder> sites) {
+        Map<String, Long> counts = new HashMap<String, Long>();
+        for (Map.Entry<String, LongAdder> site : sites.entrySet()) {
+            counts.put(site.getKey(), site.getValue().sum());
+        }
+        List<Map.Entry<String, Long>> sorted = new ArrayList<Map.Entry<String, Long>>(counts.entrySet());
+        Collections.sort(sorted, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                int result = o2.getValue().compareTo(o1.getValue());
+                return result != 0 ? result : o1.getKey().compareTo(o2.getKey());
+            }
+        });
+        return sorted;
+    }
+
+    /**
+     * コンポーネントホルダと取得回数の組。
+     */
+    private static final class Entry implements Comparable<Entry> {
+
+        /** コンポーネントホルダ */
+        private final ComponentHolder holder;
+
+        /** 取得回数 */
+        private final long count;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param holder コンポーネントホルダ
+         * @param count 取得回数
+         */
+        Entry(ComponentHolder holder, long count) {
+            this.holder = holder;
+            this.count = count;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            if (count != o.count) {
+                return count > o.count ? -1 : 1;
+            }
+            return holder.getDefinition().getId() - o.holder.getDefinition().getId();
+        }
+    }
+}
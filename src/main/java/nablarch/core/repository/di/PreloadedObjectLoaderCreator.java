@@ -0,0 +1,47 @@
+package nablarch.core.repository.di;
+
+import nablarch.core.repository.ObjectLoader;
+
+/**
+ * 読み込みを開始済みの{@link ObjectLoader}をコンポーネントとして生成するクラス。
+ * <p/>
+ * 生成するコンポーネントは元の{@link ObjectLoader}そのものであるため、コンポーネント定義の型や、
+ * 型を指定して取得したコンポーネントは、読み込みを開始していない場合と変わらない。
+ * {@link DiContainer}は、{@link ObjectLoader}からロードしたオブジェクトを登録する際に、
+ * 元の{@link ObjectLoader}を再度読み込まずに、読み込みを開始済みの{@link ObjectLoader}の結果を登録する。
+ * <p/>
+ * 読み込み結果はコンテナへの登録に1度だけ使用し、登録後はこのクラスから参照しない。
+ * このため、コンポーネント定義が保持され続けても、読み込み結果はコンテナの存続期間中に保持されない。
+ */
+public class PreloadedObjectLoaderCreator extends StoredValueComponentCreator {
+
+    /**
+     * 読み込みを開始済みの{@link ObjectLoader}(取得済みの場合は{@code null})。
+     */
+    private ObjectLoader preloaded;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param loader 元の{@link ObjectLoader}
+     * @param preloaded 元の{@link ObjectLoader}の読み込み結果を返す{@link ObjectLoader}
+     */
+    public PreloadedObjectLoaderCreator(ObjectLoader loader, ObjectLoader preloaded) {
+        super(loader);
+        this.preloaded = preloaded;
+    }
+
+    /**
+     * 読み込みを開始済みの{@link ObjectLoader}を取得し、このクラスからの参照を解放する。
+     * <p/>
+     * 2回目以降の呼び出しでは{@code null}を返す。
+     * その場合、呼び出し元は元の{@link ObjectLoader}から読み込むこと。
+     *
+     * @return 元の{@link ObjectLoader}の読み込み結果を返す{@link ObjectLoader}(取得済みの場合は{@code null})
+     */
+    public synchronized ObjectLoader releasePreloaded() {
+        ObjectLoader result = preloaded;
+        preloaded = null;
+        return result;
+    }
+}
@@ -33,6 +33,14 @@ public class StoredValueComponentCreator implements ComponentCreator {
         return obj;
     }
 
+    /**
+     * 作成済みオブジェクトを取得する。
+     * @return 作成済みオブジェクト
+     */
+    public Object getValue() {
+        return obj;
+    }
+
     @Override
     public String toString() {
         return "stored value object = " + obj.toString();
@@ -0,0 +1,120 @@
+package nablarch.core.repository.di;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import nablarch.core.util.annotation.Published;
+
+/**
+ * コンポーネント定義の読み込み時に、内容が同じ文字列を1つのインスタンスに集約するクラス。
+ * <p/>
+ * {@link String#intern()}と異なりJVM全体の文字列テーブルは使用しない。
+ * プールは{@link DiContainer}の読み込み単位で作成され、読み込み完了後に破棄される。
+ * <p/>
+ * このクラスはスレッドセーフではない。{@link DiContainer#reload()}を実行するスレッドからのみ使用すること。
+ */
+@Published(tag = "architect")
+public class StringPool {
+
+    /** {@link String}インスタンス自体のおおよそのサイズ(ヘッダ、フィールド、配列ヘッダ) */
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    /** 集約が有効か否か */
+    private final boolean enabled;
+
+    /** 集約済みの文字列 */
+    private final Map<String, String> pool = new HashMap<String, String>();
+
+    /** 集約により参照されなくなった文字列の数 */
+    private long deduplicatedCount;
+
+    /** 集約により削減されたおおよそのバイト数 */
+    private long savedBytes;
+
+    /**
+     * コンストラクタ。
+     * @param enabled 集約を行う場合は {@code true}
+     */
+    public StringPool(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 文字列を集約する。
+     * <p/>
+     * 同じ内容の文字列がプール済みの場合はプール済みのインスタンスを返し、
+     * そうでない場合は引数の文字列をプールに登録して返す。
+     * 集約が無効な場合や引数が {@code null} の場合は、引数をそのまま返す。
+     *
+     * @param value 文字列
+     * @return 集約後の文字列
+     */
+    public String deduplicate(String value) {
+        if (!enabled || value == null) {
+            return value;
+        }
+        String pooled = pool.get(value);
+        if (pooled == null) {
+            pool.put(value, value);
+            return value;
+        }
+        if (pooled != value) {
+            deduplicatedCount++;
+            savedBytes += estimateSize(value);
+        }
+        return pooled;
+    }
+
+    /**
+     * 集約が有効か否かを取得する。
+     * @return 集約が有効な場合 {@code true}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * プールされている文字列の数を取得する。
+     * @return プールされている文字列の数
+     */
+    public int size() {
+        return pool.size();
+    }
+
+    /**
+     * 集約により参照されなくなった文字列の数を取得する。
+     * @return 集約により参照されなくなった文字列の数
+     */
+    public long getDeduplicatedCount() {
+        return deduplicatedCount;
+    }
+
+    /**
+     * 集約により削減されたおおよそのバイト数を取得する。
+     * @return 削減されたおおよそのバイト数
+     */
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+    /**
+     * 文字列1つが占めるおおよそのバイト数を見積もる。
+     * <p/>
+     * Latin-1で表現できる文字列は1文字1バイト、それ以外は1文字2バイトとして計算する。
+     *
+     * @param value 文字列
+     * @return おおよそのバイト数
+     */
+    private static long estimateSize(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        long size = STRING_OVERHEAD_BYTES + (long) value.length() * bytesPerChar;
+        // オブジェクトは8バイト境界に整列される。
+        return (size + 7) & ~7L;
+    }
+}
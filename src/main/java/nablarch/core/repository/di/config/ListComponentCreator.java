@@ -1,6 +1,7 @@
 package nablarch.core.repository.di.config;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import nablarch.core.repository.di.ComponentCreator;
@@ -36,6 +37,15 @@ public class ListComponentCreator implements ComponentCreator, ComponentInjector
         super();
         this.elementDefinitions = elementDefs;
     }
+
+    /**
+     * 要素となるコンポーネントの定義を取得する。
+     *
+     * @return 要素となるコンポーネントの定義(変更不可)
+     */
+    public List<ListElementDefinition> getElementDefinitions() {
+        return Collections.unmodifiableList(elementDefinitions);
+    }
     /**
      * Listコンポーネントを生成する。
      * 
@@ -23,6 +23,10 @@ public class LiteralComponentCreator implements ComponentCreator {
      * 文字列オブジェクトの文字列表現。
      */
     private String literal;
+    /**
+     * 解決済みのコンバータ。
+     */
+    private ResolvedConverter resolved;
     /**
      * コンストラクタ
      * 
@@ -35,6 +39,15 @@ public class LiteralComponentCreator implements ComponentCreator {
         this.literal = literal;
     }
 
+    /**
+     * 値の文字列表現を取得する。
+     *
+     * @return 値の文字列表現(変数を解決する前のもの)
+     */
+    public String getLiteral() {
+        return literal;
+    }
+
     /**
      * リテラルを解決する。
      * 
@@ -45,10 +58,52 @@ public class LiteralComponentCreator implements ComponentCreator {
      * @see nablarch.core.repository.di.ComponentCreator#createComponent(DiContainer, ComponentDefinition)
      */
     public Object createComponent(DiContainer container, ComponentDefinition def) {
-        Object converted = LiteralExpressionUtil.convertLiteralExpressionToObject(container, literal, type);
+        Object converted = LiteralExpressionUtil.convertLiteralExpressionToObject(
+                container, literal, type, getConverter(container));
         return converted;
     }
 
+    /**
+     * 型に対応するコンバータを取得する。
+     * <p/>
+     * コンバータはコンテナのレジストリから一度だけ解決し、以降は解決済みのものを使用する。
+     *
+     * @param container コンテナ
+     * @return コンバータ
+     */
+    private LiteralConverter getConverter(DiContainer container) {
+        LiteralConverterRegistry registry = container.getLiteralConverterRegistry();
+        ResolvedConverter current = resolved;
+        if (current == null || current.registry != registry) {
+            current = new ResolvedConverter(registry, registry.getConverter(type));
+            resolved = current;
+        }
+        return current.converter;
+    }
+
+    /**
+     * レジストリと、そのレジストリから解決したコンバータの組。
+     */
+    private static final class ResolvedConverter {
+
+        /** コンバータを解決したレジストリ */
+        private final LiteralConverterRegistry registry;
+
+        /** コンバータ */
+        private final LiteralConverter converter;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param registry コンバータを解決したレジストリ
+         * @param converter コンバータ
+         */
+        private ResolvedConverter(LiteralConverterRegistry registry, LiteralConverter converter) {
+            this.registry = registry;
+            this.converter = converter;
+        }
+    }
+
     @Override
     public String toString() {
         return "literal object = [type=" + type.getName() + ",value=" + literal + "]";
@@ -0,0 +1,40 @@
+package nablarch.core.repository.di.config;
+
+import nablarch.core.util.annotation.Published;
+
+/**
+ * コンポーネント設定ファイルに記述したリテラル(文字列表現)を、プロパティの型に変換するインタフェース。
+ * <p/>
+ * 実装クラスは{@link java.util.ServiceLoader}の仕組みで読み込まれる。
+ * {@code META-INF/services/nablarch.core.repository.di.config.LiteralConverter}に実装クラスの完全修飾名を記述すること。
+ * <p/>
+ * 変換先の型ごとに、{@link #isConvertible(Class)}が{@code true}を返す最初のコンバータが選択される。
+ * フレームワークが標準でサポートする型(String、boolean、int、long、String配列、int配列、Integer配列とそのラッパー型)は、
+ * 常に標準のコンバータが選択され、このインタフェースの実装で変更することはできない。
+ * <p/>
+ * 実装クラスはスレッドセーフに実装すること。
+ *
+ * @see LiteralConverterRegistry
+ */
+@Published(tag = "architect")
+public interface LiteralConverter {
+
+    /**
+     * 指定された型に変換できるか否かを判定する。
+     *
+     * @param type 変換先の型
+     * @return 変換できる場合は{@code true}
+     */
+    boolean isConvertible(Class<?> type);
+
+    /**
+     * リテラルを指定された型に変換する。
+     * <p/>
+     * リテラルに含まれる{@code ${}}の変数は、このメソッドの呼び出し前に解決されている。
+     *
+     * @param value リテラル
+     * @param type 変換先の型
+     * @return 変換後のオブジェクト
+     */
+    Object convert(String value, Class<?> type);
+}
@@ -0,0 +1,240 @@
+package nablarch.core.repository.di.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import nablarch.core.repository.di.ConfigurationLoadException;
+import nablarch.core.util.annotation.Published;
+
+/**
+ * 型ごとに{@link LiteralConverter}を解決して保持するクラス。
+ * <p/>
+ * コンバータは、標準のコンバータ、{@link ServiceLoader}で読み込んだコンバータの順に検索する。
+ * 型ごとの検索結果はキャッシュするため、同じ型の変換では検索を繰り返さない。
+ * <p/>
+ * このクラスはスレッドセーフである。
+ *
+ * @see LiteralConverter
+ */
+@Published(tag = "architect")
+public final class LiteralConverterRegistry {
+
+    /** 変換できない型に対するコンバータ */
+    private static final LiteralConverter UNSUPPORTED = new LiteralConverter() {
+        @Override
+        public boolean isConvertible(Class<?> type) {
+            return false;
+        }
+
+        @Override
+        public Object convert(String value, Class<?> type) {
+            throw new ConfigurationLoadException("property type was not supported."
+                    + " class name = " + type.getName());
+        }
+    };
+
+    /** コンバータのリスト(検索順) */
+    private final List<LiteralConverter> converters;
+
+    /** 型ごとのコンバータのキャッシュ */
+    private final ConcurrentMap<Class<?>, LiteralConverter> cache = new ConcurrentHashMap<Class<?>, LiteralConverter>();
+
+    /**
+     * コンストラクタ。
+     *
+     * @param customConverters 標準のコンバータの後に検索するコンバータ
+     */
+    public LiteralConverterRegistry(List<? extends LiteralConverter> customConverters) {
+        List<LiteralConverter> list = new ArrayList<LiteralConverter>();
+        Collections.addAll(list, BuiltInConverter.values());
+        list.addAll(customConverters);
+        this.converters = list;
+    }
+
+    /**
+     * {@link ServiceLoader}で読み込んだコンバータを使用するインスタンスを作成する。
+     *
+     * @return インスタンス
+     */
+    public static LiteralConverterRegistry load() {
+        List<LiteralConverter> customConverters = new ArrayList<LiteralConverter>();
+        for (LiteralConverter converter : ServiceLoader.load(LiteralConverter.class)) {
+            customConverters.add(converter);
+        }
+        return new LiteralConverterRegistry(customConverters);
+    }
+
+    /**
+     * 指定された型のコンバータを取得する。
+     * <p/>
+     * 変換できるコンバータが存在しない場合は、変換時に{@link ConfigurationLoadException}を送出するコンバータを返す。
+     *
+     * @param type 変換先の型
+     * @return コンバータ
+     */
+    public LiteralConverter getConverter(Class<?> type) {
+        LiteralConverter converter = cache.get(type);
+        if (converter == null) {
+            converter = findConverter(type);
+            cache.putIfAbsent(type, converter);
+        }
+        return converter;
+    }
+
+    /**
+     * 指定された型に変換できるコンバータを検索する。
+     *
+     * @param type 変換先の型
+     * @return コンバータ
+     */
+    private LiteralConverter findConverter(Class<?> type) {
+        for (LiteralConverter converter : converters) {
+            if (converter.isConvertible(type)) {
+                return converter;
+            }
+        }
+        return UNSUPPORTED;
+    }
+
+    /**
+     * 標準のコンバータ。
+     */
+    private enum BuiltInConverter implements LiteralConverter {
+
+        /** String */
+        STRING {
+            @Override
+            public boolean isConvertible(Class<?> type) {
+                return type == String.class;
+            }
+
+            @Override
+            public Object convert(String value, Class<?> type) {
+                return value;
+            }
+        },
+
+        /** boolean、Boolean */
+        BOOLEAN {
+            @Override
+            public boolean isConvertible(Class<?> type) {
+                return type == boolean.class || type == Boolean.class;
+            }
+
+            @Override
+            public Object convert(String value, Class<?> type) {
+                return Boolean.valueOf(value);
+            }
+        },
+
+        /** int、Integer */
+        INTEGER {
+            @Override
+            public boolean isConvertible(Class<?> type) {
+                return type == int.class || type == Integer.class;
+            }
+
+            @Override
+            public Object convert(String value, Class<?> type) {
+                return Integer.valueOf(value);
+            }
+        },
+
+        /** long、Long */
+        LONG {
+            @Override
+            public boolean isConvertible(Class<?> type) {
+                return type == long.class || type == Long.class;
+            }
+
+            @Override
+            public Object convert(String value, Class<?> type) {
+                return Long.valueOf(value);
+            }
+        },
+
+        /** String配列 */
+        STRING_ARRAY {
+            @Override
+            public boolean isConvertible(Class<?> type) {
+                return type == String[].class;
+            }
+
+            @Override
+            public Object convert(String value, Class<?> type) {
+                String[] values = LiteralExpressionUtil.splitString(value);
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = values[i].trim();
+                }
+                return values;
+            }
+        },
+
+        /** int配列 */
+        INT_ARRAY {
+            @Override
+            public boolean isConvertible(Class<?> type) {
+                return type == int[].class;
+            }
+
+            @Override
+            public Object convert(String value, Class<?> type) {
+                String[] values = LiteralExpressionUtil.splitString(value);
+                int[] returnValue = new int[values.length];
+                String currentValue = null;
+                try {
+                    for (int i = 0; i < values.length; i++) {
+                        currentValue = values[i].trim();
+                        returnValue[i] = Integer.valueOf(currentValue);
+                    }
+                } catch (NumberFormatException e) {
+                    throw conversionFailed(type, currentValue, e);
+                }
+                return returnValue;
+            }
+        },
+
+        /** Integer配列 */
+        INTEGER_ARRAY {
+            @Override
+            public boolean isConvertible(Class<?> type) {
+                return type == Integer[].class;
+            }
+
+            @Override
+            public Object convert(String value, Class<?> type) {
+                String[] values = LiteralExpressionUtil.splitString(value);
+                Integer[] returnValue = new Integer[values.length];
+                String currentValue = null;
+                try {
+                    for (int i = 0; i < values.length; i++) {
+                        currentValue = values[i].trim();
+                        returnValue[i] = Integer.valueOf(currentValue);
+                    }
+                } catch (NumberFormatException e) {
+                    throw conversionFailed(type, currentValue, e);
+                }
+                return returnValue;
+            }
+        };
+
+        /**
+         * 変換に失敗したことを示す例外を作成する。
+         *
+         * @param type 変換先の型
+         * @param value 変換に失敗した値
+         * @param cause 原因
+         * @return 例外
+         */
+        private static ConfigurationLoadException conversionFailed(Class<?> type, String value, Throwable cause) {
+            return new ConfigurationLoadException("property value conversion failed."
+                    + " class name = " + type.getName()
+                    + " ,value = " + value
+                    , cause);
+        }
+    }
+}
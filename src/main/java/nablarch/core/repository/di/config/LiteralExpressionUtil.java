@@ -5,6 +5,9 @@ import nablarch.core.log.LoggerManager;
 import nablarch.core.repository.di.ConfigurationLoadException;
 import nablarch.core.repository.di.DiContainer;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -42,6 +45,7 @@ public final class LiteralExpressionUtil {
     /**
      * リテラル表現をオブジェクトに変換する。
      * リテラル表現に現れる変数をDiContainerを使用して文字列に置き換え、置き換え後の文字列をオブジェクトに変換する。
+     * 変換には、コンテナが保持する{@link LiteralConverterRegistry}から型に対応するコンバータを使用する。
      * 
      * @param container コンテナ
      * @param literal 値のリテラル表現
@@ -49,9 +53,23 @@ public final class LiteralExpressionUtil {
      * @return 変換後のオブジェクト
      */
     static Object convertLiteralExpressionToObject(DiContainer container, String literal, Class<?> type) {
+        return convertLiteralExpressionToObject(container, literal, type,
+                container.getLiteralConverterRegistry().getConverter(type));
+    }
+
+    /**
+     * リテラル表現を、解決済みのコンバータを使用してオブジェクトに変換する。
+     *
+     * @param container コンテナ
+     * @param literal 値のリテラル表現
+     * @param type 値の型
+     * @param converter 値の型に対応するコンバータ
+     * @return 変換後のオブジェクト
+     */
+    static Object convertLiteralExpressionToObject(DiContainer container, String literal, Class<?> type,
+            LiteralConverter converter) {
         String resolved = resolveVariable(container, literal);
-        Object converted = convertTo(resolved, type);
-        return converted;
+        return converter.convert(resolved, type);
     }
 
     /**
@@ -62,9 +80,13 @@ public final class LiteralExpressionUtil {
      * @return 変数を解決した文字列
      */
     static String resolveVariable(DiContainer container, String literal) {
-        StringBuilder builder = new StringBuilder(literal);
         Matcher matcher = VARIABLE_FIND_PATTERN.matcher(literal);
-        while (matcher.find()) {
+        if (!matcher.find()) {
+            // 変数を含まない場合は、読み込み時に集約された文字列をそのまま使用する。
+            return literal;
+        }
+        StringBuilder builder = new StringBuilder(literal);
+        do {
             String group = matcher.group(1);
             Matcher keyMatcher = STRIP_BRACE.matcher(group);
             keyMatcher.matches();
@@ -92,11 +114,31 @@ public final class LiteralExpressionUtil {
             int pos = builder.indexOf(group);
             builder.delete(pos, pos + group.length());
             builder.insert(pos, valueStr);
-        }
+        } while (matcher.find());
         
         return builder.toString();
     }
 
+    /**
+     * リテラルに含まれる ${ } にはさまれた変数の名前を取得する。
+     *
+     * @param literal 文字列表現
+     * @return 変数の名前(出現順。変数を含まない場合は空のリスト)
+     */
+    public static List<String> getVariableNames(String literal) {
+        Matcher matcher = VARIABLE_FIND_PATTERN.matcher(literal);
+        if (!matcher.find()) {
+            return Collections.emptyList();
+        }
+        List<String> names = new ArrayList<String>();
+        do {
+            Matcher keyMatcher = STRIP_BRACE.matcher(matcher.group(1));
+            keyMatcher.matches();
+            names.add(keyMatcher.group(1));
+        } while (matcher.find());
+        return names;
+    }
+
     /**
      * リテラル表現に合致する環境依存値が取得できないことを許容するか。
      * {@link LiteralExpressionUtil#resolveVariable(DiContainer, String)}では
@@ -114,79 +156,6 @@ public final class LiteralExpressionUtil {
                 && Boolean.parseBoolean((String) allowEmptyValue);
     }
 
-    /**
-     * 文字列表現をオブジェクトに変換する。
-     * 
-     * @param value 文字列表現
-     * @param type 変換後の型
-     * @return 変換したオブジェクト
-     */
-    private static Object convertTo(String value, Class<?> type) {
-        if (type == String.class) {
-            return value;
-        } else if (type == boolean.class) {
-            return Boolean.valueOf(value);
-        } else if (type == Boolean.class) {
-            return Boolean.valueOf(value);
-        } else if (type == int.class) {
-            return Integer.valueOf(value);
-        } else if (type == Integer.class) {
-            return Integer.valueOf(value);
-        } else if (type == long.class) {
-            return Long.valueOf(value);
-        } else if (type == Long.class) {
-            return Long.valueOf(value);
-        } else if (type.isArray()) {
-            Class<?> arrayType = type.getComponentType();
-            if (arrayType == String.class) {
-                String[] values = splitString(value);
-                for (int i = 0; i < values.length; i++) {
-                    values[i] = values[i].trim();
-                }
-                return values;
-            } else if (arrayType == int.class) {
-    
-                String[] values = splitString(value);
-                int[] returnValue = new int[values.length];
-                String currentValue = null;
-    
-                try {
-                    for (int i = 0; i < values.length; i++) {
-                        currentValue = values[i].trim();
-                        returnValue[i] = Integer.valueOf(currentValue);
-                    }
-                } catch (NumberFormatException e) {
-                    throw new ConfigurationLoadException("property value conversion failed."
-                            + " class name = " + type.getName()
-                            + " ,value = " + currentValue
-                            , e);
-                }
-                return returnValue;
-            } else if (arrayType == Integer.class) {
-                String[] values = splitString(value);
-                Integer[] returnValue = new Integer[values.length];
-                String currentValue = null;
-    
-                try {
-                    for (int i = 0; i < values.length; i++) {
-                        currentValue = values[i].trim();
-                        returnValue[i] = Integer.valueOf(currentValue);
-                    }
-                } catch (NumberFormatException e) {
-                    throw new ConfigurationLoadException("property value conversion failed."
-                            + " class name = " + type.getName()
-                            + " ,value = " + currentValue
-                            , e);
-                }
-                return returnValue;
-                
-            }
-        } 
-        
-        throw new ConfigurationLoadException("property type was not supported."
-                + " class name = " + type.getName());
-    }
-
     /**
      * 文字列をカンマで分割する。
      * 
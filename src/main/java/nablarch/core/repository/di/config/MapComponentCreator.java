@@ -1,6 +1,7 @@
 package nablarch.core.repository.di.config;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +40,15 @@ public class MapComponentCreator implements ComponentCreator, ComponentInjector
         this.entries = entries;
     }
 
+    /**
+     * Map定義のリストを取得する。
+     *
+     * @return Map定義のリスト(変更不可)
+     */
+    public List<MapEntryDefinition> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
     /**
      * Mapを生成する。
      * 
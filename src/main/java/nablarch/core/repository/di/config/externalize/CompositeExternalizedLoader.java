@@ -4,10 +4,16 @@ import nablarch.core.repository.di.ComponentDefinition;
 import nablarch.core.repository.di.ComponentHolder;
 import nablarch.core.repository.di.DiContainer;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * 複数の{@link ExternalizedComponentDefinitionLoader}を組み合わせたローダー。
@@ -17,6 +23,9 @@ import java.util.Map;
  * <p/>
  * 既に読み込まれているコンポーネントと同じ名前のコンポーネントが読み込まれた場合は、
  * 後から読み込まれたコンポーネントで上書きされる。
+ * <p/>
+ * 後続のローダーには、読み込み済みのコンポーネントに前のローダーが読み込んだコンポーネントを重ねたビューを渡す。
+ * 読み込み済みのコンポーネントはコピーしないため、コンポーネントの数が多い場合でも一時的なマップは作成されない。
  *
  * @author Tomoyuki Tanaka
  */
@@ -33,14 +42,14 @@ public class CompositeExternalizedLoader implements ExternalizedComponentDefinit
 
     @Override
     public List<ComponentDefinition> load(DiContainer container, Map<String, ComponentHolder> loadedComponents) {
-        Map<String, ComponentDefinition> result = new HashMap<String, ComponentDefinition>();
-        Map<String, ComponentHolder> loadedCache = new HashMap<String, ComponentHolder>(loadedComponents);
+        Map<String, ComponentDefinition> result = new LinkedHashMap<String, ComponentDefinition>();
+        OverlayMap loadedView = new OverlayMap(loadedComponents);
 
         for (ExternalizedComponentDefinitionLoader loader : loaders) {
-            List<ComponentDefinition> externalized = loader.load(container, loadedCache);
+            List<ComponentDefinition> externalized = loader.load(container, loadedView);
             for (ComponentDefinition component : externalized) {
                 result.put(component.getName(), component);
-                loadedCache.put(component.getName(), new ComponentHolder(component));
+                loadedView.override(component.getName(), new ComponentHolder(component));
             }
         }
 
@@ -54,4 +63,125 @@ public class CompositeExternalizedLoader implements ExternalizedComponentDefinit
     public List<ExternalizedComponentDefinitionLoader> getLoaders() {
         return loaders;
     }
+
+    /**
+     * 読み込み済みのコンポーネントに、上書きしたコンポーネントを重ねた読み取り専用のビュー。
+     * <p/>
+     * 上書きしたコンポーネントのみを保持し、読み込み済みのコンポーネントはコピーせずに参照する。
+     */
+    private static final class OverlayMap extends AbstractMap<String, ComponentHolder> {
+
+        /** 読み込み済みのコンポーネント */
+        private final Map<String, ComponentHolder> base;
+
+        /** 上書きしたコンポーネント */
+        private final Map<String, ComponentHolder> overrides = new HashMap<String, ComponentHolder>();
+
+        /** 上書きしたコンポーネントのうち、読み込み済みのコンポーネントに存在しない名前の数 */
+        private int addedCount;
+
+        /**
+         * コンストラクタ。
+         * @param base 読み込み済みのコンポーネント
+         */
+        OverlayMap(Map<String, ComponentHolder> base) {
+            this.base = base;
+        }
+
+        /**
+         * コンポーネントを上書きする。
+         * @param name コンポーネント名
+         * @param holder コンポーネントホルダ
+         */
+        void override(String name, ComponentHolder holder) {
+            if (overrides.put(name, holder) == null && !base.containsKey(name)) {
+                addedCount++;
+            }
+        }
+
+        @Override
+        public ComponentHolder get(Object key) {
+            ComponentHolder holder = overrides.get(key);
+            return holder != null ? holder : base.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return overrides.containsKey(key) || base.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return base.size() + addedCount;
+        }
+
+        @Override
+        public Set<Entry<String, ComponentHolder>> entrySet() {
+            return new AbstractSet<Entry<String, ComponentHolder>>() {
+                @Override
+                public Iterator<Entry<String, ComponentHolder>> iterator() {
+                    return new OverlayIterator();
+                }
+
+                @Override
+                public int size() {
+                    return OverlayMap.this.size();
+                }
+            };
+        }
+
+        /**
+         * 読み込み済みのコンポーネント(上書きされたものは上書き後の値)、
+         * 読み込み済みのコンポーネントに存在しない上書きしたコンポーネントの順に走査するイテレータ。
+         */
+        private final class OverlayIterator implements Iterator<Entry<String, ComponentHolder>> {
+
+            /** 読み込み済みのコンポーネントのイテレータ */
+            private final Iterator<Entry<String, ComponentHolder>> baseIterator = base.entrySet().iterator();
+
+            /** 上書きしたコンポーネントのイテレータ */
+            private final Iterator<Entry<String, ComponentHolder>> overrideIterator = overrides.entrySet().iterator();
+
+            /** 次の要素 */
+            private Entry<String, ComponentHolder> next;
+
+            @Override
+            public boolean hasNext() {
+                if (next != null) {
+                    return true;
+                }
+                if (baseIterator.hasNext()) {
+                    Entry<String, ComponentHolder> entry = baseIterator.next();
+                    ComponentHolder overridden = overrides.get(entry.getKey());
+                    next = overridden == null
+                            ? entry
+                            : new SimpleImmutableEntry<String, ComponentHolder>(entry.getKey(), overridden);
+                    return true;
+                }
+                while (overrideIterator.hasNext()) {
+                    Entry<String, ComponentHolder> entry = overrideIterator.next();
+                    if (!base.containsKey(entry.getKey())) {
+                        next = entry;
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public Entry<String, ComponentHolder> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry<String, ComponentHolder> result = next;
+                next = null;
+                return result;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        }
+    }
 }
@@ -0,0 +1,193 @@
+package nablarch.core.repository.di.config.externalize;
+
+import java.util.Map;
+
+/**
+ * コンポーネント名から、対応するOS環境変数の値を検索するインデックス。
+ * <p/>
+ * コンポーネント名をOS環境変数名に変換した文字列を作成せずに検索するため、
+ * 環境変数名のハッシュ値({@link String#hashCode()})をキーとするオープンアドレス法のハッシュ表を使用する。
+ * コンポーネント名は1文字ずつ変換しながらハッシュ値を計算し、ハッシュ値が一致した環境変数名とのみ1文字ずつ比較する。
+ * また、コンポーネント名と同じ長さの環境変数が存在しない場合は、ハッシュ値の計算も行わない。
+ * <p/>
+ * ASCII以外の文字を含むコンポーネント名や、{@link String#toUpperCase()}がASCIIの小文字を
+ * ASCIIの大文字に変換しないロケール(トルコ語など)では、変換後の文字列を作成して検索する。
+ * <p/>
+ * このクラスは不変であり、複数スレッドから同時に使用できる。
+ */
+final class EnvironmentVariableIndex {
+
+    /** 環境変数名(ハッシュ表) */
+    private final String[] names;
+
+    /** 環境変数の値(ハッシュ表) */
+    private final String[] values;
+
+    /** 環境変数名のハッシュ値(ハッシュ表) */
+    private final int[] hashes;
+
+    /** ハッシュ表のインデックスを取り出すマスク */
+    private final int mask;
+
+    /** 長さごとの環境変数の有無 */
+    private final boolean[] lengths;
+
+    /** 環境変数 */
+    private final Map<String, String> env;
+
+    /** ASCIIの小文字を1文字ずつ大文字に変換した結果が、{@link String#toUpperCase()}と一致するか否か */
+    private final boolean asciiUpperCaseCompatible;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param env 環境変数
+     */
+    EnvironmentVariableIndex(Map<String, String> env) {
+        this.env = env;
+        int capacity = Integer.highestOneBit(Math.max(env.size(), 1) * 2 - 1) << 1;
+        names = new String[capacity];
+        values = new String[capacity];
+        hashes = new int[capacity];
+        mask = capacity - 1;
+        int maxLength = 0;
+        for (String name : env.keySet()) {
+            maxLength = Math.max(maxLength, name.length());
+        }
+        lengths = new boolean[maxLength + 1];
+        for (Map.Entry<String, String> entry : env.entrySet()) {
+            String name = entry.getKey();
+            int hash = name.hashCode();
+            int slot = spread(hash) & mask;
+            while (names[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            names[slot] = name;
+            values[slot] = entry.getValue();
+            hashes[slot] = hash;
+            lengths[name.length()] = true;
+        }
+        asciiUpperCaseCompatible = "abcdefghijklmnopqrstuvwxyz".toUpperCase().equals("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+    }
+
+    /**
+     * 環境変数の数を取得する。
+     *
+     * @return 環境変数の数
+     */
+    int size() {
+        return env.size();
+    }
+
+    /**
+     * コンポーネント名に対応する環境変数の値を取得する。
+     *
+     * @param componentName コンポーネント名
+     * @return 環境変数の値(存在しない場合は{@code null})
+     */
+    String find(String componentName) {
+        int length = componentName.length();
+        if (length >= lengths.length || !lengths[length]) {
+            if (asciiUpperCaseCompatible && isAscii(componentName)) {
+                // ASCIIのみの場合、変換によって長さは変わらない。
+                return null;
+            }
+            return env.get(convertToEnvName(componentName));
+        }
+        if (!asciiUpperCaseCompatible) {
+            return env.get(convertToEnvName(componentName));
+        }
+
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            char c = componentName.charAt(i);
+            if (c >= 0x80) {
+                return env.get(convertToEnvName(componentName));
+            }
+            hash = 31 * hash + normalize(c);
+        }
+        int slot = spread(hash) & mask;
+        while (names[slot] != null) {
+            if (hashes[slot] == hash && matches(componentName, names[slot])) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * コンポーネント名をOS環境変数名に変換する。
+     * <p/>
+     * ドットとハイフンをアンダーバーに置換し、大文字に変換する。
+     *
+     * @param componentName コンポーネント名
+     * @return OS環境変数名
+     */
+    static String convertToEnvName(String componentName) {
+        return componentName
+                    .replace(".", "_")
+                    .replace("-", "_")
+                    .toUpperCase();
+    }
+
+    /**
+     * コンポーネント名を変換した結果が、環境変数名と一致するか否かを判定する。
+     *
+     * @param componentName コンポーネント名(ASCIIのみ)
+     * @param envName 環境変数名
+     * @return 一致する場合は{@code true}
+     */
+    private static boolean matches(String componentName, String envName) {
+        if (componentName.length() != envName.length()) {
+            return false;
+        }
+        for (int i = 0; i < componentName.length(); i++) {
+            if (normalize(componentName.charAt(i)) != envName.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * ASCIIの1文字を、OS環境変数名の文字に変換する。
+     *
+     * @param c 文字
+     * @return 変換後の文字
+     */
+    private static char normalize(char c) {
+        if (c == '.' || c == '-') {
+            return '_';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return (char) (c - ('a' - 'A'));
+        }
+        return c;
+    }
+
+    /**
+     * 文字列がASCIIのみで構成されているか否かを判定する。
+     *
+     * @param value 文字列
+     * @return ASCIIのみの場合は{@code true}
+     */
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * ハッシュ値の上位ビットを下位ビットに拡散する。
+     *
+     * @param hash ハッシュ値
+     * @return 拡散後のハッシュ値
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
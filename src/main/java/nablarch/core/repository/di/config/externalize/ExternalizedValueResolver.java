@@ -0,0 +1,47 @@
+package nablarch.core.repository.di.config.externalize;
+
+/**
+ * {@link ExternalizedComponentDefinitionLoader}がコンポーネントを上書きする場合と同じ規則で、名前に対応する値を解決するクラス。
+ * <p/>
+ * コンポーネント設定ファイルの条件の評価など、コンテナの構築前に外部化された値を参照する場合に使用する。
+ * 次のローダーの規則に従って、読み込み済みの値を上書きする。
+ * <ul>
+ *   <li>{@link SystemPropertyExternalizedLoader}(選択モードの場合は、選択モードの規則に従う)</li>
+ *   <li>{@link OsEnvironmentVariableExternalizedLoader}(名前をOS環境変数名に変換して検索する)</li>
+ *   <li>{@link CompositeExternalizedLoader}(組み合わせたローダーの順に上書きする)</li>
+ * </ul>
+ * これら以外のローダーは、コンポーネントの生成が必要になる場合があるため、値を上書きしないものとして扱う。
+ */
+public final class ExternalizedValueResolver {
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private ExternalizedValueResolver() {
+    }
+
+    /**
+     * 読み込み済みの値を、ローダーの規則に従って上書きした値を取得する。
+     *
+     * @param loader 外部化コンポーネント定義のローダー
+     * @param name 名前
+     * @param loadedValue 読み込み済みの値(存在しない場合は{@code null})
+     * @return 上書き後の値(存在しない場合は{@code null})
+     */
+    public static String resolve(ExternalizedComponentDefinitionLoader loader, String name, String loadedValue) {
+        if (loader instanceof CompositeExternalizedLoader) {
+            String value = loadedValue;
+            for (ExternalizedComponentDefinitionLoader each : ((CompositeExternalizedLoader) loader).getLoaders()) {
+                value = resolve(each, name, value);
+            }
+            return value;
+        }
+        if (loader instanceof SystemPropertyExternalizedLoader) {
+            return ((SystemPropertyExternalizedLoader) loader).override(name, loadedValue);
+        }
+        if (loader instanceof OsEnvironmentVariableExternalizedLoader) {
+            return ((OsEnvironmentVariableExternalizedLoader) loader).override(name, loadedValue);
+        }
+        return loadedValue;
+    }
+}
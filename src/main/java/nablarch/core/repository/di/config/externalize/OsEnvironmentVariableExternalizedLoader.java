@@ -27,19 +27,23 @@ import java.util.Map;
  * {@code "FOO_BAR_FIZZ_BUZZ"}という名前でOS環境変数が検索されることになる。
  * <p/>
  * 変換後の名前でOS環境変数が見つかった場合は、その値を{@code String}のコンポーネントとして読み込む。
+ * <p/>
+ * OS環境変数はプロセスの実行中に変化しないため、検索用のインデックスはプロセスで1度だけ作成して共有する。
+ * 検索時にはコンポーネント名ごとに変換後の文字列を作成しないため、コンポーネントが多い場合でも
+ * 再読み込みのたびに大量の文字列が生成されることはない。
  *
  * @author Tomoyuki Tanaka
  */
 public class OsEnvironmentVariableExternalizedLoader implements ExternalizedComponentDefinitionLoader {
     private static final Logger LOGGER = LoggerManager.get(OsEnvironmentVariableExternalizedLoader.class);
 
-    private final Map<String, String> env;
+    private final EnvironmentVariableIndex index;
 
     /**
      * コンストラクタ。
      */
     public OsEnvironmentVariableExternalizedLoader() {
-        this(System.getenv());
+        this.index = SystemEnvironmentIndexHolder.INDEX;
     }
 
     /**
@@ -50,17 +54,19 @@ public class OsEnvironmentVariableExternalizedLoader implements ExternalizedComp
      * @param env 環境変数の{@link Map}
      */
     OsEnvironmentVariableExternalizedLoader(Map<String, String> env) {
-        this.env = env;
+        this.index = new EnvironmentVariableIndex(env);
     }
 
     @Override
     public List<ComponentDefinition> load(DiContainer container, Map<String, ComponentHolder> loadedComponents) {
         List<ComponentDefinition> definitions = new ArrayList<ComponentDefinition>();
+        if (index.size() == 0) {
+            return definitions;
+        }
 
         for (Map.Entry<String, ComponentHolder> entry : loadedComponents.entrySet()) {
             String componentName = entry.getKey();
-            String envName = convertToEnvName(componentName);
-            String envValue = env.get(envName);
+            String envValue = index.find(componentName);
 
             if (envValue != null) {
                 // 環境変数で上書き定義されている
@@ -89,14 +95,28 @@ public class OsEnvironmentVariableExternalizedLoader implements ExternalizedComp
     }
 
     /**
-     * コンポーネント名を、検索用のOS環境変数名に変換する。
-     * @param componentName コンポーネント名
-     * @return 変換後のOS環境変数名
+     * 読み込み済みの値を、このローダーがコンポーネントとして読み込む場合と同じ規則でOS環境変数の値で上書きする。
+     * <p/>
+     * OS環境変数は読み込み済みの値のみを上書きするため、読み込み済みの値が存在しない場合は上書きしない。
+     *
+     * @param name 名前
+     * @param loadedValue 読み込み済みの値(存在しない場合は{@code null})
+     * @return 上書き後の値(存在しない場合は{@code null})
+     */
+    String override(String name, String loadedValue) {
+        if (loadedValue == null) {
+            return null;
+        }
+        String envValue = index.find(name);
+        return envValue != null ? envValue : loadedValue;
+    }
+
+    /**
+     * {@link System#getenv()}のインデックスを遅延初期化して保持するクラス。
      */
-    private String convertToEnvName(String componentName) {
-        return componentName
-                    .replace(".", "_")
-                    .replace("-", "_")
-                    .toUpperCase();
+    private static final class SystemEnvironmentIndexHolder {
+
+        /** {@link System#getenv()}のインデックス */
+        private static final EnvironmentVariableIndex INDEX = new EnvironmentVariableIndex(System.getenv());
     }
 }
@@ -11,45 +11,74 @@ import nablarch.core.repository.di.StoredValueComponentCreator;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
 /**
  * システムプロパティをコンポーネント定義として読み込む{@link ExternalizedComponentDefinitionLoader}。
  * <p/>
  * このローダーは、システムプロパティで指定されている値をすべて{@link String}のコンポーネントとしてロードする。
+ * <p/>
+ * システムプロパティ{@value #SELECTIVE_SYSTEM_PROP_NAME}に{@code true}を指定した場合は、
+ * 次のいずれかに該当するシステムプロパティのみをロードする(選択モード)。
+ * <ul>
+ *   <li>読み込み済みのコンポーネント、または{@link nablarch.core.repository.di.LiteralStore}の値を上書きするもの</li>
+ *   <li>システムプロパティ{@value #PREFIXES_SYSTEM_PROP_NAME}にカンマ区切りで指定したプレフィックスのいずれかで始まるもの</li>
+ * </ul>
+ * 選択モードでは、{@code java.*}や{@code os.*}などのJVMのシステムプロパティがコンポーネントとして登録されなくなる。
+ * コンポーネント設定ファイルの{@code ${キー}}で、設定ファイルに定義されていないシステムプロパティを参照している場合は、
+ * そのキーのプレフィックスを指定すること。
  *
  * @author Tomoyuki Tanaka
  */
 public class SystemPropertyExternalizedLoader implements ExternalizedComponentDefinitionLoader {
     private static final Logger LOGGER = LoggerManager.get(SystemPropertyExternalizedLoader.class);
 
+    /** 選択モードを有効にするか否かを指定するシステムプロパティの名前 */
+    static final String SELECTIVE_SYSTEM_PROP_NAME = "nablarch.systemPropertyExternalizedLoader.selective";
+
+    /** 選択モードで常にロードするシステムプロパティのプレフィックスを指定するシステムプロパティの名前 */
+    static final String PREFIXES_SYSTEM_PROP_NAME = "nablarch.systemPropertyExternalizedLoader.prefixes";
+
     @Override
     public List<ComponentDefinition> load(DiContainer container, Map<String, ComponentHolder> loadedComponents) {
         List<ComponentDefinition> definitions = new ArrayList<ComponentDefinition>();
 
-        for (Map.Entry<Object, Object> entry : System.getProperties().entrySet()) {
+        Properties properties = System.getProperties();
+        boolean selective = Boolean.parseBoolean(properties.getProperty(SELECTIVE_SYSTEM_PROP_NAME));
+        String[] prefixes = selective ? parsePrefixes(properties.getProperty(PREFIXES_SYSTEM_PROP_NAME)) : null;
+
+        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
             String key = (String) entry.getKey();
             String value = (String) entry.getValue();
 
-            ComponentCreator creator = new StoredValueComponentCreator(value);
-            ComponentDefinition def = new ComponentDefinition(container.generateId(), key, creator, String.class);
+            ComponentHolder previous = loadedComponents.get(key);
+            if (selective && previous == null
+                    && !startsWithAny(key, prefixes)
+                    && container.getComponentByName(key) == null) {
+                // 上書き対象がなく、プレフィックスにも一致しないシステムプロパティはロードしない。
+                // (読み込み済みのコンポーネントに存在しない名前は、LiteralStoreのみが検索される)
+                continue;
+            }
 
-            if (loadedComponents.containsKey(key) && !(loadedComponents.get(key).getDefinition().getCreator() instanceof StoredValueComponentCreator)) {
+            if (previous != null && !(previous.getDefinition().getCreator() instanceof StoredValueComponentCreator)) {
                 // StoredValueComponentCreator 以外のプロパティを StoredValueComponentCreator で上書きするのはおかしいので例外。
                 throw new RuntimeException("illegal system property was found which tries to override non-literal property."
                         + "system property can override literal value only."
-                        + " key = [" + def.getName() + "]"
-                        + " , previous class = [" + loadedComponents.get(key).getDefinition().getType().getName() + "]");
+                        + " key = [" + key + "]"
+                        + " , previous class = [" + previous.getDefinition().getType().getName() + "]");
             }
 
-            if (loadedComponents.containsKey(key)) {
-                ComponentHolder previous = loadedComponents.get(key);
+            ComponentCreator creator = new StoredValueComponentCreator(value);
+            ComponentDefinition def = new ComponentDefinition(container.generateId(), key, creator, String.class);
 
+            if (previous != null) {
                 // プロパティの上書きが発生
                 // システムプロパティでの上書きは通常運用で利用することがあるため、INFOレベルでログ出力する。
+                // 上書き前の値は、コンポーネントを生成せずに作成済みの値を参照する。
                 if (LOGGER.isInfoEnabled()) {
                     LOGGER.logInfo("value was overridden by system property. "
                             + " key = " + def.getName()
-                            + ", previous value = [" + previous.getDefinition().getCreator().createComponent(container, previous.getDefinition()) + "]"
+                            + ", previous value = [" + ((StoredValueComponentCreator) previous.getDefinition().getCreator()).getValue() + "]"
                             + ", new value = [" + value + "]");
                 }
             }
@@ -59,4 +88,60 @@ public class SystemPropertyExternalizedLoader implements ExternalizedComponentDe
 
         return definitions;
     }
+
+    /**
+     * 読み込み済みの値を、このローダーがコンポーネントとして読み込む場合と同じ規則でシステムプロパティの値で上書きする。
+     *
+     * @param name 名前
+     * @param loadedValue 読み込み済みの値(存在しない場合は{@code null})
+     * @return 上書き後の値(存在しない場合は{@code null})
+     */
+    String override(String name, String loadedValue) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            return loadedValue;
+        }
+        if (loadedValue == null && Boolean.parseBoolean(System.getProperty(SELECTIVE_SYSTEM_PROP_NAME))
+                && !startsWithAny(name, parsePrefixes(System.getProperty(PREFIXES_SYSTEM_PROP_NAME)))) {
+            // 選択モードでは、上書き対象がなく、プレフィックスにも一致しないシステムプロパティはロードしない。
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * カンマ区切りのプレフィックスを分割する。
+     *
+     * @param value カンマ区切りのプレフィックス
+     * @return プレフィックスの配列
+     */
+    private static String[] parsePrefixes(String value) {
+        if (value == null) {
+            return new String[0];
+        }
+        List<String> prefixes = new ArrayList<String>();
+        for (String prefix : value.split(",")) {
+            String trimmed = prefix.trim();
+            if (trimmed.length() != 0) {
+                prefixes.add(trimmed);
+            }
+        }
+        return prefixes.toArray(new String[prefixes.size()]);
+    }
+
+    /**
+     * キーがいずれかのプレフィックスで始まるか否かを判定する。
+     *
+     * @param key キー
+     * @param prefixes プレフィックスの配列
+     * @return いずれかのプレフィックスで始まる場合は{@code true}
+     */
+    private static boolean startsWithAny(String key, String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -275,6 +275,7 @@ public class ComponentDefinitionFileParser {
             }
             ret.setClazz(attributes.getValue("class"));
             ret.setName(attributes.getValue("name"));
+            ret.setCondition(attributes.getValue("condition"));
             return ret;
         }
     }
@@ -523,6 +524,7 @@ public class ComponentDefinitionFileParser {
             
             ret.setFile(attributes.getValue("file"));
             ret.setDir(attributes.getValue("dir"));
+            ret.setCondition(attributes.getValue("condition"));
             ComponentConfiguration parentConfiguration = (ComponentConfiguration) parent;
             parentConfiguration.getImportOrConfigFileOrComponent().add(ret);
             
@@ -557,6 +559,7 @@ public class ComponentDefinitionFileParser {
             List ret = new List();
 
             ret.setName(attributes.getValue("name"));
+            ret.setCondition(attributes.getValue("condition"));
             if (parent instanceof ComponentConfiguration) {
                 ((ComponentConfiguration) parent).getImportOrConfigFileOrComponent().add(ret);
             } else if (parent instanceof Property) {
@@ -597,6 +600,7 @@ public class ComponentDefinitionFileParser {
             nablarch.core.repository.di.config.xml.schema.Map ret = new nablarch.core.repository.di.config.xml.schema.Map();
 
             ret.setName(attributes.getValue("name"));
+            ret.setCondition(attributes.getValue("condition"));
             if (parent instanceof ComponentConfiguration) {
                 ((ComponentConfiguration) parent).getImportOrConfigFileOrComponent().add(ret);
             } else if (parent instanceof Property) {
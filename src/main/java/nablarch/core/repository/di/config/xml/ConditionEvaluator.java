@@ -0,0 +1,168 @@
+package nablarch.core.repository.di.config.xml;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import nablarch.core.repository.ObjectLoader;
+import nablarch.core.repository.di.ConfigurationLoadException;
+import nablarch.core.repository.di.config.externalize.ExternalizedComponentDefinitionLoader;
+import nablarch.core.repository.di.config.externalize.ExternalizedValueResolver;
+
+/**
+ * コンポーネント設定ファイルの{@code condition}属性を評価するクラス。
+ * <p/>
+ * 条件には次のいずれかを記述する。先頭に{@literal "!"}を付けると、条件を否定する。
+ * <ul>
+ * <li>{@literal "${名前}"}: 値が{@literal "true"}(大文字小文字は区別しない)の場合に真</li>
+ * <li>{@literal "${名前} == 値"}: 値が一致する場合に真</li>
+ * <li>{@literal "${名前} != 値"}: 値が一致しない場合に真</li>
+ * <li>{@literal "true"}または{@literal "false"}</li>
+ * </ul>
+ * 名前に対応する値は、評価の時点までに登録された環境設定ファイルの値を、
+ * コンテナの外部化コンポーネント定義のローダーと同じ規則で上書きして求める({@link ExternalizedValueResolver})。
+ * ディレクトリ指定で先読みした環境設定ファイルの値は、コンテナに登録するために読み込んだ結果を参照する。
+ * 先読みしない環境設定ファイルは、条件の評価で値が必要になった時点で読み込む。
+ */
+final class ConditionEvaluator {
+
+    /**
+     * 条件のパターン。
+     */
+    private static final Pattern CONDITION_PATTERN = Pattern.compile("\\$\\{([^}]+)\\}\\s*(?:(==|!=)\\s*(.*))?");
+
+    /**
+     * 外部化コンポーネント定義のローダー。
+     */
+    private final ExternalizedComponentDefinitionLoader externalizedLoader;
+
+    /**
+     * 評価に使用する環境設定ファイルの値(定義順)。
+     */
+    private final List<ConfigValues> configValues = new ArrayList<ConfigValues>();
+
+    /**
+     * 解決済みの値(環境設定ファイルが登録されるまで有効)。
+     */
+    private final Map<String, String> resolvedValues = new HashMap<String, String>();
+
+    /**
+     * コンストラクタ。
+     *
+     * @param externalizedLoader コンテナの外部化コンポーネント定義のローダー
+     */
+    ConditionEvaluator(ExternalizedComponentDefinitionLoader externalizedLoader) {
+        this.externalizedLoader = externalizedLoader;
+    }
+
+    /**
+     * 評価に使用する環境設定ファイルのローダを登録する。
+     *
+     * @param loader 環境設定ファイルのローダ(先読みした場合は読み込み結果)
+     */
+    void addConfigLoader(ObjectLoader loader) {
+        configValues.add(new ConfigValues(loader));
+        // 後に定義した環境設定ファイルの値で上書きされる可能性があるため、解決済みの値は破棄する。
+        resolvedValues.clear();
+    }
+
+    /**
+     * 条件を評価する。
+     *
+     * @param condition 条件({@code null}の場合は常に真)
+     * @return 条件が真の場合は{@code true}
+     * @throws ConfigurationLoadException 条件の形式が不正な場合
+     */
+    boolean evaluate(String condition) {
+        if (condition == null) {
+            return true;
+        }
+        String expression = condition.trim();
+        boolean negate = expression.startsWith("!");
+        if (negate) {
+            expression = expression.substring(1).trim();
+        }
+        boolean result;
+        if ("true".equals(expression) || "false".equals(expression)) {
+            result = Boolean.parseBoolean(expression);
+        } else {
+            Matcher matcher = CONDITION_PATTERN.matcher(expression);
+            if (!matcher.matches()) {
+                throw new ConfigurationLoadException("invalid condition. condition = [" + condition + "]");
+            }
+            String value = resolve(matcher.group(1).trim());
+            String operator = matcher.group(2);
+            if (operator == null) {
+                result = Boolean.parseBoolean(value);
+            } else {
+                boolean equals = matcher.group(3).trim().equals(value);
+                result = "==".equals(operator) ? equals : !equals;
+            }
+        }
+        return negate != result;
+    }
+
+    /**
+     * 名前に対応する値を取得する。
+     *
+     * @param name 名前
+     * @return 値(存在しない場合は{@code null})
+     */
+    private String resolve(String name) {
+        if (resolvedValues.containsKey(name)) {
+            return resolvedValues.get(name);
+        }
+        String configValue = null;
+        // 後に定義した環境設定ファイルの値を優先する
+        for (int i = configValues.size() - 1; i >= 0; i--) {
+            Object value = configValues.get(i).find(name);
+            if (value != null) {
+                configValue = value instanceof String ? (String) value : null;
+                break;
+            }
+        }
+        String value = ExternalizedValueResolver.resolve(externalizedLoader, name, configValue);
+        resolvedValues.put(name, value);
+        return value;
+    }
+
+    /**
+     * 環境設定ファイルの値。
+     */
+    private static final class ConfigValues {
+
+        /** 環境設定ファイルのローダ */
+        private final ObjectLoader loader;
+
+        /** 読み込んだ値(先読みしたローダの場合、または読み込む前は{@code null}) */
+        private Map<String, Object> values;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param loader 環境設定ファイルのローダ
+         */
+        ConfigValues(ObjectLoader loader) {
+            this.loader = loader;
+        }
+
+        /**
+         * 名前に対応する値を取得する。
+         *
+         * @param name 名前
+         * @return 値(存在しない場合は{@code null})
+         */
+        Object find(String name) {
+            if (loader instanceof ParallelFileReader.PreloadedObjectLoader) {
+                return ((ParallelFileReader.PreloadedObjectLoader) loader).find(name);
+            }
+            if (values == null) {
+                values = loader.load();
+            }
+            return values.get(name);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package nablarch.core.repository.di.config.xml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.core.repository.di.DiContainer;
+import nablarch.core.util.annotation.Published;
+
+/**
+ * コンポーネント設定ファイルと環境設定ファイルの変更を監視し、変更された場合にコンテナを再読み込みするクラス。
+ * <p/>
+ * {@link XmlComponentDefinitionLoader}が最後のロードで読み込んだファイルと、ディレクトリ指定で読み込んだディレクトリを
+ * {@link WatchService}で監視する。
+ * 変更を検知すると、静止期間の間に新たな変更がなくなるまで待ち合わせてから、{@link DiContainer#reload()}
+ * ({@link #setIncrementalReload(boolean)}で差分の再読み込みを設定した場合は{@link DiContainer#reloadIncrementally()})
+ * を呼び出す。
+ * 短時間に連続した変更は1回の再読み込みにまとめられる。
+ * 監視と再読み込みは監視用のデーモンスレッドで行うため、コンポーネントを取得するスレッドの処理は待ち合わせない。
+ * <p/>
+ * 監視を開始すると、ローダのパース結果のキャッシュを有効にする。
+ * 再読み込みでは、内容が変わっていないコンポーネント設定ファイルはパースせずに前回の結果を使用する。
+ * <p/>
+ * 再読み込みと、ローダが読み込んだファイルの取得はコンテナのロックを取得して行うため、
+ * アプリケーションのスレッドからの再読み込みと同時に行われることはない。
+ * <p/>
+ * 再読み込みの所要時間はINFOレベルでログに出力し、{@link #getLastReloadMillis()}で取得できる。
+ * 再読み込みに失敗した場合はWARNレベルでログを出力し、監視を継続する。
+ * <p/>
+ * 使用例を以下に示す。
+ * <pre>
+ * XmlComponentDefinitionLoader loader = new XmlComponentDefinitionLoader("file:/path/to/web-component-configuration.xml");
+ * DiContainer container = new DiContainer(loader);
+ * ConfigurationFileWatcher watcher = new ConfigurationFileWatcher(container, loader);
+ * watcher.start();
+ * </pre>
+ */
+@Published(tag = "architect")
+public class ConfigurationFileWatcher {
+
+    /**
+     * ロガー。
+     */
+    private static final Logger LOGGER = LoggerManager.get(ConfigurationFileWatcher.class);
+
+    /**
+     * デフォルトの静止期間(ミリ秒)。
+     */
+    public static final long DEFAULT_QUIET_PERIOD_MILLIS = 500L;
+
+    /**
+     * スレッド名の連番。
+     */
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    /**
+     * 再読み込みするコンテナ。
+     */
+    private final DiContainer container;
+
+    /**
+     * コンテナのコンポーネント定義のローダ。
+     */
+    private final XmlComponentDefinitionLoader loader;
+
+    /**
+     * 最後の変更から再読み込みを行うまでの静止期間(ミリ秒)。
+     */
+    private final long quietPeriodMillis;
+
+    /**
+     * 差分の再読み込みを行うかどうか。
+     */
+    private volatile boolean incrementalReload;
+
+    /**
+     * 監視しているディレクトリ。
+     */
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<WatchKey, Path>();
+
+    /**
+     * 監視対象のファイル。
+     */
+    private Set<Path> targetFiles = new HashSet<Path>();
+
+    /**
+     * 配下のファイル全てを監視対象とするディレクトリ。
+     */
+    private Set<Path> targetDirectories = new HashSet<Path>();
+
+    /**
+     * 監視サービス(監視していない場合は{@code null})。
+     */
+    private WatchService watchService;
+
+    /**
+     * 監視用のスレッド(監視していない場合は{@code null})。
+     */
+    private Thread thread;
+
+    /**
+     * 変更を検知して再読み込みした回数。
+     */
+    private volatile long reloadCount;
+
+    /**
+     * 最後の再読み込みの所要時間(ミリ秒)。
+     */
+    private volatile long lastReloadMillis = -1L;
+
+    /**
+     * コンストラクタ。
+     * <p/>
+     * 静止期間には{@link #DEFAULT_QUIET_PERIOD_MILLIS}を使用する。
+     *
+     * @param container 再読み込みするコンテナ
+     * @param loader コンテナのコンポーネント定義のローダ
+     */
+    public ConfigurationFileWatcher(DiContainer container, XmlComponentDefinitionLoader loader) {
+        this(container, loader, DEFAULT_QUIET_PERIOD_MILLIS);
+    }
+
+    /**
+     * コンストラクタ。
+     *
+     * @param container 再読み込みするコンテナ
+     * @param loader コンテナのコンポーネント定義のローダ
+     * @param quietPeriodMillis 最後の変更から再読み込みを行うまでの静止期間(ミリ秒)
+     */
+    public ConfigurationFileWatcher(DiContainer container, XmlComponentDefinitionLoader loader, long quietPeriodMillis) {
+        this.container = container;
+        this.loader = loader;
+        this.quietPeriodMillis = quietPeriodMillis;
+    }
+
+    /**
+     * 変更を検知した場合に、差分の再読み込み({@link DiContainer#reloadIncrementally()})を行うかどうかを設定する。
+     * <p/>
+     * デフォルトは{@code false}で、{@link DiContainer#reload()}で全てのコンポーネントを再生成する。
+     *
+     * @param incrementalReload 差分の再読み込みを行う場合は{@code true}
+     */
+    public void setIncrementalReload(boolean incrementalReload) {
+        this.incrementalReload = incrementalReload;
+    }
+
+    /**
+     * 監視を開始する。
+     * <p/>
+     * 既に監視している場合は何もしない。
+     *
+     * @throws IllegalStateException 監視サービスを開始できなかった場合
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            synchronized (container) {
+                loader.enableParseCache();
+                registerDirectories();
+            }
+        } catch (IOException e) {
+            stop();
+            throw new IllegalStateException("failed to start configuration file watcher.", e);
+        }
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch();
+            }
+        }, "nablarch-config-watcher-" + THREAD_NUMBER.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.logInfo("configuration file watcher was started."
+                    + " files = " + targetFiles.size()
+                    + ", directories = " + targetDirectories.size());
+        }
+    }
+
+    /**
+     * 監視を終了する。
+     * <p/>
+     * 再読み込み中の場合は、再読み込みの完了を待ち合わせる。
+     */
+    public synchronized void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.logWarn("failed to close watch service.", e);
+            }
+        }
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        watchService = null;
+        thread = null;
+    }
+
+    /**
+     * 変更を検知して再読み込みした回数を取得する。
+     *
+     * @return 再読み込みした回数
+     */
+    public long getReloadCount() {
+        return reloadCount;
+    }
+
+    /**
+     * 最後の再読み込みの所要時間を取得する。
+     *
+     * @return 所要時間(ミリ秒)。再読み込みしていない場合は{@code -1}
+     */
+    public long getLastReloadMillis() {
+        return lastReloadMillis;
+    }
+
+    /**
+     * 監視サービスが閉じられるまで、変更の検知と再読み込みを繰り返す。
+     */
+    private void watch() {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<Path>();
+                collectChanges(service.take(), changed);
+                // 静止期間の間に新たな変更がなくなるまで待ち合わせる
+                WatchKey key;
+                while ((key = service.poll(quietPeriodMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collectChanges(key, changed);
+                }
+                if (!changed.isEmpty()) {
+                    reload(changed);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // 監視の終了
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 監視対象のファイルの変更を収集する。
+     *
+     * @param key 変更を検知したディレクトリのキー
+     * @param changed 変更されたファイルの格納先
+     */
+    private void collectChanges(WatchKey key, Set<Path> changed) {
+        Path dir = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // 取りこぼした変更があるため、ディレクトリの変更として扱う
+                changed.add(dir);
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            if (targetFiles.contains(path) || targetDirectories.contains(dir)) {
+                changed.add(path);
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * コンテナを再読み込みし、監視対象を更新する。
+     *
+     * @param changed 変更されたファイル
+     */
+    private void reload(Set<Path> changed) {
+        // コンテナの再読み込みはコンテナのロックで同期化されているため、同じロックを取得することで、
+        // 再読み込みから監視対象の更新までの間に他のスレッドがローダを使用しないようにする。
+        synchronized (container) {
+            long start = System.nanoTime();
+            try {
+                if (incrementalReload) {
+                    container.reloadIncrementally();
+                } else {
+                    container.reload();
+                }
+            } catch (RuntimeException e) {
+                LOGGER.logWarn("failed to reload the container. changed files = " + changed, e);
+                return;
+            }
+            lastReloadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            reloadCount++;
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.logInfo("configuration files were changed and the container was reloaded."
+                        + " changed files = " + changed
+                        + ", reload time = " + lastReloadMillis + "ms");
+            }
+            try {
+                registerDirectories();
+            } catch (IOException e) {
+                LOGGER.logWarn("failed to watch configuration files.", e);
+            } catch (ClosedWatchServiceException e) {
+                // 再読み込み中に監視が終了された
+            }
+        }
+    }
+
+    /**
+     * ローダが最後のロードで読み込んだファイルとディレクトリを監視対象とし、
+     * それらを含むディレクトリを監視サービスに登録する。
+     *
+     * @throws IOException ディレクトリの登録に失敗した場合
+     */
+    private void registerDirectories() throws IOException {
+        Set<Path> files = new HashSet<Path>();
+        Set<Path> directories = new HashSet<Path>();
+        Set<Path> watchTargets = new LinkedHashSet<Path>();
+        for (File file : loader.getLoadedFiles()) {
+            Path path = file.toPath().toAbsolutePath();
+            files.add(path);
+            watchTargets.add(path.getParent());
+        }
+        for (File dir : loader.getLoadedDirectories()) {
+            Path path = dir.toPath().toAbsolutePath();
+            directories.add(path);
+            watchTargets.add(path);
+        }
+        targetFiles = files;
+        targetDirectories = directories;
+
+        for (Path dir : watchTargets) {
+            if (dir != null && !watchedDirectories.containsValue(dir)) {
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                watchedDirectories.put(key, dir);
+            }
+        }
+    }
+}
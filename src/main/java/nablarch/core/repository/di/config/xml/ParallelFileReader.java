@@ -0,0 +1,291 @@
+package nablarch.core.repository.di.config.xml;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import nablarch.core.repository.ObjectLoader;
+import nablarch.core.repository.StreamingObjectLoader;
+import nablarch.core.repository.di.ConfigurationLoadException;
+
+/**
+ * ディレクトリ指定で列挙された複数のファイルを並列に読み込むクラス。
+ * <p/>
+ * 読み込みは1回のロードで共有するスレッドプールで並列に行うが、結果は常に引数で渡された順序(ファイル名のソート順)で返却する。
+ * これにより、同じキーを持つ設定値の上書き順序は逐次読み込みの場合と変わらない。
+ */
+final class ParallelFileReader {
+
+    /**
+     * スレッド名の連番。
+     */
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private ParallelFileReader() {
+    }
+
+    /**
+     * 読み込み用のスレッドプールを生成する。
+     * <p/>
+     * スレッド数は利用可能なプロセッサ数を上限とし、1回のロードで読み込む全てのファイルで共有する。
+     * スレッドは最初のタスクを登録した時点で生成する。
+     *
+     * @return スレッドプール
+     */
+    static ExecutorService newExecutor() {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "nablarch-config-reader-" + THREAD_NUMBER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * {@link ObjectLoader}による読み込みを開始する。
+     * <p/>
+     * 返却する{@link ObjectLoader}は、元の{@link ObjectLoader}の読み込み結果を、読み込んだ順に受け渡す。
+     * 読み込みが完了していない場合は、完了を待ち合わせる。
+     *
+     * @param executor 読み込みを行うスレッドプール
+     * @param loader 読み込みを行う{@link ObjectLoader}
+     * @return 読み込み結果を返す{@link ObjectLoader}
+     */
+    static PreloadedObjectLoader preload(ExecutorService executor, final ObjectLoader loader) {
+        Future<RecordedEntries> future = executor.submit(new Callable<RecordedEntries>() {
+            @Override
+            public RecordedEntries call() {
+                RecordedEntries entries = new RecordedEntries();
+                if (loader instanceof StreamingObjectLoader) {
+                    ((StreamingObjectLoader) loader).load(entries);
+                } else {
+                    for (Map.Entry<String, Object> entry : loader.load().entrySet()) {
+                        entries.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                return entries;
+            }
+        });
+        return new PreloadedObjectLoader(loader, future);
+    }
+
+    /**
+     * コンポーネント設定ファイルのパースを並列に開始する。
+     * <p/>
+     * パース結果は{@link Future}で返却するため、呼び出し元は先頭のファイルから順に、
+     * 後続ファイルのパースと並行して処理を進めることができる。
+     * パース結果をキャッシュする場合、内容が前回のパース時から変わっていないファイルは前回のパース結果を返す。
+     *
+     * @param executor パースを行うスレッドプール
+     * @param files パースするファイルのリスト
+     * @param cacheable パース結果をキャッシュする場合は{@code true}
+     * @param previous ファイルごとの前回のパース結果のリスト(前回パースしていないファイルの要素は{@code null})
+     * @return パース結果の{@link Future}のリスト(引数と同じ順序)
+     */
+    static List<Future<ParsedConfiguration>> parse(ExecutorService executor,
+            List<File> files, boolean cacheable, List<ParsedConfiguration> previous) {
+        List<Future<ParsedConfiguration>> result = new ArrayList<Future<ParsedConfiguration>>(files.size());
+        if (files.size() <= 1) {
+            for (int i = 0; i < files.size(); i++) {
+                FutureTask<ParsedConfiguration> task = new FutureTask<ParsedConfiguration>(
+                        new ParseTask(files.get(i), cacheable, previous.get(i)));
+                task.run();
+                result.add(task);
+            }
+            return result;
+        }
+        for (int i = 0; i < files.size(); i++) {
+            result.add(executor.submit(new ParseTask(files.get(i), cacheable, previous.get(i))));
+        }
+        return result;
+    }
+
+    /**
+     * 並列読み込みの結果を取得する。
+     * <p/>
+     * 読み込み時に発生した実行時例外およびエラーは、そのまま送出する。
+     *
+     * @param <T> 結果の型
+     * @param future 読み込み結果
+     * @return 読み込み結果
+     */
+    static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConfigurationLoadException("configuration load was interrupted.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ConfigurationLoadException("configuration load failed.", cause);
+        }
+    }
+
+    /**
+     * コンポーネント設定ファイルをパースするタスク。
+     */
+    private static final class ParseTask implements Callable<ParsedConfiguration> {
+
+        /** パースするファイル */
+        private final File file;
+
+        /** パース結果をキャッシュするかどうか */
+        private final boolean cacheable;
+
+        /** 前回のパース結果(前回パースしていない場合は{@code null}) */
+        private final ParsedConfiguration previous;
+
+        /**
+         * コンストラクタ。
+         * @param file パースするファイル
+         * @param cacheable パース結果をキャッシュする場合は{@code true}
+         * @param previous 前回のパース結果(前回パースしていない場合は{@code null})
+         */
+        ParseTask(File file, boolean cacheable, ParsedConfiguration previous) {
+            this.file = file;
+            this.cacheable = cacheable;
+            this.previous = previous;
+        }
+
+        @Override
+        public ParsedConfiguration call() {
+            return ParsedConfiguration.parse(file, cacheable, previous);
+        }
+    }
+
+    /**
+     * {@link ObjectLoader}から受け取ったオブジェクトを、受け取った順に保持するクラス。
+     */
+    private static final class RecordedEntries implements StreamingObjectLoader.Sink {
+
+        /** キー(受け取った順) */
+        private final List<String> keys = new ArrayList<String>();
+
+        /** オブジェクト(受け取った順) */
+        private final List<Object> values = new ArrayList<Object>();
+
+        @Override
+        public void put(String key, Object value) {
+            keys.add(key);
+            values.add(value);
+        }
+
+        /** キーをもとにオブジェクトを取得するMap(初回の検索時に作成する) */
+        private Map<String, Object> index;
+
+        /**
+         * キーに対応するオブジェクトのうち、最後に受け取ったものを取得する。
+         *
+         * @param key キー
+         * @return オブジェクト(存在しない場合は{@code null})
+         */
+        Object find(String key) {
+            if (index == null) {
+                // 後に受け取ったオブジェクトで上書きする。
+                index = new HashMap<String, Object>(keys.size() * 4 / 3 + 1);
+                for (int i = 0; i < keys.size(); i++) {
+                    index.put(keys.get(i), values.get(i));
+                }
+            }
+            return index.get(key);
+        }
+
+        /**
+         * 保持したオブジェクトを、受け取った順に受け渡す。
+         *
+         * @param sink 受け渡し先
+         */
+        void replay(StreamingObjectLoader.Sink sink) {
+            for (int i = 0; i < keys.size(); i++) {
+                sink.put(keys.get(i), values.get(i));
+            }
+        }
+    }
+
+    /**
+     * 開始済みの読み込みの結果を返す{@link ObjectLoader}。
+     */
+    static final class PreloadedObjectLoader implements StreamingObjectLoader {
+
+        /** 元の{@link ObjectLoader} */
+        private final ObjectLoader delegate;
+
+        /** 読み込み結果 */
+        private final Future<RecordedEntries> result;
+
+        /**
+         * コンストラクタ。
+         * @param delegate 元の{@link ObjectLoader}
+         * @param result 読み込み結果
+         */
+        PreloadedObjectLoader(ObjectLoader delegate, Future<RecordedEntries> result) {
+            this.delegate = delegate;
+            this.result = result;
+        }
+
+        /**
+         * 読み込み結果を{@link Map}にまとめて返す。読み込みが完了していない場合は完了を待ち合わせる。
+         *
+         * @return 読み込み結果
+         */
+        @Override
+        public Map<String, Object> load() {
+            final Map<String, Object> values = new HashMap<String, Object>();
+            load(new Sink() {
+                @Override
+                public void put(String key, Object value) {
+                    values.put(key, value);
+                }
+            });
+            return values;
+        }
+
+        /**
+         * 読み込み結果を読み込んだ順に受け渡す。読み込みが完了していない場合は完了を待ち合わせる。
+         *
+         * @param sink 読み込み結果の受け渡し先
+         */
+        @Override
+        public void load(Sink sink) {
+            await(result).replay(sink);
+        }
+
+        /**
+         * キーに対応する読み込み結果を取得する。読み込みが完了していない場合は完了を待ち合わせる。
+         * <p/>
+         * 同じキーを複数回読み込んだ場合は、最後に読み込んだ結果を返す。
+         *
+         * @param key キー
+         * @return 読み込み結果(存在しない場合は{@code null})
+         */
+        Object find(String key) {
+            return await(result).find(key);
+        }
+
+        @Override
+        public String toString() {
+            return "preloaded " + delegate;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package nablarch.core.repository.di.config.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import nablarch.core.repository.di.ConfigurationLoadException;
+import nablarch.core.repository.di.config.xml.schema.ComponentConfiguration;
+import nablarch.core.util.FileUtil;
+
+import org.xml.sax.SAXException;
+
+/**
+ * コンポーネント設定ファイルのパース結果と、パース時のファイルの内容のダイジェスト。
+ * <p/>
+ * パース結果をキャッシュする場合は、ファイルの内容のダイジェストで変更を判定する。
+ * 最終更新日時やサイズは、タイムスタンプの精度内でサイズの変わらない変更を検知できないため使用しない。
+ */
+final class ParsedConfiguration {
+
+    /** ダイジェストのアルゴリズム */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /** パース時のファイルの内容のダイジェスト(キャッシュしない場合は{@code null}) */
+    private final byte[] digest;
+
+    /** パース結果 */
+    private final ComponentConfiguration configuration;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param digest パース時のファイルの内容のダイジェスト(キャッシュしない場合は{@code null})
+     * @param configuration パース結果
+     */
+    private ParsedConfiguration(byte[] digest, ComponentConfiguration configuration) {
+        this.digest = digest;
+        this.configuration = configuration;
+    }
+
+    /**
+     * パース結果を取得する。
+     *
+     * @return パース結果
+     */
+    ComponentConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * ファイルをパースする。
+     * <p/>
+     * キャッシュする場合は、ファイルの内容のダイジェストを前回のパース時と比較し、
+     * 内容が変わっていなければパースせずに前回のパース結果を返す。
+     * キャッシュしない場合は、ダイジェストを計算せずにパースする。
+     *
+     * @param file パースするファイル
+     * @param cacheable パース結果をキャッシュする場合は{@code true}
+     * @param previous 前回のパース結果(前回パースしていない場合は{@code null})
+     * @return パース結果
+     */
+    static ParsedConfiguration parse(File file, boolean cacheable, ParsedConfiguration previous) {
+        InputStream in = null;
+        try {
+            if (!cacheable) {
+                in = new FileInputStream(file);
+                return new ParsedConfiguration(null, new ComponentDefinitionFileParser().parse(in));
+            }
+            byte[] content = Files.readAllBytes(file.toPath());
+            byte[] digest = digest(content);
+            if (previous != null && MessageDigest.isEqual(digest, previous.digest)) {
+                return previous;
+            }
+            in = new ByteArrayInputStream(content);
+            return new ParsedConfiguration(digest, new ComponentDefinitionFileParser().parse(in));
+        } catch (SAXException e) {
+            throw new ConfigurationLoadException("component definition load failed."
+                    + " file = " + file.getPath(), e);
+        } catch (ParserConfigurationException e) {
+            // SAXパーサの作成には通常失敗しないため、この例外は発生しません。
+            throw new ConfigurationLoadException("component definition load failed."
+                    + " file = " + file.getPath(), e);
+        } catch (IOException e) {
+            throw new ConfigurationLoadException("configuration load failed."
+                    + " file = " + file.getPath(), e);
+        } finally {
+            FileUtil.closeQuietly(in);
+        }
+    }
+
+    /**
+     * ファイルの内容のダイジェストを計算する。
+     *
+     * @param content ファイルの内容
+     * @return ダイジェスト
+     */
+    private static byte[] digest(byte[] content) {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256はJava SEの全ての実装でサポートされているため、この例外は発生しません。
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package nablarch.core.repository.di.config.xml;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -14,9 +13,12 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.xml.parsers.ParserConfigurationException;
 
@@ -32,7 +34,9 @@ import nablarch.core.repository.di.ComponentReference;
 import nablarch.core.repository.di.ConfigurationLoadException;
 import nablarch.core.repository.di.DiContainer;
 import nablarch.core.repository.di.InjectionType;
+import nablarch.core.repository.di.PreloadedObjectLoaderCreator;
 import nablarch.core.repository.di.StoredValueComponentCreator;
+import nablarch.core.repository.di.StringPool;
 import nablarch.core.repository.di.config.BeanComponentCreator;
 import nablarch.core.repository.di.config.DuplicateDefinitionPolicy;
 import nablarch.core.repository.di.config.ListComponentCreator;
@@ -49,6 +53,7 @@ import nablarch.core.repository.di.config.xml.schema.ConfigFile;
 import nablarch.core.repository.di.config.xml.schema.Entry;
 import nablarch.core.repository.di.config.xml.schema.Import;
 import nablarch.core.repository.di.config.xml.schema.Property;
+import nablarch.core.repository.di.jfr.DefinitionFileLoadEvent;
 import nablarch.core.util.Builder;
 import nablarch.core.util.FileUtil;
 import nablarch.core.util.ObjectUtil;
@@ -60,6 +65,14 @@ import org.xml.sax.SAXException;
 
 /**
  * XMLファイルからコンポーネントの定義を読み込むクラス。
+ * <p/>
+ * component、list、map、import要素の{@code condition}属性は読み込み時に評価し、
+ * 偽となった要素は配下の定義を含めて読み込まない(クラスのロードも行わない)。
+ * 条件の記述方法は{@literal component-configuration.xsd}を参照。
+ * <p/>
+ * ロード中の状態(インポートのスタックや読み込んだファイル、パース結果のキャッシュなど)を保持するため、
+ * このクラスはスレッドセーフではない。1つの{@link DiContainer}でのみ使用すること。
+ * {@link DiContainer}の読み込みはコンテナごとに同期化されているため、同時に複数のロードが行われることはない。
  * 
  * @author Koichi Asano 
  *
@@ -93,6 +106,31 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
      */
     private final Deque<URL> importFileNames = new ArrayDeque<URL>();
 
+    /**
+     * 最後のロードで読み込んだファイル(ファイルシステム上に存在するもののみ)。
+     */
+    private final Set<File> loadedFiles = new LinkedHashSet<File>();
+
+    /**
+     * 最後のロードでディレクトリ指定により読み込んだディレクトリ。
+     */
+    private final Set<File> loadedDirectories = new LinkedHashSet<File>();
+
+    /**
+     * コンポーネント設定ファイルのパース結果のキャッシュ(キャッシュしない場合は{@code null})。
+     */
+    private volatile Map<File, ParsedConfiguration> parseCache;
+
+    /**
+     * {@code condition}属性を評価するクラス(ロードごとに作成する)。
+     */
+    private ConditionEvaluator conditionEvaluator;
+
+    /**
+     * ファイルの並列読み込みに使用するスレッドプール(ロードごとに作成し、ロードの終了時に停止する)。
+     */
+    private ExecutorService executor;
+
     static {
         Set<Class<?>> tmpIgnoreAutowiredClasses = new HashSet<Class<?>>();
         
@@ -139,10 +177,12 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
      * @see nablarch.core.repository.di.ComponentDefinitionLoader#load(DiContainer)
      */
     public List<ComponentDefinition> load(DiContainer container) {
-        InputStream in = null;
-
-        // load毎にimportのスタックをクリア
+        // load毎にimportのスタックと読み込んだファイルをクリア
         importFileNames.clear();
+        loadedFiles.clear();
+        loadedDirectories.clear();
+        conditionEvaluator = new ConditionEvaluator(container.getExternalizedComponentDefinitionLoader());
+        executor = ParallelFileReader.newExecutor();
 
         try {
             if (!inputFileUrl.contains(":")) {
@@ -153,70 +193,50 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
                 LOGGER.logDebug("load component config file."
                         + " file = " + inputFileUrl);
             }
-            in = FileUtil.getResource(inputFileUrl);
-
-            return loadInner(container, in, inputFileUrl);
+            DefinitionFileLoadEvent event = DefinitionFileLoadEvent.start();
+            List<ComponentDefinition> definitions = loadConfiguration(
+                    container, parse(inputFileUrl, FileUtil.getResourceURL(inputFileUrl)), inputFileUrl);
+            event.finish(inputFileUrl, definitions.size());
+            return definitions;
         } catch (ConfigurationLoadException e) {
             throw new ConfigurationLoadException("file processing failed."
                     + " file = " + inputFileUrl
                     , e);
         } finally {
-            FileUtil.closeQuietly(in);
             importFileNames.clear();
+            // 評価に使用した読み込み結果への参照を、ロードの終了後まで保持しない。
+            conditionEvaluator = null;
+            // 登録済みの読み込みは実行されるので、ここではスレッドの終了だけを予約する。
+            executor.shutdown();
+            executor = null;
         }
 
     }
 
     /**
-     * XMLファイルからコンポーネント定義をロードする。
+     * コンポーネント設定ファイルをパースする。
+     * <p/>
+     * パース結果のキャッシュが有効な場合、ファイルの内容が前回のパース時から変わっていなければ、
+     * 前回のパース結果を返す。
      * 
-     * @param container DIコンテナ
-     * @param in 入力ストリーム
-     * @param inputFileUrl 入力ファイルのURL
-     * @return コンポーネント定義のリスト
+     * @param fileUrl 入力ファイルのURL表現
+     * @param url 入力ファイルのURL(解決できない場合は{@code null})
+     * @return パース結果
      */
-    private List<ComponentDefinition> loadInner(DiContainer container,
-            InputStream in, String inputFileUrl) {
+    private ComponentConfiguration parse(String fileUrl, URL url) {
+        File file = trackFile(url);
+        Map<File, ParsedConfiguration> cache = parseCache;
+        if (cache != null && file != null) {
+            ParsedConfiguration parsed = ParsedConfiguration.parse(file, true, cache.get(file));
+            cache.put(file, parsed);
+            return parsed.getConfiguration();
+        }
+
+        InputStream in = FileUtil.getResource(fileUrl);
         try {
-            List<ComponentDefinition> definitions = new ArrayList<ComponentDefinition>();
-            
             ComponentDefinitionFileParser unmarshaller = new ComponentDefinitionFileParser();
             
-            ComponentConfiguration configuration = unmarshaller.parse(in);
-            
-            List<Object> l = configuration.getImportOrConfigFileOrComponent();
-
-            for (Object o : l) {
-                if (o instanceof Component) {
-                    ComponentDefinition def = createComponentDefinition(
-                            definitions, container, "", (Component) o);
-                    definitions.add(def);
-                } else if (o instanceof Import) {
-                    definitions.addAll(prepareImport(definitions, container,
-                            (Import) o, inputFileUrl));
-                } else if (o instanceof nablarch.core.repository.di.config.xml.schema.List) {
-                    ComponentDefinition def = createListDefinition(definitions,
-                            container,
-                            "", (nablarch.core.repository.di.config.xml.schema.List) o);
-                    definitions.add(def);
-                } else if (o instanceof nablarch.core.repository.di.config.xml.schema.Map) {
-                    ComponentDefinition def = createMapDefinition(definitions,
-                            container,
-                            "", (nablarch.core.repository.di.config.xml.schema.Map) o);
-                    definitions.add(def);
-                } else {
-                    definitions.addAll(prepareConfigFile(container,
-                            (ConfigFile) o));
-                }
-            }
-
-            if (duplicateDefinitionPolicy == DuplicateDefinitionPolicy.OVERRIDE) {
-                definitions = mergeComponentDefinitions(definitions);
-            } else {
-                checkDuplicateName(definitions);
-            }
-
-            return definitions;
+            return unmarshaller.parse(in);
         } catch (SAXException e) {
             throw new ConfigurationLoadException("component definition load failed.", e);
         } catch (ParserConfigurationException e) {
@@ -225,9 +245,115 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
         } catch (IOException e) {
             // 入力ストリームが異常な状態にはなりえないため、この例外は発生しません。
             throw new ConfigurationLoadException("component definition load failed.", e);
+        } finally {
+            FileUtil.closeQuietly(in);
         }
     }
 
+    /**
+     * 読み込んだファイルとして記録する。
+     *
+     * @param url ファイルのURL(解決できない場合は{@code null})
+     * @return ファイル(ファイルシステム上に存在しない場合は{@code null})
+     */
+    private File trackFile(URL url) {
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        File file;
+        try {
+            file = new File(url.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        loadedFiles.add(file);
+        return file;
+    }
+
+    /**
+     * コンポーネント設定ファイルのパース結果のキャッシュを有効にする。
+     * <p/>
+     * 以降のロードでは、内容が変わっていないファイルはパースせずに前回の結果を使用する。
+     */
+    void enableParseCache() {
+        if (parseCache == null) {
+            parseCache = new HashMap<File, ParsedConfiguration>();
+        }
+    }
+
+    /**
+     * 最後のロードで読み込んだファイルを取得する。
+     * <p/>
+     * インポートしたコンポーネント設定ファイルと、環境設定ファイルを含む。
+     * クラスパス上のjarファイル内のリソースなど、ファイルシステム上に存在しないものは含まない。
+     *
+     * @return 読み込んだファイル(読み込み順)
+     */
+    public List<File> getLoadedFiles() {
+        return new ArrayList<File>(loadedFiles);
+    }
+
+    /**
+     * 最後のロードでディレクトリ指定により読み込んだディレクトリを取得する。
+     *
+     * @return ディレクトリ指定により読み込んだディレクトリ
+     */
+    public List<File> getLoadedDirectories() {
+        return new ArrayList<File>(loadedDirectories);
+    }
+
+    /**
+     * パース済みのコンポーネント設定ファイルからコンポーネント定義をロードする。
+     * 
+     * @param container DIコンテナ
+     * @param configuration パース済みのコンポーネント設定
+     * @param inputFileUrl 入力ファイルのURL
+     * @return コンポーネント定義のリスト
+     */
+    private List<ComponentDefinition> loadConfiguration(DiContainer container,
+            ComponentConfiguration configuration, String inputFileUrl) {
+        List<ComponentDefinition> definitions = new ArrayList<ComponentDefinition>();
+
+        List<Object> l = configuration.getImportOrConfigFileOrComponent();
+
+        for (Object o : l) {
+            if (!isEnabled(o)) {
+                continue;
+            }
+            if (o instanceof Component) {
+                ComponentDefinition def = createComponentDefinition(
+                        definitions, container, "", (Component) o);
+                definitions.add(def);
+            } else if (o instanceof Import) {
+                definitions.addAll(prepareImport(definitions, container,
+                        (Import) o, inputFileUrl));
+            } else if (o instanceof nablarch.core.repository.di.config.xml.schema.List) {
+                ComponentDefinition def = createListDefinition(definitions,
+                        container,
+                        "", (nablarch.core.repository.di.config.xml.schema.List) o);
+                definitions.add(def);
+            } else if (o instanceof nablarch.core.repository.di.config.xml.schema.Map) {
+                ComponentDefinition def = createMapDefinition(definitions,
+                        container,
+                        "", (nablarch.core.repository.di.config.xml.schema.Map) o);
+                definitions.add(def);
+            } else {
+                definitions.addAll(prepareConfigFile(container,
+                        (ConfigFile) o));
+            }
+        }
+
+        if (duplicateDefinitionPolicy == DuplicateDefinitionPolicy.OVERRIDE) {
+            definitions = mergeComponentDefinitions(definitions);
+        } else {
+            checkDuplicateName(definitions);
+        }
+
+        return definitions;
+    }
+
 
     /**
      * 重複した設定のマージを行う。
@@ -299,6 +425,7 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
             switch (newRef.getInjectionType()) {
             case ID:
             case REF:
+            case LITERAL:
                 // idか参照設定は上書き
 
                 logWarning("component property was overridden. "
@@ -357,6 +484,10 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
      * <p/>
      * ディレクトリ指定で環境設定ファイルを読み込む場合は、dir属性にディレクトリパスを指定する。<br/>
      * dir属性に設定されたディレクトリパスは、dir属性が記述されているコンポーネント設定ファイルからの相対パスとして解釈する。
+     * <p/>
+     * ディレクトリ指定の場合、各ファイルの読み込みは、ロードごとに共有するスレッドプールでこの時点から並列に開始する。
+     * 読み込み結果はファイル名の昇順に登録されるため、設定値の上書き順序は逐次読み込みの場合と変わらない。
+     * ファイル指定の場合は先読みせず、コンテナが読み込み結果を1件ずつ登録する。
      * @param container DIコンテナ
      * @param configFile 設定ファイルの定義
      * @return インポートした設定ファイルの定義のリスト
@@ -372,20 +503,26 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
                 // スキーマ定義なしの場合、クラスパスから取得
                 propFileUrl = "classpath:" + propFileUrl;
             }
-            ComponentDefinition def = createConfigFileLoaderDefinition(
-                    container, propFileUrl, configFile.getEncoding());
-            values.add(def);
+            trackFile(FileUtil.getResourceURL(propFileUrl));
+            ObjectLoader loader = createConfigFileLoader(propFileUrl, configFile.getEncoding());
+            conditionEvaluator.addConfigLoader(loader);
+            values.add(createConfigFileLoaderDefinition(container, loader, new StoredValueComponentCreator(loader)));
         } else {
             File parentDir = getParentDir(inputFileUrl);
             File[] listFiles = FileUtil.listFiles(new File(parentDir, configFile.getDir()).getAbsolutePath(), configFile.getFile());
             if (listFiles == null) {
                 throwDirectoryNotFoundException(new File(parentDir, configFile.getDir()).getAbsolutePath());
             }
+            loadedDirectories.add(new File(parentDir, configFile.getDir()).getAbsoluteFile());
             for (File listFile : listFiles) {
                 if (listFile.isFile()) {
-                    ComponentDefinition def = createConfigFileLoaderDefinition(
-                            container, listFile.toURI().toString(), configFile.getEncoding());
-                    values.add(def);
+                    loadedFiles.add(listFile.getAbsoluteFile());
+                    ObjectLoader loader = createConfigFileLoader(listFile.toURI().toString(), configFile.getEncoding());
+                    // 読み込みはこの時点で開始し、コンテナには読み込み結果を登録させる。
+                    ParallelFileReader.PreloadedObjectLoader preloaded = ParallelFileReader.preload(executor, loader);
+                    conditionEvaluator.addConfigLoader(preloaded);
+                    values.add(createConfigFileLoaderDefinition(container, loader,
+                            new PreloadedObjectLoaderCreator(loader, preloaded)));
                 }
             }
         }
@@ -411,29 +548,41 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
     }
 
     /**
-     * 設定ファイルローダの定義を作成する。
+     * 設定ファイルローダを作成する。
      * 
-     * @param container コンテナ
      * @param pathname 設定ファイル名
      * @param encoding ファイルの文字エンコーディング
-     * @return 設定ファイルローダの定義
+     * @return 設定ファイルローダ
      */
-    private ComponentDefinition createConfigFileLoaderDefinition(
-            DiContainer container, String pathname, String encoding) {
-        ObjectLoader loader;
+    private ObjectLoader createConfigFileLoader(String pathname, String encoding) {
         if (pathname.endsWith(".properties")) {
-            loader = new PropertiesFileLoader(pathname, encoding);
+            return new PropertiesFileLoader(pathname, encoding);
         } else {
-            loader = new ConfigFileLoader(pathname, encoding);
+            return new ConfigFileLoader(pathname, encoding);
         }
+    }
+
+    /**
+     * 設定ファイルローダの定義を作成する。
+     * <p/>
+     * 先読みする場合も、定義するコンポーネントは元の設定ファイルローダのままとし、定義の型を変えない。
+     * 
+     * @param container コンテナ
+     * @param loader 設定ファイルローダ
+     * @param creator 設定ファイルローダを生成するクラス
+     * @return 設定ファイルローダの定義
+     */
+    private ComponentDefinition createConfigFileLoaderDefinition(
+            DiContainer container, ObjectLoader loader, ComponentCreator creator) {
         int id = container.generateId();
-        ComponentCreator creator = new StoredValueComponentCreator(loader);
         ComponentDefinition def = new ComponentDefinition(id, null, creator, loader.getClass());
         return def;
     }
 
     /**
      * インポートの定義を処理する。
+     * <p/>
+     * dir属性が指定された場合、ディレクトリ内のファイルは並列にパースし、ファイル名の昇順にコンポーネント定義を作成する。
      * 
      * @param definitions コンポーネント定義のリスト
      * @param container コンテナ
@@ -451,7 +600,6 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
                 // スキーマ定義なしの場合、クラスパスから取得
                 fileUrl = "classpath:" + fileUrl;
             }
-            InputStream in = null;
             URL url = FileUtil.getResourceURL(fileUrl);
             if (url == null) {
                 throw new ConfigurationLoadException(
@@ -467,10 +615,12 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
                     LOGGER.logDebug("load component config file."
                             + " file = " + fileUrl);
                 }
-                in = FileUtil.getResource(fileUrl);
-                return loadInner(container, in, "file:" + inputFileUrl);
+                DefinitionFileLoadEvent event = DefinitionFileLoadEvent.start();
+                List<ComponentDefinition> imported = loadConfiguration(
+                        container, parse(fileUrl, url), "file:" + inputFileUrl);
+                event.finish(fileUrl, imported.size());
+                return imported;
             } finally {
-                FileUtil.closeQuietly(in);
                 importFileNames.pop();
             }
             
@@ -481,21 +631,32 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
             if (listFiles == null) {
                 throwDirectoryNotFoundException(new File(parentDir, dir).getAbsolutePath());
             }
+            loadedDirectories.add(new File(parentDir, dir).getAbsoluteFile());
+            List<File> files = new ArrayList<File>();
             for (File f : listFiles) {
                 if (f.isFile()) {
-                    InputStream in = null;
-                    try {
-                        in = new FileInputStream(f);
-                        defs.addAll(loadInner(container, in, "file:" + f.getPath()));
-                    } catch (FileNotFoundException e) {
-                        // listFiles 実行後なので、通常到達不能コードです。
-                        throw new ConfigurationLoadException("configuration load failed.", e);
-                    } finally {
-                        if (in != null) {
-                            FileUtil.closeQuietly(in);
-                        }
-                    }
+                    files.add(f);
+                    loadedFiles.add(f.getAbsoluteFile());
+                }
+            }
+            // パースは並列に行い、コンポーネント定義の作成はファイル名の昇順に行う。
+            // パース結果をキャッシュしている場合、内容が変わっていないファイルはパースしない。
+            Map<File, ParsedConfiguration> cache = parseCache;
+            List<ParsedConfiguration> previous = new ArrayList<ParsedConfiguration>(files.size());
+            for (File f : files) {
+                previous.add(cache != null ? cache.get(f.getAbsoluteFile()) : null);
+            }
+            List<Future<ParsedConfiguration>> futures = ParallelFileReader.parse(executor, files, cache != null, previous);
+            for (int i = 0; i < files.size(); i++) {
+                DefinitionFileLoadEvent event = DefinitionFileLoadEvent.start();
+                ParsedConfiguration parsed = ParallelFileReader.await(futures.get(i));
+                if (cache != null) {
+                    cache.put(files.get(i).getAbsoluteFile(), parsed);
                 }
+                List<ComponentDefinition> imported = loadConfiguration(
+                        container, parsed.getConfiguration(), "file:" + files.get(i).getPath());
+                event.finish("file:" + files.get(i).getPath(), imported.size());
+                defs.addAll(imported);
             }
             return defs;
         }
@@ -525,36 +686,39 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
                     e);
         }
         Set<String> propertyNames = new HashSet<String>();
-        String componentFullName = generateComponentFullname(prefix, component.getName());
+        StringPool pool = container.getStringPool();
+        String componentFullName = generateComponentFullname(container, prefix, component.getName());
         
         ComponentDefinition def = new ComponentDefinition(container
                 .generateId(), componentFullName, creator, componentClass);
         for (Property prop : component.getProperty()) {
+            String propertyName = pool.deduplicate(prop.getName());
+            if (!isEnabled(prop.getComponent()) || !isEnabled(prop.getList()) || !isEnabled(prop.getMap())) {
+                // 条件が偽の場合はプロパティを設定しない(自動インジェクションの対象にもしない)
+                propertyNames.add(propertyName);
+                continue;
+            }
             if (prop.getValue() != null) {
-                // literalのコンポーネントを登録
-                ComponentDefinition valueComponent = createLiteralComponentDefinition(
-                        container, prop.getValue(), componentClass, prop.getName());
-                definitions.add(valueComponent);
-                ComponentReference ref = new ComponentReference(prop.getName(),
-                        null, null, InjectionType.ID, valueComponent.getId());
-                def.addReference(ref);
+                // literalはコンポーネントとして登録せず、参照に保持する
+                def.addReference(createLiteralReference(
+                        container, prop.getValue(), componentClass, propertyName));
             } else if (prop.getComponent() != null) {
                 String childPrefix = componentFullName;
                 ComponentDefinition propComponent = createComponentDefinition(
                         definitions, container, childPrefix, prop.getComponent());
                 definitions.add(propComponent);
-                ComponentReference ref = new ComponentReference(prop.getName(),
+                ComponentReference ref = new ComponentReference(propertyName,
                         null, propComponent.getType(), InjectionType.ID,
                         propComponent.getId());
                 def.addReference(ref);
             } else if (prop.getRef() != null) {
-                ComponentReference ref = new ComponentReference(prop.getName(),
-                        prop.getRef(), null, InjectionType.REF, -1);
+                ComponentReference ref = new ComponentReference(propertyName,
+                        pool.deduplicate(prop.getRef()), null, InjectionType.REF, -1);
                 def.addReference(ref);
             } else if (prop.getMap() != null) {
                 ComponentDefinition mapComponent = createMapDefinition(
                         definitions, container, prefix, prop.getMap());
-                ComponentReference ref = new ComponentReference(prop.getName(),
+                ComponentReference ref = new ComponentReference(propertyName,
                         null, mapComponent.getType(), InjectionType.ID,
                         mapComponent.getId());
                 def.addReference(ref);
@@ -562,7 +726,7 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
             } else if (prop.getList() != null) {
                 ComponentDefinition listComponent = createListDefinition(
                         definitions, container, prefix, prop.getList());
-                ComponentReference ref = new ComponentReference(prop.getName(),
+                ComponentReference ref = new ComponentReference(propertyName,
                         null, listComponent.getType(), InjectionType.ID,
                         listComponent.getId());
                 def.addReference(ref);
@@ -573,14 +737,14 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
                         + "propertyName = " + prop.getName());
             }
 
-            propertyNames.add(prop.getName());
+            propertyNames.add(propertyName);
         }
 
         for (String propertyName : ObjectUtil.getWritablePropertyNames(componentClass)) {
             if (!propertyNames.contains(propertyName)) {
                 Method method = ObjectUtil.getSetterMethod(componentClass, propertyName);
                 // 設定が書かれていないsetterはオートワイヤ対象
-                setAutowireInjection(component, def, method, propertyName);
+                setAutowireInjection(component, def, method, pool.deduplicate(propertyName));
             }
         }
         
@@ -589,12 +753,15 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
 
     /**
      * コンポーネントのフルネームを作成する。
+     * <p/>
+     * 作成したフルネームは、コンテナの文字列プールで集約してから返す。
      * 
+     * @param container コンテナ
      * @param prefix プレフィクス
      * @param componentName コンポーネント名
      * @return コンポーネントのフルネーム
      */
-    private String generateComponentFullname(String prefix, String componentName) {
+    private String generateComponentFullname(DiContainer container, String prefix, String componentName) {
         String componentFullName;
         if (prefix == null || componentName == null) {
             componentFullName = null; 
@@ -603,7 +770,7 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
         } else {
             componentFullName = prefix + "." + componentName;
         }
-        return componentFullName;
+        return container.getStringPool().deduplicate(componentFullName);
     }
 
     /**
@@ -618,11 +785,15 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
             List<ComponentDefinition> definitions, DiContainer container,
             String prefix, nablarch.core.repository.di.config.xml.schema.List list) {
 
-        String componentFullName = generateComponentFullname(prefix, list.getName());
+        StringPool pool = container.getStringPool();
+        String componentFullName = generateComponentFullname(container, prefix, list.getName());
         String childPrefix = componentFullName;
         List<ListElementDefinition> elementIds = new ArrayList<ListElementDefinition>();
         
         for (Object obj : list.getComponentOrValueOrComponentRef()) {
+            if (!isEnabled(obj)) {
+                continue;
+            }
             if (obj instanceof Component) {
                 Component comp = (Component) obj;
                 ComponentDefinition elementDef = createComponentDefinition(definitions, container, childPrefix, comp);
@@ -630,9 +801,9 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
                 elementIds.add(new ListElementDefinition(elementDef.getId(), null));
             } else if (obj instanceof ComponentRef) {
                 ComponentRef ref = (ComponentRef) obj;
-                elementIds.add(new ListElementDefinition(null, ref.getName()));
+                elementIds.add(new ListElementDefinition(null, pool.deduplicate(ref.getName())));
             } else if (obj instanceof String) {
-                LiteralComponentCreator creator = new LiteralComponentCreator(String.class, (String) obj);
+                LiteralComponentCreator creator = new LiteralComponentCreator(String.class, pool.deduplicate((String) obj));
                 ComponentDefinition elementDef = new ComponentDefinition(container.generateId(), null, creator, String.class);
                 definitions.add(elementDef);
                 elementIds.add(new ListElementDefinition(elementDef.getId(), null));
@@ -661,16 +832,20 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
             DiContainer container, String prefix, nablarch.core.repository.di.config.xml.schema.Map map) {
         List<MapEntryDefinition> entries = new ArrayList<MapEntryDefinition>();
 
-        String componentFullName = generateComponentFullname(prefix, map.getName());
+        StringPool pool = container.getStringPool();
+        String componentFullName = generateComponentFullname(container, prefix, map.getName());
         
         for (Entry entry : map.getEntry()) {
+            if (!isEnabled(entry.getKeyComponent()) || !isEnabled(entry.getValueComponent())) {
+                continue;
+            }
             MapEntryDefinition entryDef = new MapEntryDefinition();
             if (entry.getKey() != null) {
                 entryDef.setKeyType(DataType.STRING);
-                entryDef.setKey(entry.getKey());
+                entryDef.setKey(pool.deduplicate(entry.getKey()));
             } else if (entry.getKeyName() != null) {
                 entryDef.setKeyType(DataType.REF);
-                entryDef.setKeyRef(entry.getKeyName());
+                entryDef.setKeyRef(pool.deduplicate(entry.getKeyName()));
             } else if (entry.getKeyComponent() != null) {
                 entryDef.setKeyType(DataType.COMPONENT);
                 ComponentDefinition compDef = createComponentDefinition(definitions, container, componentFullName, entry.getKeyComponent());
@@ -682,10 +857,10 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
 
             if (entry.getValue() != null) {
                 entryDef.setValueType(DataType.STRING);
-                entryDef.setValue(entry.getValue());
+                entryDef.setValue(pool.deduplicate(entry.getValue()));
             } else if (entry.getValueName() != null) {
                 entryDef.setValueType(DataType.REF);
-                entryDef.setValueRef(entry.getValueName());
+                entryDef.setValueRef(pool.deduplicate(entry.getValueName()));
             } else if (entry.getValueComponent() != null) {
                 entryDef.setValueType(DataType.COMPONENT);
                 ComponentDefinition compDef = createComponentDefinition(definitions, container, componentFullName, entry.getValueComponent());
@@ -739,15 +914,18 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
     }
 
     /**
-     * リテラルで記述されたオブジェクトの定義を作成する。
+     * リテラルで記述された値をインジェクションする参照を作成する。
+     * <p/>
+     * 値はコンポーネント定義として登録せず、参照が保持する。
+     * 値の変換と埋め込み文字列(${...})の解決は、これまでと同じくインジェクション時に行う。
      * 
      * @param container コンテナ
      * @param literal 値のリテラル表現
      * @param componentClass インジェクト対象のコンポーネントのClass
      * @param propertyName プロパティ名
-     * @return リテラルで記述されたオブジェクトの定義
+     * @return リテラルで記述された値をインジェクションする参照
      */
-    private ComponentDefinition createLiteralComponentDefinition(
+    private ComponentReference createLiteralReference(
             DiContainer container, String literal, Class<?> componentClass, String propertyName) {
         Class<?> propertyType = ObjectUtil.getPropertyType(
                 componentClass, propertyName);
@@ -758,10 +936,50 @@ public class XmlComponentDefinitionLoader implements ComponentDefinitionLoader {
         }
 
         LiteralComponentCreator creator = new LiteralComponentCreator(propertyType,
-                literal);
-        ComponentDefinition def = new ComponentDefinition(container
-                .generateId(), null, creator, propertyType);
-        return def;
+                container.getStringPool().deduplicate(literal));
+        return new ComponentReference(propertyName, propertyType, creator);
+    }
+
+    /**
+     * 要素の{@code condition}属性を評価する。
+     * <p/>
+     * 条件が偽の場合は、要素を読み込まないことをデバッグログに出力する。
+     *
+     * @param element コンポーネント設定ファイルの要素({@code null}の場合と、条件を持たない要素の場合は常に有効)
+     * @return 要素が有効な場合は{@code true}
+     */
+    private boolean isEnabled(Object element) {
+        String condition;
+        String description;
+        if (element instanceof Component) {
+            Component component = (Component) element;
+            condition = component.getCondition();
+            description = "component name = " + component.getName() + ", class = " + component.getClazz();
+        } else if (element instanceof nablarch.core.repository.di.config.xml.schema.List) {
+            nablarch.core.repository.di.config.xml.schema.List list
+                    = (nablarch.core.repository.di.config.xml.schema.List) element;
+            condition = list.getCondition();
+            description = "list name = " + list.getName();
+        } else if (element instanceof nablarch.core.repository.di.config.xml.schema.Map) {
+            nablarch.core.repository.di.config.xml.schema.Map map
+                    = (nablarch.core.repository.di.config.xml.schema.Map) element;
+            condition = map.getCondition();
+            description = "map name = " + map.getName();
+        } else if (element instanceof Import) {
+            Import importDef = (Import) element;
+            condition = importDef.getCondition();
+            description = "import file = " + importDef.getFile() + ", dir = " + importDef.getDir();
+        } else {
+            return true;
+        }
+        if (conditionEvaluator.evaluate(condition)) {
+            return true;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.logDebug("definition was skipped because the condition was false."
+                    + " condition = [" + condition + "], " + description);
+        }
+        return false;
     }
 
     /**
@@ -29,6 +29,7 @@ import java.util.List;
  *       &lt;attribute name="name" type="{http://www.w3.org/2001/XMLSchema}string" />
  *       &lt;attribute name="class" use="required" type="{http://www.w3.org/2001/XMLSchema}string" />
  *       &lt;attribute name="autowireType" type="{http://tis.co.jp/nablarch/component-configuration}AutowireType" default="ByType" />
+ *       &lt;attribute name="condition" type="{http://www.w3.org/2001/XMLSchema}string" />
  *     &lt;/restriction>
  *   &lt;/complexContent>
  * &lt;/complexType>
@@ -42,6 +43,7 @@ public class Component {
     protected String name;
     protected String clazz;
     protected AutowireType autowireType;
+    protected String condition;
 
     /**
      * Gets the value of the property property.
@@ -148,4 +150,28 @@ public class Component {
         this.autowireType = value;
     }
 
+    /**
+     * Gets the value of the condition property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link String }
+     *     
+     */
+    public String getCondition() {
+        return condition;
+    }
+
+    /**
+     * Sets the value of the condition property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *     
+     */
+    public void setCondition(String value) {
+        this.condition = value;
+    }
+
 }
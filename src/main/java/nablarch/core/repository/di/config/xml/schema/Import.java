@@ -23,6 +23,7 @@ package nablarch.core.repository.di.config.xml.schema;
  *     &lt;restriction base="{http://www.w3.org/2001/XMLSchema}anyType">
  *       &lt;attribute name="file" use="required" type="{http://www.w3.org/2001/XMLSchema}string" />
  *       &lt;attribute name="dir" type="{http://www.w3.org/2001/XMLSchema}string" />
+ *       &lt;attribute name="condition" type="{http://www.w3.org/2001/XMLSchema}string" />
  *     &lt;/restriction>
  *   &lt;/complexContent>
  * &lt;/complexType>
@@ -34,6 +35,7 @@ public class Import {
 
     protected String file;
     protected String dir;
+    protected String condition;
 
     /**
      * Gets the value of the file property.
@@ -83,4 +85,28 @@ public class Import {
         this.dir = value;
     }
 
+    /**
+     * Gets the value of the condition property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link String }
+     *     
+     */
+    public String getCondition() {
+        return condition;
+    }
+
+    /**
+     * Sets the value of the condition property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *     
+     */
+    public void setCondition(String value) {
+        this.condition = value;
+    }
+
 }
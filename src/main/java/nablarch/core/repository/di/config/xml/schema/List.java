@@ -28,6 +28,7 @@ import java.util.ArrayList;
  *         &lt;element name="component-ref" type="{http://tis.co.jp/nablarch/component-configuration}ComponentRef" maxOccurs="unbounded" minOccurs="0"/>
  *       &lt;/choice>
  *       &lt;attribute name="name" type="{http://www.w3.org/2001/XMLSchema}string" />
+ *       &lt;attribute name="condition" type="{http://www.w3.org/2001/XMLSchema}string" />
  *     &lt;/restriction>
  *   &lt;/complexContent>
  * &lt;/complexType>
@@ -39,6 +40,7 @@ public class List {
 
     protected java.util.List<Object> componentOrValueOrComponentRef;
     protected String name;
+    protected String condition;
 
     /**
      * Gets the value of the componentOrValueOrComponentRef property.
@@ -95,4 +97,28 @@ public class List {
         this.name = value;
     }
 
+    /**
+     * Gets the value of the condition property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link String }
+     *     
+     */
+    public String getCondition() {
+        return condition;
+    }
+
+    /**
+     * Sets the value of the condition property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *     
+     */
+    public void setCondition(String value) {
+        this.condition = value;
+    }
+
 }
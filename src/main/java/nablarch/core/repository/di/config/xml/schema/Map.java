@@ -27,6 +27,7 @@ import java.util.List;
  *         &lt;element name="entry" type="{http://tis.co.jp/nablarch/component-configuration}Entry" maxOccurs="unbounded" minOccurs="0"/>
  *       &lt;/sequence>
  *       &lt;attribute name="name" type="{http://www.w3.org/2001/XMLSchema}string" />
+ *       &lt;attribute name="condition" type="{http://www.w3.org/2001/XMLSchema}string" />
  *     &lt;/restriction>
  *   &lt;/complexContent>
  * &lt;/complexType>
@@ -38,6 +39,7 @@ public class Map {
 
     protected List<Entry> entry;
     protected String name;
+    protected String condition;
 
     /**
      * Gets the value of the entry property.
@@ -92,4 +94,28 @@ public class Map {
         this.name = value;
     }
 
+    /**
+     * Gets the value of the condition property.
+     * 
+     * @return
+     *     possible object is
+     *     {@link String }
+     *     
+     */
+    public String getCondition() {
+        return condition;
+    }
+
+    /**
+     * Sets the value of the condition property.
+     * 
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *     
+     */
+    public void setCondition(String value) {
+        this.condition = value;
+    }
+
 }
@@ -0,0 +1,93 @@
+package nablarch.core.repository.di.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import nablarch.core.util.annotation.Published;
+
+/**
+ * 閾値より時間のかかったコンポーネントの取得ごとに記録するイベント。
+ * <p/>
+ * 閾値のデフォルトは10ミリ秒。JFRの設定({@literal "nablarch.diContainer.ComponentLookup#threshold"})で変更できる。
+ * 取得時にコンポーネントの生成やインジェクションが行われた場合は、その時間を含む。
+ * <p/>
+ * コンポーネントの取得は頻繁に行われるため、呼び出し元は{@link #isLookupEnabled()}で記録が有効な場合にのみイベントを生成すること。
+ * 記録内容の文字列は、記録が確定した場合にのみ作成する。
+ */
+@Name(ComponentLookupEvent.NAME)
+@Label("DI Container Component Lookup")
+@Description("Slow lookup of a component from DiContainer")
+@Category({"Nablarch", "DI Container"})
+@Threshold("10 ms")
+@Published(tag = "architect")
+public final class ComponentLookupEvent extends Event {
+
+    /** イベント名 */
+    public static final String NAME = "nablarch.diContainer.ComponentLookup";
+
+    /** このイベントのイベント型 */
+    private static final EventType EVENT_TYPE = EventType.getEventType(ComponentLookupEvent.class);
+
+    /** 取得方法({@literal "name"}、{@literal "type"}、{@literal "id"}のいずれか) */
+    @Label("Lookup By")
+    private String lookupBy;
+
+    /** 取得に使用したキー(コンポーネント名、型名、コンポーネントID) */
+    @Label("Key")
+    private String key;
+
+    /** 取得したコンポーネントの名前 */
+    @Label("Component Name")
+    private String componentName;
+
+    /** 取得したコンポーネントのクラス */
+    @Label("Component Class")
+    private Class<?> componentClass;
+
+    /**
+     * このイベントの記録が有効かどうかを判定する。
+     * <p/>
+     * JFRでこのイベントを有効にした記録が実行されていない場合は{@code false}を返す。
+     *
+     * @return 記録が有効な場合は{@code true}
+     */
+    public static boolean isLookupEnabled() {
+        return EVENT_TYPE.isEnabled();
+    }
+
+    /**
+     * 取得の開始を記録したイベントを生成する。
+     *
+     * @return イベント
+     */
+    public static ComponentLookupEvent start() {
+        ComponentLookupEvent event = new ComponentLookupEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 取得の終了を記録する。
+     * <p/>
+     * JFRでイベントの記録が有効でない場合や、所要時間が閾値未満の場合は何もしない。
+     * キーは記録する場合にのみ文字列に変換する(型の場合はクラス名とする)。
+     *
+     * @param lookupBy 取得方法
+     * @param key 取得に使用したキー(コンポーネント名、型、コンポーネントID)
+     * @param componentName 取得したコンポーネントの名前
+     * @param componentClass 取得したコンポーネントのクラス
+     */
+    public void finish(String lookupBy, Object key, String componentName, Class<?> componentClass) {
+        if (shouldCommit()) {
+            this.lookupBy = lookupBy;
+            this.key = key instanceof Class<?> ? ((Class<?>) key).getName() : String.valueOf(key);
+            this.componentName = componentName;
+            this.componentClass = componentClass;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package nablarch.core.repository.di.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import nablarch.core.util.annotation.Published;
+
+/**
+ * コンポーネント設定ファイルの読み込みごとに記録するイベント。
+ * <p/>
+ * インポートしたファイルの読み込みは、インポート元のファイルの読み込みの中で記録される。
+ */
+@Name(DefinitionFileLoadEvent.NAME)
+@Label("DI Container Definition File Load")
+@Description("Loading of a component definition file")
+@Category({"Nablarch", "DI Container"})
+@StackTrace(false)
+@Published(tag = "architect")
+public final class DefinitionFileLoadEvent extends Event {
+
+    /** イベント名 */
+    public static final String NAME = "nablarch.diContainer.DefinitionFileLoad";
+
+    /** ファイルのURL */
+    @Label("File")
+    private String file;
+
+    /** 読み込んだコンポーネント定義の数(インポートしたファイルの定義を含む) */
+    @Label("Definition Count")
+    private int definitionCount;
+
+    /**
+     * 読み込みの開始を記録したイベントを生成する。
+     *
+     * @return イベント
+     */
+    public static DefinitionFileLoadEvent start() {
+        DefinitionFileLoadEvent event = new DefinitionFileLoadEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 読み込みの終了を記録する。
+     * <p/>
+     * JFRでイベントの記録が有効でない場合は何もしない。
+     *
+     * @param file ファイルのURL
+     * @param definitionCount 読み込んだコンポーネント定義の数
+     */
+    public void finish(String file, int definitionCount) {
+        if (shouldCommit()) {
+            this.file = file;
+            this.definitionCount = definitionCount;
+            commit();
+        }
+    }
+}
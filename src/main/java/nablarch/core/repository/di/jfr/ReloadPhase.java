@@ -0,0 +1,31 @@
+package nablarch.core.repository.di.jfr;
+
+import nablarch.core.util.annotation.Published;
+
+/**
+ * {@link nablarch.core.repository.di.DiContainer#reload()}の処理段階を表す列挙型。
+ */
+@Published(tag = "architect")
+public enum ReloadPhase {
+
+    /** コンポーネント定義の読み込み */
+    LOAD_DEFINITIONS,
+
+    /** コンポーネント定義の登録 */
+    REGISTER_DEFINITIONS,
+
+    /** ObjectLoaderの生成とObjectLoaderがロードしたコンポーネントの登録 */
+    LOAD_OBJECT_LOADERS,
+
+    /** 外部化されたコンポーネント定義による上書き */
+    OVERRIDE_EXTERNALIZED,
+
+    /** コンポーネントの生成 */
+    CREATE_COMPONENTS,
+
+    /** コンポーネントに対するインジェクション */
+    INJECT_COMPONENTS,
+
+    /** 初期化対象クラスの初期化 */
+    INITIALIZE
+}
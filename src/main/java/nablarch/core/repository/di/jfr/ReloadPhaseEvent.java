@@ -0,0 +1,59 @@
+package nablarch.core.repository.di.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import nablarch.core.util.annotation.Published;
+
+/**
+ * {@link nablarch.core.repository.di.DiContainer#reload()}の処理段階ごとに記録するイベント。
+ */
+@Name(ReloadPhaseEvent.NAME)
+@Label("DI Container Reload Phase")
+@Description("Phase of DiContainer reload")
+@Category({"Nablarch", "DI Container"})
+@StackTrace(false)
+@Published(tag = "architect")
+public final class ReloadPhaseEvent extends Event {
+
+    /** イベント名 */
+    public static final String NAME = "nablarch.diContainer.ReloadPhase";
+
+    /** 処理段階 */
+    @Label("Phase")
+    private String phase;
+
+    /** 処理段階の終了時点でコンテナが保持するコンポーネント定義の数 */
+    @Label("Component Count")
+    private int componentCount;
+
+    /**
+     * 処理段階の開始を記録したイベントを生成する。
+     *
+     * @return イベント
+     */
+    public static ReloadPhaseEvent start() {
+        ReloadPhaseEvent event = new ReloadPhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 処理段階の終了を記録する。
+     * <p/>
+     * JFRでイベントの記録が有効でない場合は何もしない。
+     *
+     * @param phase 処理段階
+     * @param componentCount 処理段階の終了時点でコンテナが保持するコンポーネント定義の数
+     */
+    public void finish(ReloadPhase phase, int componentCount) {
+        if (shouldCommit()) {
+            this.phase = phase.name();
+            this.componentCount = componentCount;
+            commit();
+        }
+    }
+}
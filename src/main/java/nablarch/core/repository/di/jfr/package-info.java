@@ -0,0 +1,4 @@
+/**
+ * DIコンテナの処理をJava Flight Recorder(JFR)のイベントとして記録する機能を提供する。
+ */
+package nablarch.core.repository.di.jfr;
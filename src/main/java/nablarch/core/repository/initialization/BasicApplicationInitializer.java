@@ -1,6 +1,10 @@
 package nablarch.core.repository.initialization;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 /**
  * {@link Initializable}を実装したコンポーネントを指定した順序で初期化するクラス。<br>
@@ -22,10 +26,28 @@ public class BasicApplicationInitializer implements ApplicationInitializer {
      * <b>本メソッドは、同期化を行わない。</b>
      */
     public void initialize() {
+        initializeExcluding(Collections.emptySet());
+    }
+
+    /**
+     * 指定されたオブジェクトを除いて初期化処理を行う。<br>
+     * <br>
+     * 除外対象は同一性(==)で判定する。
+     * 差分の再読み込みで、前回の読み込みから引き継いだ初期化済みのオブジェクトを除くために使用する。<br>
+     * 除外対象以外の動作は{@link #initialize()}と同じ。
+     *
+     * @param excludes 初期化しないオブジェクト
+     */
+    public void initializeExcluding(Collection<?> excludes) {
         if (initializeList == null) {
             return;
         }
+        Set<Object> excludeSet = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        excludeSet.addAll(excludes);
         for (Object initializeObject : initializeList) {
+            if (excludeSet.contains(initializeObject)) {
+                continue;
+            }
             if (!(initializeObject instanceof Initializable)) {
                 throw new RuntimeException(
                         "not initializable class." 
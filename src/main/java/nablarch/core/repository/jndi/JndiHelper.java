@@ -1,7 +1,11 @@
 package nablarch.core.repository.jndi;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
@@ -25,6 +29,18 @@ import nablarch.core.util.annotation.Published;
  * </component>
  * }
  * </pre>
+ * <p/>
+ * 実行時に繰り返しルックアップを行う場合は、以下の設定でルックアップのコストを削減できる。
+ * いずれもデフォルトでは無効である。
+ * <ul>
+ *   <li>{@link #setReuseContext(boolean)}: {@link InitialContext}をプールして再利用する。</li>
+ *   <li>{@link #setCacheTtlMillis(long)}: ルックアップの結果をリソース名ごとにキャッシュする。
+ *   キャッシュの上限数({@link #setCacheMaxSize(int)})を超えた場合は、最も長く参照されていない結果から破棄する。
+ *   キャッシュした結果は{@link #invalidate(String)}、{@link #invalidateAll()}で明示的に破棄できる。</li>
+ * </ul>
+ * {@link InitialContext}はスレッドセーフではないため、再利用する場合も同時に1スレッドからのみ使用する。
+ * なお、WebLogicのように{@link InitialContext}にセキュリティ情報が関連付けられる製品では、
+ * 異なる資格情報で生成したコンテキストを共有しないよう、資格情報ごとに別のインスタンスを使用すること。
  *
  * @author T.Kawasaki
  */
@@ -37,6 +53,21 @@ public class JndiHelper {
     /** JNDIリソース名 */
     private String jndiResourceName;
 
+    /** {@link InitialContext}を再利用するか否か */
+    private boolean reuseContext;
+
+    /** ルックアップ結果のキャッシュの有効期間(ミリ秒)。0以下の場合はキャッシュしない。 */
+    private long cacheTtlMillis;
+
+    /** ルックアップ結果のキャッシュの上限数 */
+    private int cacheMaxSize = 100;
+
+    /** 再利用する{@link InitialContext}のプール */
+    private final Queue<InitialContext> contextPool = new ConcurrentLinkedQueue<InitialContext>();
+
+    /** ルックアップ結果のキャッシュ(参照順) */
+    private final LinkedHashMap<String, CacheEntry> cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true);
+
     /**
      * JNDIルックアップを行う。<br/>
      * JNDI名は、{@link #setJndiResourceName(String)}で設定されたリソース名が使用される。
@@ -58,16 +89,146 @@ public class JndiHelper {
      */
     @SuppressWarnings("unchecked")
     public <T> T lookUp(String jndiResourceName) {
+        if (cacheTtlMillis > 0) {
+            Object cached = getCached(jndiResourceName);
+            if (cached != null) {
+                return (T) cached;
+            }
+        }
         T result = null;
         try {
-            InitialContext context = createContext();
-            result = (T) context.lookup(jndiResourceName);
+            result = (T) doLookUp(jndiResourceName);
         } catch (NamingException e) {
             handleNamingException(jndiResourceName, e);
         }
+        if (cacheTtlMillis > 0 && result != null) {
+            putCache(jndiResourceName, result);
+        }
         return result;
     }
 
+    /**
+     * コンテキストを取得してルックアップを行う。
+     * <p/>
+     * コンテキストを再利用しない場合は、ルックアップ後にコンテキストを閉じる。
+     * 再利用する場合は、ルックアップに成功したコンテキストのみをプールに戻す。
+     *
+     * @param resourceName JNDIリソース名
+     * @return ルックアップして得られたオブジェクト
+     * @throws NamingException ルックアップに失敗した場合
+     */
+    private Object doLookUp(String resourceName) throws NamingException {
+        InitialContext context = reuseContext ? contextPool.poll() : null;
+        if (context == null) {
+            context = createContext();
+        }
+        boolean succeeded = false;
+        try {
+            Object result = context.lookup(resourceName);
+            succeeded = true;
+            return result;
+        } finally {
+            if (reuseContext && succeeded) {
+                contextPool.offer(context);
+            } else {
+                closeQuietly(context);
+            }
+        }
+    }
+
+    /**
+     * キャッシュからルックアップ結果を取得する。
+     *
+     * @param resourceName JNDIリソース名
+     * @return キャッシュしたルックアップ結果(存在しないか、有効期間を過ぎた場合は{@code null})
+     */
+    private Object getCached(String resourceName) {
+        synchronized (cache) {
+            CacheEntry entry = cache.get(resourceName);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt - currentTimeMillis() <= 0) {
+                cache.remove(resourceName);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * ルックアップ結果をキャッシュする。
+     * <p/>
+     * 上限数を超えた場合は、最も長く参照されていない結果から破棄する。
+     *
+     * @param resourceName JNDIリソース名
+     * @param value ルックアップ結果
+     */
+    private void putCache(String resourceName, Object value) {
+        synchronized (cache) {
+            cache.put(resourceName, new CacheEntry(value, currentTimeMillis() + cacheTtlMillis));
+            Iterator<CacheEntry> eldest = cache.values().iterator();
+            while (cache.size() > cacheMaxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * 指定したリソース名のルックアップ結果をキャッシュから破棄する。
+     * <p/>
+     * 接続先のリソースが再デプロイされた場合などに使用する。
+     *
+     * @param resourceName JNDIリソース名
+     */
+    public void invalidate(String resourceName) {
+        synchronized (cache) {
+            cache.remove(resourceName);
+        }
+    }
+
+    /**
+     * すべてのルックアップ結果をキャッシュから破棄する。
+     */
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * プールしているコンテキストをすべて閉じる。
+     */
+    private void closePooledContexts() {
+        InitialContext context;
+        while ((context = contextPool.poll()) != null) {
+            closeQuietly(context);
+        }
+    }
+
+    /**
+     * コンテキストを閉じる。閉じる際に発生した例外は無視する。
+     *
+     * @param context コンテキスト
+     */
+    private static void closeQuietly(InitialContext context) {
+        try {
+            context.close();
+        } catch (NamingException ignored) {
+            // 閉じる際の例外はルックアップ結果に影響しないため無視する。
+        }
+    }
+
+    /**
+     * 現在時刻(ミリ秒)を取得する。
+     *
+     * @return 現在時刻
+     */
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
     /**
      * {@link InitialContext}を生成する。<br/>
      * プロパティjndiPropertiesが設定されている場合はその設定で、
@@ -110,6 +271,48 @@ public class JndiHelper {
     public void setJndiProperties(Map<String, String> jndiProperties) {
         this.jndiProperties = new Properties();
         this.jndiProperties.putAll(jndiProperties);
+        // 接続先が変わるため、以前の設定で生成したコンテキストとルックアップ結果は破棄する。
+        closePooledContexts();
+        invalidateAll();
+    }
+
+    /**
+     * {@link InitialContext}を再利用するか否かを設定する。
+     * <p/>
+     * {@code true}を設定した場合、ルックアップに使用したコンテキストをプールし、以降のルックアップで再利用する。
+     * ルックアップに失敗したコンテキストは再利用せずに閉じる。
+     * デフォルトは{@code false}(ルックアップごとにコンテキストを生成し、ルックアップ後に閉じる)。
+     *
+     * @param reuseContext コンテキストを再利用する場合は{@code true}
+     */
+    public void setReuseContext(boolean reuseContext) {
+        this.reuseContext = reuseContext;
+        if (!reuseContext) {
+            closePooledContexts();
+        }
+    }
+
+    /**
+     * ルックアップ結果のキャッシュの有効期間(ミリ秒)を設定する。
+     * <p/>
+     * 0以下を設定した場合はキャッシュしない。デフォルトは0。
+     *
+     * @param cacheTtlMillis キャッシュの有効期間(ミリ秒)
+     */
+    public void setCacheTtlMillis(long cacheTtlMillis) {
+        this.cacheTtlMillis = cacheTtlMillis;
+        invalidateAll();
+    }
+
+    /**
+     * ルックアップ結果のキャッシュの上限数を設定する。
+     * <p/>
+     * デフォルトは100。
+     *
+     * @param cacheMaxSize キャッシュの上限数
+     */
+    public void setCacheMaxSize(int cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize;
     }
 
     /**
@@ -121,4 +324,27 @@ public class JndiHelper {
     public void setJndiResourceName(String jndiResourceName) {
         this.jndiResourceName = jndiResourceName;
     }
+
+    /**
+     * キャッシュしたルックアップ結果。
+     */
+    private static final class CacheEntry {
+
+        /** ルックアップ結果 */
+        private final Object value;
+
+        /** 有効期限(ミリ秒) */
+        private final long expiresAt;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param value ルックアップ結果
+         * @param expiresAt 有効期限(ミリ秒)
+         */
+        private CacheEntry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
@@ -0,0 +1,171 @@
+package nablarch.core.repository.jndi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.core.repository.ObjectLoader;
+import nablarch.core.util.annotation.Published;
+
+/**
+ * 複数のJNDIリソースを並行してルックアップし、コンポーネントとして登録する{@link ObjectLoader}。
+ * <p/>
+ * DIコンテナは{@link ObjectLoader}を他のコンポーネントより先に生成するため、
+ * ルックアップ結果は、コンポーネント設定ファイルの{@code ref}属性などで他のコンポーネントから参照できる。
+ * ルックアップは{@link #setMaxConcurrency(int)}で指定した数のスレッドで並行して行う。
+ * <p/>
+ * ルックアップに失敗したリソースがあった場合でも、すべてのリソースのルックアップを行った上で、
+ * 失敗したすべてのリソースの情報を含む例外を送出する。
+ * <p/>
+ * 設定例を以下に示す。
+ * <pre>
+ * {@literal
+ * <component class="nablarch.core.repository.jndi.JndiPrefetchLoader">
+ *   <property name="jndiHelper" ref="jndiHelper" />
+ *   <property name="resources">
+ *     <map>
+ *       <entry key="appDataSource" value="jdbc/app" />
+ *       <entry key="batchQueueFactory" value="jms/batchQueueFactory" />
+ *     </map>
+ *   </property>
+ * </component>
+ * }
+ * </pre>
+ */
+@Published(tag = "architect")
+public class JndiPrefetchLoader implements ObjectLoader {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(JndiPrefetchLoader.class);
+
+    /** スレッド名の連番 */
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    /** ルックアップに使用する{@link JndiHelper} */
+    private JndiHelper jndiHelper = new JndiHelper();
+
+    /** コンポーネント名とJNDIリソース名のマップ */
+    private Map<String, String> resources = Collections.emptyMap();
+
+    /** 同時にルックアップを行う最大数 */
+    private int maxConcurrency = 8;
+
+    /**
+     * ルックアップに使用する{@link JndiHelper}を設定する。
+     * <p/>
+     * 設定しない場合は、クラスパス上のjndi.propertiesを使用する{@link JndiHelper}を使用する。
+     *
+     * @param jndiHelper {@link JndiHelper}
+     */
+    public void setJndiHelper(JndiHelper jndiHelper) {
+        this.jndiHelper = jndiHelper;
+    }
+
+    /**
+     * ルックアップするリソースを設定する。
+     *
+     * @param resources キーにコンポーネント名、値にJNDIリソース名を持つマップ
+     */
+    public void setResources(Map<String, String> resources) {
+        this.resources = resources;
+    }
+
+    /**
+     * 同時にルックアップを行う最大数を設定する。
+     * <p/>
+     * デフォルトは8。
+     *
+     * @param maxConcurrency 同時にルックアップを行う最大数
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * リソースを並行してルックアップする。
+     *
+     * @return キーにコンポーネント名、値にルックアップ結果を持つマップ
+     * @throws IllegalStateException ルックアップに失敗したリソースがあった場合
+     *   (失敗したリソースごとの例外は{@link Throwable#getSuppressed()}で取得できる)
+     */
+    @Override
+    public Map<String, Object> load() {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        if (resources.isEmpty()) {
+            return result;
+        }
+        long start = System.nanoTime();
+
+        int threads = Math.max(1, Math.min(maxConcurrency, resources.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "nablarch-jndi-prefetch-" + THREAD_NUMBER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        Map<String, Future<Object>> futures = new LinkedHashMap<String, Future<Object>>();
+        List<Throwable> failures = new ArrayList<Throwable>();
+        List<String> failedNames = new ArrayList<String>();
+        try {
+            for (final Map.Entry<String, String> resource : resources.entrySet()) {
+                futures.put(resource.getKey(), executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        return jndiHelper.lookUp(resource.getValue());
+                    }
+                }));
+            }
+            for (Map.Entry<String, Future<Object>> future : futures.entrySet()) {
+                try {
+                    Object value = future.getValue().get();
+                    if (value == null) {
+                        throw new IllegalStateException("looking up a resource in JNDI returned null."
+                                + " resource name=[" + resources.get(future.getKey()) + "]");
+                    }
+                    result.put(future.getKey(), value);
+                } catch (ExecutionException e) {
+                    failedNames.add(future.getKey());
+                    failures.add(e.getCause());
+                } catch (IllegalStateException e) {
+                    failedNames.add(future.getKey());
+                    failures.add(e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("JNDI prefetch was interrupted.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (!failures.isEmpty()) {
+            IllegalStateException exception = new IllegalStateException("looking up resources in JNDI failed."
+                    + " failed = " + failures.size() + "/" + resources.size()
+                    + ", component names = " + failedNames);
+            for (Throwable failure : failures) {
+                exception.addSuppressed(failure);
+            }
+            throw exception;
+        }
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.logDebug("JNDI resources were prefetched. count = " + result.size()
+                    + ", threads = " + threads
+                    + ", elapsed (ms) = " + (System.nanoTime() - start) / 1000000);
+        }
+        return result;
+    }
+}
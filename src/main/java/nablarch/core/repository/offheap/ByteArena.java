@@ -0,0 +1,149 @@
+package nablarch.core.repository.offheap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 複数の{@link ByteBuffer}を連続した1つの領域として読み出すクラス。
+ * <p/>
+ * {@link ByteBuffer}は2GBを超える領域を扱えないため、領域を固定長のチャンクに分割して保持する。
+ * 1つのレコードがチャンクの境界をまたがないことは、書き込み側({@link LiteralTableFormat})で保証する。
+ * <p/>
+ * 読み出しは絶対位置指定で行い、バッファの位置を変更しないため、複数スレッドから同時に使用できる。
+ * 書き込みは、設定値テーブルの作成時({@link LiteralTableWriter})にのみ行う。
+ */
+final class ByteArena {
+
+    /** チャンク */
+    private final ByteBuffer[] chunks;
+
+    /** チャンクサイズのビットシフト数 */
+    private final int chunkShift;
+
+    /** チャンク内の位置を取り出すマスク */
+    private final long chunkMask;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param chunks チャンク
+     * @param chunkShift チャンクサイズのビットシフト数
+     */
+    ByteArena(ByteBuffer[] chunks, int chunkShift) {
+        this.chunks = chunks;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (1L << chunkShift) - 1;
+    }
+
+    /**
+     * 指定位置の1バイトを読み出す。
+     *
+     * @param offset 位置
+     * @return 値
+     */
+    byte get(long offset) {
+        return chunk(offset).get(position(offset));
+    }
+
+    /**
+     * 指定位置のint値を読み出す。
+     *
+     * @param offset 位置
+     * @return 値
+     */
+    int getInt(long offset) {
+        return chunk(offset).getInt(position(offset));
+    }
+
+    /**
+     * 指定位置のlong値を読み出す。
+     *
+     * @param offset 位置
+     * @return 値
+     */
+    long getLong(long offset) {
+        return chunk(offset).getLong(position(offset));
+    }
+
+    /**
+     * 指定位置にlong値を書き込む。
+     *
+     * @param offset 位置
+     * @param value 値
+     */
+    void putLong(long offset, long value) {
+        chunk(offset).putLong(position(offset), value);
+    }
+
+    /**
+     * 指定位置からバイト配列の長さ分を読み出す。
+     *
+     * @param offset 位置
+     * @param dst 読み出し先
+     */
+    void get(long offset, byte[] dst) {
+        chunk(offset).get(position(offset), dst);
+    }
+
+    /**
+     * 指定位置のバイト列と、バイト配列を符号なしで辞書順比較する。
+     *
+     * @param offset 位置
+     * @param length 位置から比較するバイト数
+     * @param other 比較対象のバイト配列
+     * @return 指定位置のバイト列が小さい場合は負の値、等しい場合は0、大きい場合は正の値
+     */
+    int compare(long offset, int length, byte[] other) {
+        ByteBuffer chunk = chunk(offset);
+        int position = position(offset);
+        int min = Math.min(length, other.length);
+        for (int i = 0; i < min; i++) {
+            int diff = (chunk.get(position + i) & 0xFF) - (other[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - other.length;
+    }
+
+    /**
+     * 2つの位置のバイト列を符号なしで辞書順比較する。
+     *
+     * @param offset1 1つ目の位置
+     * @param length1 1つ目の位置から比較するバイト数
+     * @param offset2 2つ目の位置
+     * @param length2 2つ目の位置から比較するバイト数
+     * @return 1つ目のバイト列が小さい場合は負の値、等しい場合は0、大きい場合は正の値
+     */
+    int compare(long offset1, int length1, long offset2, int length2) {
+        ByteBuffer chunk1 = chunk(offset1);
+        ByteBuffer chunk2 = chunk(offset2);
+        int position1 = position(offset1);
+        int position2 = position(offset2);
+        int min = Math.min(length1, length2);
+        for (int i = 0; i < min; i++) {
+            int diff = (chunk1.get(position1 + i) & 0xFF) - (chunk2.get(position2 + i) & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length1 - length2;
+    }
+
+    /**
+     * チャンクを取得する。
+     * @param offset 位置
+     * @return チャンク
+     */
+    private ByteBuffer chunk(long offset) {
+        return chunks[(int) (offset >>> chunkShift)];
+    }
+
+    /**
+     * チャンク内の位置を取得する。
+     * @param offset 位置
+     * @return チャンク内の位置
+     */
+    private int position(long offset) {
+        return (int) (offset & chunkMask);
+    }
+}
@@ -0,0 +1,65 @@
+package nablarch.core.repository.offheap;
+
+/**
+ * 設定値テーブルのバイナリ形式を扱うクラス。
+ * <p/>
+ * 設定値テーブルは以下の3つの領域から構成される。
+ * <ol>
+ *   <li>ヘッダ({@link #HEADER_SIZE}バイト): マジックナンバー、バージョン、エントリ数、各領域の位置、
+ *   および設定値の作成元を識別するフィンガープリント</li>
+ *   <li>データ領域: キーと値をUTF-8でエンコードしたレコード({@code [int キー長][キー][int 値長][値]})の並び(書き込んだ順)</li>
+ *   <li>インデックス領域: キーのバイト列の昇順に並べた、各レコードの位置(long)の配列</li>
+ * </ol>
+ * レコードはチャンクの境界をまたがないように配置する。
+ * 境界をまたぐ場合は、チャンクの残りが4バイト以上あればキー長に{@link #PADDING}を書き込み、次のチャンクの先頭から配置する。
+ * <p/>
+ * 同じキーのレコードが複数書き込まれた場合、インデックスは最後に書き込まれたレコードのみを参照する。
+ * このとき、インデックス領域の末尾には、書き込んだレコード数とエントリ数の差の分だけ使用しない領域が残る。
+ */
+final class LiteralTableFormat {
+
+    /** 形式を識別するマジックナンバー("NBLITTBL") */
+    static final long MAGIC = 0x4E424C495454424CL;
+
+    /** 形式のバージョン */
+    static final int FORMAT_VERSION = 1;
+
+    /** ヘッダのサイズ */
+    static final int HEADER_SIZE = 128;
+
+    /** デフォルトのチャンクサイズのビットシフト数(1GB) */
+    static final int DEFAULT_CHUNK_SHIFT = 30;
+
+    /** ヘッダ内のマジックナンバーの位置 */
+    static final int MAGIC_POSITION = 0;
+
+    /** ヘッダ内のバージョンの位置 */
+    static final int VERSION_POSITION = 8;
+
+    /** ヘッダ内のチャンクサイズのビットシフト数の位置 */
+    static final int CHUNK_SHIFT_POSITION = 12;
+
+    /** ヘッダ内のエントリ数の位置 */
+    static final int ENTRY_COUNT_POSITION = 16;
+
+    /** ヘッダ内のインデックス領域の開始位置の位置 */
+    static final int INDEX_OFFSET_POSITION = 24;
+
+    /** ヘッダ内の全体サイズの位置 */
+    static final int TOTAL_LENGTH_POSITION = 32;
+
+    /** ヘッダ内のフィンガープリントの位置 */
+    static final int FINGERPRINT_POSITION = 40;
+
+    /** フィンガープリントの長さ(SHA-256) */
+    static final int FINGERPRINT_LENGTH = 32;
+
+    /** データ領域で、チャンクの残りを読み飛ばすことを示すキー長 */
+    static final int PADDING = -1;
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private LiteralTableFormat() {
+    }
+}
@@ -0,0 +1,573 @@
+package nablarch.core.repository.offheap;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import nablarch.core.repository.StreamingObjectLoader;
+import nablarch.core.util.FileUtil;
+
+/**
+ * 設定値テーブル({@link LiteralTableFormat})を書き込むクラス。
+ * <p/>
+ * 受け取った設定値はヒープ上に保持せず、UTF-8にエンコードしてその場でデータ領域に追記する。
+ * すべての設定値を受け取った後、データ領域を走査してインデックス領域を作成し、
+ * インデックス領域をその場でヒープソートしてキーの昇順に並べる。
+ * このため、設定値の件数や量によらず、ヒープ上に保持するのは書き込み用の小さなバッファのみとなる。
+ * <p/>
+ * 同じキーを複数回受け取った場合は、後に受け取った値が有効となる。
+ * <p/>
+ * このクラスはスレッドセーフではない。
+ */
+final class LiteralTableWriter implements StreamingObjectLoader.Sink, Closeable {
+
+    /** 書き込み用のバッファのサイズ */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** 書き込み先 */
+    private final Storage storage;
+
+    /** チャンクサイズのビットシフト数 */
+    private final int chunkShift;
+
+    /** 書き込み用のバッファ */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /** バッファの先頭に対応する位置 */
+    private long bufferStart = LiteralTableFormat.HEADER_SIZE;
+
+    /** 書き込んだレコード数 */
+    private int recordCount;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param storage 書き込み先
+     * @param chunkShift チャンクサイズのビットシフト数
+     */
+    private LiteralTableWriter(Storage storage, int chunkShift) {
+        this.storage = storage;
+        this.chunkShift = chunkShift;
+    }
+
+    /**
+     * ダイレクトバッファに書き込むインスタンスを作成する。
+     *
+     * @param chunkShift チャンクサイズのビットシフト数
+     * @return インスタンス
+     */
+    static LiteralTableWriter toDirectBuffer(int chunkShift) {
+        return new LiteralTableWriter(new DirectStorage(chunkShift), chunkShift);
+    }
+
+    /**
+     * ファイルに書き込むインスタンスを作成する。
+     * <p/>
+     * 作成した設定値テーブルは、ファイルをメモリにマップして返す。
+     *
+     * @param file 書き込むファイル(既に存在する場合は上書きする)
+     * @param chunkShift チャンクサイズのビットシフト数
+     * @return インスタンス
+     */
+    static LiteralTableWriter toFile(File file, int chunkShift) {
+        try {
+            return new LiteralTableWriter(new FileStorage(file, chunkShift), chunkShift);
+        } catch (IOException e) {
+            throw new IllegalStateException("literal table write failed. file = " + file.getPath(), e);
+        }
+    }
+
+    /**
+     * 設定値をデータ領域に追記する。
+     *
+     * @param key キー
+     * @param value 値(文字列以外の場合は{@link String#valueOf(Object)}で変換する)
+     * @throws IllegalArgumentException キーまたは値が{@code null}の場合、またはレコードがチャンクに収まらない場合
+     */
+    @Override
+    public void put(String key, Object value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("null key or value is not allowed."
+                    + " key = [" + key + "]");
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        long recordSize = 8L + keyBytes.length + valueBytes.length;
+        if (recordSize > (1L << chunkShift)) {
+            throw new IllegalArgumentException("entry is too large."
+                    + " key = [" + key + "]"
+                    + ", size = " + recordSize);
+        }
+
+        long position = bufferStart + buffer.position();
+        if ((position >>> chunkShift) != ((position + recordSize - 1) >>> chunkShift)) {
+            long nextChunk = ((position >>> chunkShift) + 1) << chunkShift;
+            if (nextChunk - position >= 4) {
+                reserve(4);
+                buffer.putInt(LiteralTableFormat.PADDING);
+            }
+            flush();
+            bufferStart = nextChunk;
+        }
+        if (recordSize > buffer.capacity()) {
+            flush();
+            ByteBuffer record = ByteBuffer.allocate((int) recordSize);
+            putRecord(record, keyBytes, valueBytes);
+            record.flip();
+            write(bufferStart, record);
+            bufferStart += recordSize;
+        } else {
+            reserve((int) recordSize);
+            putRecord(buffer, keyBytes, valueBytes);
+        }
+        recordCount++;
+    }
+
+    /**
+     * インデックス領域とヘッダを書き込み、設定値テーブルを完成させる。
+     *
+     * @param fingerprint フィンガープリント(不要な場合は{@code null})
+     * @return 設定値テーブルのチャンク
+     */
+    ByteBuffer[] finish(byte[] fingerprint) {
+        try {
+            flush();
+            long indexOffset = (bufferStart + 7) & ~7L;
+            long totalLength = indexOffset + 8L * recordCount;
+            ByteBuffer[] chunks = storage.map(totalLength);
+            ByteArena arena = new ByteArena(chunks, chunkShift);
+
+            long record = LiteralTableFormat.HEADER_SIZE;
+            for (int i = 0; i < recordCount; i++) {
+                long chunkEnd = ((record >>> chunkShift) + 1) << chunkShift;
+                if (chunkEnd - record < 4 || arena.getInt(record) == LiteralTableFormat.PADDING) {
+                    record = chunkEnd;
+                }
+                arena.putLong(indexOffset + 8L * i, record);
+                long valueLengthOffset = record + 4 + arena.getInt(record);
+                record = valueLengthOffset + 4 + arena.getInt(valueLengthOffset);
+            }
+            sort(arena, indexOffset);
+            int entryCount = removeOverwritten(arena, indexOffset);
+
+            ByteBuffer header = chunks[0];
+            header.putLong(LiteralTableFormat.MAGIC_POSITION, LiteralTableFormat.MAGIC);
+            header.putInt(LiteralTableFormat.VERSION_POSITION, LiteralTableFormat.FORMAT_VERSION);
+            header.putInt(LiteralTableFormat.CHUNK_SHIFT_POSITION, chunkShift);
+            header.putInt(LiteralTableFormat.ENTRY_COUNT_POSITION, entryCount);
+            header.putLong(LiteralTableFormat.INDEX_OFFSET_POSITION, indexOffset);
+            header.putLong(LiteralTableFormat.TOTAL_LENGTH_POSITION, totalLength);
+            if (fingerprint != null) {
+                header.put(LiteralTableFormat.FINGERPRINT_POSITION, fingerprint, 0, LiteralTableFormat.FINGERPRINT_LENGTH);
+            }
+            return storage.complete(chunks);
+        } catch (IOException e) {
+            throw new IllegalStateException("literal table write failed. " + storage, e);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * 書き込み先を閉じる。
+     * <p/>
+     * {@link #finish(byte[])}を呼び出さずに書き込みを中断する場合に使用する。
+     */
+    @Override
+    public void close() {
+        storage.close();
+    }
+
+    /**
+     * バッファに指定したバイト数の空きがない場合は、バッファの内容を書き込む。
+     *
+     * @param length 必要なバイト数
+     */
+    private void reserve(int length) {
+        if (buffer.remaining() < length) {
+            flush();
+        }
+    }
+
+    /**
+     * バッファの内容を書き込む。
+     */
+    private void flush() {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        int length = buffer.remaining();
+        write(bufferStart, buffer);
+        bufferStart += length;
+        buffer.clear();
+    }
+
+    /**
+     * 書き込み先に書き込む。
+     *
+     * @param position 位置
+     * @param src 書き込む内容
+     */
+    private void write(long position, ByteBuffer src) {
+        try {
+            storage.write(position, src);
+        } catch (IOException e) {
+            throw new IllegalStateException("literal table write failed. " + storage, e);
+        }
+    }
+
+    /**
+     * レコードをバッファに格納する。
+     *
+     * @param dst 格納先
+     * @param key キー
+     * @param value 値
+     */
+    private static void putRecord(ByteBuffer dst, byte[] key, byte[] value) {
+        dst.putInt(key.length);
+        dst.put(key);
+        dst.putInt(value.length);
+        dst.put(value);
+    }
+
+    /**
+     * インデックスをキーの昇順に並べる。
+     * <p/>
+     * 作業領域を使用しないよう、インデックス領域をその場でヒープソートする。
+     * 同じキーのレコードは、書き込んだ順(レコードの位置の昇順)に並べる。
+     *
+     * @param arena 設定値テーブル
+     * @param indexOffset インデックス領域の開始位置
+     */
+    private void sort(ByteArena arena, long indexOffset) {
+        for (int i = recordCount / 2 - 1; i >= 0; i--) {
+            siftDown(arena, indexOffset, i, recordCount);
+        }
+        for (int end = recordCount - 1; end > 0; end--) {
+            long top = arena.getLong(indexOffset);
+            arena.putLong(indexOffset, arena.getLong(indexOffset + 8L * end));
+            arena.putLong(indexOffset + 8L * end, top);
+            siftDown(arena, indexOffset, 0, end);
+        }
+    }
+
+    /**
+     * ヒープの要素を、子要素より小さくない位置まで下ろす。
+     *
+     * @param arena 設定値テーブル
+     * @param indexOffset インデックス領域の開始位置
+     * @param root 下ろす要素
+     * @param size ヒープの要素数
+     */
+    private static void siftDown(ByteArena arena, long indexOffset, int root, int size) {
+        long rootRecord = arena.getLong(indexOffset + 8L * root);
+        long parent = root;
+        while (true) {
+            long child = 2 * parent + 1;
+            if (child >= size) {
+                break;
+            }
+            long childRecord = arena.getLong(indexOffset + 8L * child);
+            if (child + 1 < size) {
+                long rightRecord = arena.getLong(indexOffset + 8L * (child + 1));
+                if (compareRecords(arena, rightRecord, childRecord) > 0) {
+                    child++;
+                    childRecord = rightRecord;
+                }
+            }
+            if (compareRecords(arena, childRecord, rootRecord) <= 0) {
+                break;
+            }
+            arena.putLong(indexOffset + 8L * parent, childRecord);
+            parent = child;
+        }
+        arena.putLong(indexOffset + 8L * parent, rootRecord);
+    }
+
+    /**
+     * 同じキーのレコードのうち、最後に書き込んだもの以外をインデックスから取り除く。
+     *
+     * @param arena 設定値テーブル
+     * @param indexOffset インデックス領域の開始位置
+     * @return インデックスに残したレコード数
+     */
+    private int removeOverwritten(ByteArena arena, long indexOffset) {
+        int count = 0;
+        for (int i = 0; i < recordCount; i++) {
+            long record = arena.getLong(indexOffset + 8L * i);
+            if (i + 1 < recordCount
+                    && compareKeys(arena, record, arena.getLong(indexOffset + 8L * (i + 1))) == 0) {
+                continue;
+            }
+            arena.putLong(indexOffset + 8L * count, record);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * レコードをキーのバイト列の昇順、同じキーの場合はレコードの位置の昇順で比較する。
+     *
+     * @param arena 設定値テーブル
+     * @param record1 1つ目のレコードの位置
+     * @param record2 2つ目のレコードの位置
+     * @return 1つ目のレコードが前の場合は負の値、同じ場合は0、後の場合は正の値
+     */
+    private static int compareRecords(ByteArena arena, long record1, long record2) {
+        int result = compareKeys(arena, record1, record2);
+        if (result != 0) {
+            return result;
+        }
+        return record1 < record2 ? -1 : (record1 == record2 ? 0 : 1);
+    }
+
+    /**
+     * レコードのキーのバイト列を比較する。
+     *
+     * @param arena 設定値テーブル
+     * @param record1 1つ目のレコードの位置
+     * @param record2 2つ目のレコードの位置
+     * @return 1つ目のキーが小さい場合は負の値、等しい場合は0、大きい場合は正の値
+     */
+    private static int compareKeys(ByteArena arena, long record1, long record2) {
+        return arena.compare(record1 + 4, arena.getInt(record1), record2 + 4, arena.getInt(record2));
+    }
+
+    /**
+     * 設定値テーブルの書き込み先。
+     */
+    private interface Storage {
+
+        /**
+         * 指定位置に書き込む。
+         *
+         * @param position 位置
+         * @param src 書き込む内容
+         * @throws IOException 書き込みに失敗した場合
+         */
+        void write(long position, ByteBuffer src) throws IOException;
+
+        /**
+         * 書き込んだ内容を含む、指定した長さの領域をチャンクとして取得する。
+         *
+         * @param length 領域の長さ
+         * @return 書き込み可能なチャンク
+         * @throws IOException 領域の割り当てに失敗した場合
+         */
+        ByteBuffer[] map(long length) throws IOException;
+
+        /**
+         * 書き込みを完了し、参照用のチャンクを取得する。
+         *
+         * @param chunks 書き込んだチャンク
+         * @return 参照用のチャンク
+         */
+        ByteBuffer[] complete(ByteBuffer[] chunks);
+
+        /**
+         * 書き込み先を閉じる。
+         */
+        void close();
+    }
+
+    /**
+     * ダイレクトバッファの書き込み先。
+     * <p/>
+     * 最後のチャンクは、書き込んだ量に応じて容量を倍にしながら拡張する。
+     */
+    private static final class DirectStorage implements Storage {
+
+        /** チャンクの初期容量 */
+        private static final int INITIAL_CAPACITY = 64 * 1024;
+
+        /** チャンクサイズのビットシフト数 */
+        private final int chunkShift;
+
+        /** チャンクサイズ */
+        private final int chunkSize;
+
+        /** チャンク */
+        private final List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+
+        /**
+         * コンストラクタ。
+         *
+         * @param chunkShift チャンクサイズのビットシフト数
+         */
+        DirectStorage(int chunkShift) {
+            this.chunkShift = chunkShift;
+            this.chunkSize = 1 << chunkShift;
+        }
+
+        @Override
+        public void write(long position, ByteBuffer src) {
+            while (src.hasRemaining()) {
+                int index = (int) (position >>> chunkShift);
+                int offset = (int) (position & (chunkSize - 1));
+                int length = Math.min(src.remaining(), chunkSize - offset);
+                ByteBuffer part = src.duplicate();
+                part.limit(part.position() + length);
+                ByteBuffer dst = ensureCapacity(index, offset + length).duplicate();
+                dst.position(offset);
+                dst.put(part);
+                src.position(src.position() + length);
+                position += length;
+            }
+        }
+
+        @Override
+        public ByteBuffer[] map(long length) {
+            ByteBuffer[] result = new ByteBuffer[(int) ((length + chunkSize - 1) >>> chunkShift)];
+            for (int i = 0; i < result.length; i++) {
+                int size = (int) Math.min(chunkSize, length - ((long) i << chunkShift));
+                ByteBuffer chunk = ensureCapacity(i, size);
+                result[i] = chunk.capacity() == size ? chunk : resize(chunk, size);
+            }
+            chunks.clear();
+            return result;
+        }
+
+        @Override
+        public ByteBuffer[] complete(ByteBuffer[] chunks) {
+            return chunks;
+        }
+
+        @Override
+        public void close() {
+            chunks.clear();
+        }
+
+        /**
+         * チャンクの容量を確保する。
+         * <p/>
+         * 後ろにチャンクを追加する場合、それまでの最後のチャンクはチャンクサイズまで拡張する。
+         *
+         * @param index チャンクの番号
+         * @param required 必要な容量
+         * @return チャンク
+         */
+        private ByteBuffer ensureCapacity(int index, int required) {
+            while (chunks.size() <= index) {
+                int last = chunks.size() - 1;
+                if (last >= 0 && chunks.get(last).capacity() < chunkSize) {
+                    chunks.set(last, resize(chunks.get(last), chunkSize));
+                }
+                chunks.add(ByteBuffer.allocateDirect(Math.min(chunkSize, INITIAL_CAPACITY)));
+            }
+            ByteBuffer chunk = chunks.get(index);
+            if (chunk.capacity() < required) {
+                int capacity = chunk.capacity();
+                while (capacity < required) {
+                    capacity = (int) Math.min(chunkSize, capacity * 2L);
+                }
+                chunk = resize(chunk, capacity);
+                chunks.set(index, chunk);
+            }
+            return chunk;
+        }
+
+        /**
+         * 内容を引き継いで、容量の異なるチャンクを作成する。
+         *
+         * @param chunk チャンク
+         * @param capacity 容量
+         * @return 作成したチャンク
+         */
+        private static ByteBuffer resize(ByteBuffer chunk, int capacity) {
+            ByteBuffer resized = ByteBuffer.allocateDirect(capacity);
+            ByteBuffer src = chunk.duplicate();
+            src.clear();
+            src.limit(Math.min(capacity, src.capacity()));
+            resized.put(src);
+            resized.clear();
+            return resized;
+        }
+
+        @Override
+        public String toString() {
+            return "direct buffer";
+        }
+    }
+
+    /**
+     * ファイルの書き込み先。
+     * <p/>
+     * データ領域はファイルに順に書き込み、インデックス領域の作成時にファイル全体をメモリにマップする。
+     */
+    private static final class FileStorage implements Storage {
+
+        /** 書き込むファイル */
+        private final File file;
+
+        /** チャンクサイズのビットシフト数 */
+        private final int chunkShift;
+
+        /** ファイル */
+        private final RandomAccessFile raf;
+
+        /** ファイルのチャネル */
+        private final FileChannel channel;
+
+        /**
+         * コンストラクタ。
+         *
+         * @param file 書き込むファイル
+         * @param chunkShift チャンクサイズのビットシフト数
+         * @throws IOException ファイルを開けない場合
+         */
+        FileStorage(File file, int chunkShift) throws IOException {
+            this.file = file;
+            this.chunkShift = chunkShift;
+            this.raf = new RandomAccessFile(file, "rw");
+            raf.setLength(0);
+            this.channel = raf.getChannel();
+        }
+
+        @Override
+        public void write(long position, ByteBuffer src) throws IOException {
+            while (src.hasRemaining()) {
+                position += channel.write(src, position);
+            }
+        }
+
+        @Override
+        public ByteBuffer[] map(long length) throws IOException {
+            long chunkSize = 1L << chunkShift;
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((length + chunkSize - 1) >>> chunkShift)];
+            for (int i = 0; i < chunks.length; i++) {
+                long position = (long) i << chunkShift;
+                chunks[i] = channel.map(MapMode.READ_WRITE, position, Math.min(chunkSize, length - position));
+            }
+            return chunks;
+        }
+
+        @Override
+        public ByteBuffer[] complete(ByteBuffer[] chunks) {
+            for (int i = 0; i < chunks.length; i++) {
+                ((MappedByteBuffer) chunks[i]).force();
+                chunks[i] = chunks[i].asReadOnlyBuffer();
+            }
+            return chunks;
+        }
+
+        @Override
+        public void close() {
+            // マップ済みの領域はチャネルを閉じても有効なままとなる。
+            FileUtil.closeQuietly(raf);
+        }
+
+        @Override
+        public String toString() {
+            return "file = " + file.getPath();
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package nablarch.core.repository.offheap;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.core.repository.ConfigFileLoader;
+import nablarch.core.repository.ObjectLoader;
+import nablarch.core.repository.PropertiesFileLoader;
+import nablarch.core.repository.StreamingObjectLoader;
+import nablarch.core.repository.di.ConfigurationLoadException;
+import nablarch.core.repository.di.ExternalizedLiteralStore;
+import nablarch.core.repository.di.LiteralStore;
+import nablarch.core.repository.di.config.externalize.ExternalizedComponentDefinitionLoader;
+import nablarch.core.repository.di.config.externalize.ExternalizedValueResolver;
+import nablarch.core.util.annotation.Published;
+
+/**
+ * 設定ファイルの値をヒープ外のメモリに読み込む{@link ObjectLoader}。
+ * <p/>
+ * 数十万件を超えるような大量の設定値を、ヒープを圧迫せずに保持するために使用する。
+ * 設定ファイルの形式は、拡張子が{@code .properties}の場合はプロパティファイル({@link PropertiesFileLoader})、
+ * それ以外の場合は{@link ConfigFileLoader}の形式となる。
+ * 同じキーが複数のファイルに存在する場合は、後に指定したファイルの値が有効となる。
+ * <p/>
+ * 設定ファイルの値はヒープ上にまとめずに1件ずつヒープ外の領域に書き込むため、
+ * 読み込み中もヒープの使用量は設定値の量に比例しない。
+ * <p/>
+ * このクラスは{@link LiteralStore}を実装しているため、DIコンテナは読み込んだ値をコンポーネント定義として登録しない。
+ * 値は、コンポーネント設定ファイルの{@code ${キー}}の解決や
+ * {@link nablarch.core.repository.di.DiContainer#getComponentByName(String)}で参照できる。
+ * システムプロパティなど、コンテナに登録された同名の値が存在する場合は、そちらが優先される。
+ * <p/>
+ * ストアのキーはコンテナにコンポーネントとして登録されないため、OS環境変数など、
+ * 読み込み済みのコンポーネントの名前を元にした上書きはコンテナでは行われない。
+ * このため、ストアの構築時にコンテナの{@link ExternalizedComponentDefinitionLoader}の規則で
+ * 1件ずつ値を上書きしてから書き込む({@link ExternalizedLiteralStore})。
+ * コンテナの外で使用し、ローダーが設定されていない場合は上書きしない。
+ * <p/>
+ * {@link #load()}と{@link #load(StreamingObjectLoader.Sink)}は、コンテナの外で
+ * 通常の{@link ObjectLoader}として使用する場合のためのものであり、ストアの値をヒープ上に取り出す。
+ * DIコンテナはこのクラスを{@link LiteralStore}として扱うため、これらのメソッドを呼び出さない。
+ * <p/>
+ * 設定例:
+ * <pre>
+ * {@code
+ * <component class="nablarch.core.repository.offheap.OffHeapConfigFileLoader">
+ *   <property name="configFiles">
+ *     <list>
+ *       <value>classpath:tenants.config</value>
+ *     </list>
+ *   </property>
+ * </component>
+ * }
+ * </pre>
+ *
+ * @see OffHeapLiteralStore
+ */
+@Published(tag = "architect")
+public class OffHeapConfigFileLoader implements StreamingObjectLoader, ExternalizedLiteralStore {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(OffHeapConfigFileLoader.class);
+
+    /** 設定ファイルのパスのリスト */
+    private List<String> configFiles = Collections.emptyList();
+
+    /** 設定ファイルの文字エンコーディング */
+    private String encoding;
+
+    /** メモリマップドファイルを使用するか否か */
+    private boolean useMappedFile;
+
+    /** 値の上書きに使用する外部化コンポーネント定義のローダー */
+    private ExternalizedComponentDefinitionLoader externalizedLoader;
+
+    /** 設定値のストア */
+    private volatile OffHeapLiteralStore store;
+
+    /**
+     * 設定ファイルのパスのリストを設定する。
+     * <p/>
+     * パスの形式は{@link nablarch.core.util.FileUtil#getResourceURL(String)}に従う。
+     *
+     * @param configFiles 設定ファイルのパスのリスト
+     */
+    public void setConfigFiles(List<String> configFiles) {
+        this.configFiles = configFiles;
+    }
+
+    /**
+     * 設定ファイルの文字エンコーディングを設定する。
+     * <p/>
+     * 指定しない場合は、各ローダのデフォルトのエンコーディングを使用する。
+     *
+     * @param encoding 文字エンコーディング
+     */
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * メモリマップドファイルを使用するか否かを設定する。
+     * <p/>
+     * {@code true}を設定した場合、設定値を一時ファイルに書き込み、そのファイルをメモリにマップして保持する。
+     * ダイレクトバッファの上限(-XX:MaxDirectMemorySize)を超える量の設定値を保持する場合に使用する。
+     * デフォルトは{@code false}(ダイレクトバッファに保持する)。
+     *
+     * @param useMappedFile メモリマップドファイルを使用する場合は{@code true}
+     */
+    public void setUseMappedFile(boolean useMappedFile) {
+        this.useMappedFile = useMappedFile;
+    }
+
+    @Override
+    public void setExternalizedComponentDefinitionLoader(ExternalizedComponentDefinitionLoader loader) {
+        this.externalizedLoader = loader;
+    }
+
+    /**
+     * 設定値を{@link Map}にまとめて返す。
+     * <p/>
+     * ストアの全ての値をヒープ上に取り出すため、大量の設定値を保持している場合は
+     * {@link #load(StreamingObjectLoader.Sink)}または{@link #get(String)}を使用すること。
+     *
+     * @return 設定値
+     */
+    @Override
+    public Map<String, Object> load() {
+        final Map<String, Object> values = new HashMap<String, Object>(getStore().size() * 4 / 3 + 1);
+        load(new Sink() {
+            @Override
+            public void put(String key, Object value) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * 設定値をキーの昇順に1件ずつ受け渡す。
+     *
+     * @param sink 設定値の受け渡し先
+     */
+    @Override
+    public void load(Sink sink) {
+        getStore().forEach(sink);
+    }
+
+    @Override
+    public String get(String name) {
+        return getStore().get(name);
+    }
+
+    @Override
+    public int size() {
+        return getStore().size();
+    }
+
+    /**
+     * 設定値のストアを取得する。
+     * <p/>
+     * 初回呼び出し時に設定ファイルを読み込み、ストアを構築する。
+     *
+     * @return 設定値のストア
+     */
+    private OffHeapLiteralStore getStore() {
+        OffHeapLiteralStore result = store;
+        if (result == null) {
+            synchronized (this) {
+                result = store;
+                if (result == null) {
+                    result = createStore();
+                    store = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 設定ファイルを読み込み、ストアを構築する。
+     *
+     * @return 設定値のストア
+     */
+    protected OffHeapLiteralStore createStore() {
+        OffHeapLiteralStore result = readConfigFiles();
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.logInfo("off-heap literal store was created."
+                    + " entries = " + result.size()
+                    + ", config files = " + configFiles
+                    + ", mapped file = " + useMappedFile);
+        }
+        return result;
+    }
+
+    /**
+     * 設定ファイルを先頭から順に読み込み、ストアに書き込む。
+     * <p/>
+     * 読み込んだ値はヒープ上に保持せずに1件ずつストアに書き込み、キーの並べ替えもストアの領域上で行う。
+     * 同じキーが複数のファイルに存在する場合は、後のファイルの値で上書きする。
+     * 外部化コンポーネント定義のローダーが設定されている場合は、ローダーの規則で上書きした値を書き込む。
+     *
+     * @return 設定値のストア
+     */
+    OffHeapLiteralStore readConfigFiles() {
+        LiteralTableWriter writer;
+        if (useMappedFile) {
+            File file;
+            try {
+                file = File.createTempFile("nablarch-literal-", ".tbl");
+            } catch (IOException e) {
+                throw new ConfigurationLoadException("failed to create literal table file.", e);
+            }
+            file.deleteOnExit();
+            writer = LiteralTableWriter.toFile(file, LiteralTableFormat.DEFAULT_CHUNK_SHIFT);
+        } else {
+            writer = LiteralTableWriter.toDirectBuffer(LiteralTableFormat.DEFAULT_CHUNK_SHIFT);
+        }
+        final LiteralTableWriter target = writer;
+        Sink sink = externalizedLoader == null ? writer : new Sink() {
+            @Override
+            public void put(String key, Object value) {
+                target.put(key, ExternalizedValueResolver.resolve(externalizedLoader, key, (String) value));
+            }
+        };
+        try {
+            for (String configFile : configFiles) {
+                createLoader(configFile).load(sink);
+            }
+            return new OffHeapLiteralStore(writer.finish(null));
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * 設定ファイルのパスのリストを取得する。
+     *
+     * @return 設定ファイルのパスのリスト
+     */
+    protected List<String> getConfigFiles() {
+        return configFiles;
+    }
+
+    /**
+     * 値の上書きに使用する外部化コンポーネント定義のローダーを取得する。
+     *
+     * @return 外部化コンポーネント定義のローダー(設定されていない場合は{@code null})
+     */
+    protected ExternalizedComponentDefinitionLoader getExternalizedComponentDefinitionLoader() {
+        return externalizedLoader;
+    }
+
+    /**
+     * 設定ファイルの文字エンコーディングを取得する。
+     *
+     * @return 文字エンコーディング(指定されていない場合は{@code null})
+     */
+    protected String getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * 設定ファイルのローダを作成する。
+     *
+     * @param configFile 設定ファイルのパス
+     * @return ローダ
+     */
+    private StreamingObjectLoader createLoader(String configFile) {
+        if (configFile.endsWith(".properties")) {
+            return encoding == null
+                    ? new PropertiesFileLoader(configFile)
+                    : new PropertiesFileLoader(configFile, encoding);
+        } else {
+            return encoding == null
+                    ? new ConfigFileLoader(configFile)
+                    : new ConfigFileLoader(configFile, encoding);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package nablarch.core.repository.offheap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import nablarch.core.repository.StreamingObjectLoader;
+import nablarch.core.repository.di.LiteralStore;
+import nablarch.core.util.FileUtil;
+import nablarch.core.util.annotation.Published;
+
+/**
+ * 文字列の設定値をヒープ外のメモリに保持する読み取り専用のストア。
+ * <p/>
+ * 設定値はキーの昇順に並べたインデックスと、UTF-8でエンコードした値の領域として
+ * ダイレクトバッファまたはメモリマップドファイルに保持する。
+ * 値は参照されたときに初めて文字列にデコードするため、ヒープ上に常駐するのはこのオブジェクトのみとなる。
+ * <p/>
+ * このクラスは不変であり、複数スレッドから同時に使用できる。
+ *
+ * @see OffHeapConfigFileLoader
+ */
+@Published(tag = "architect")
+public final class OffHeapLiteralStore implements LiteralStore {
+
+    /** 設定値テーブル */
+    private final ByteArena arena;
+
+    /** エントリ数 */
+    private final int size;
+
+    /** インデックス領域の開始位置 */
+    private final long indexOffset;
+
+    /**
+     * コンストラクタ。
+     *
+     * @param chunks 設定値テーブルのチャンク
+     */
+    OffHeapLiteralStore(ByteBuffer[] chunks) {
+        ByteBuffer header = chunks[0];
+        if (header.getLong(LiteralTableFormat.MAGIC_POSITION) != LiteralTableFormat.MAGIC) {
+            throw new IllegalArgumentException("not a literal table.");
+        }
+        if (header.getInt(LiteralTableFormat.VERSION_POSITION) != LiteralTableFormat.FORMAT_VERSION) {
+            throw new IllegalArgumentException("unsupported literal table version."
+                    + " version = " + header.getInt(LiteralTableFormat.VERSION_POSITION));
+        }
+        this.arena = new ByteArena(chunks, header.getInt(LiteralTableFormat.CHUNK_SHIFT_POSITION));
+        this.size = header.getInt(LiteralTableFormat.ENTRY_COUNT_POSITION);
+        this.indexOffset = header.getLong(LiteralTableFormat.INDEX_OFFSET_POSITION);
+    }
+
+    /**
+     * 設定値をダイレクトバッファに格納したストアを作成する。
+     *
+     * @param values 設定値
+     * @return ストア
+     */
+    public static OffHeapLiteralStore create(Map<String, String> values) {
+        return create(values, LiteralTableFormat.DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * 設定値をダイレクトバッファに格納したストアを作成する。
+     *
+     * @param values 設定値
+     * @param chunkShift チャンクサイズのビットシフト数
+     * @return ストア
+     */
+    static OffHeapLiteralStore create(Map<String, String> values, int chunkShift) {
+        return create(values, LiteralTableWriter.toDirectBuffer(chunkShift));
+    }
+
+    /**
+     * 設定値をファイルに書き込み、そのファイルをメモリにマップしたストアを作成する。
+     * <p/>
+     * ダイレクトバッファの上限(-XX:MaxDirectMemorySize)を超える大量の設定値を保持する場合に使用する。
+     *
+     * @param values 設定値
+     * @param file 書き込むファイル(既に存在する場合は上書きする)
+     * @return ストア
+     */
+    public static OffHeapLiteralStore create(Map<String, String> values, File file) {
+        return create(values, file, LiteralTableFormat.DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * 設定値をファイルに書き込み、そのファイルをメモリにマップしたストアを作成する。
+     *
+     * @param values 設定値
+     * @param file 書き込むファイル(既に存在する場合は上書きする)
+     * @param chunkShift チャンクサイズのビットシフト数
+     * @return ストア
+     */
+    static OffHeapLiteralStore create(Map<String, String> values, File file, int chunkShift) {
+        return create(values, LiteralTableWriter.toFile(file, chunkShift));
+    }
+
+    /**
+     * 設定値を書き込んだストアを作成する。
+     *
+     * @param values 設定値
+     * @param writer 設定値テーブルの書き込み
+     * @return ストア
+     */
+    private static OffHeapLiteralStore create(Map<String, String> values, LiteralTableWriter writer) {
+        try {
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                writer.put(entry.getKey(), entry.getValue());
+            }
+            return new OffHeapLiteralStore(writer.finish(null));
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * 作成済みの設定値テーブルのファイルを、読み取り専用でメモリにマップする。
+     * <p/>
+     * 同じファイルを複数のプロセスからマップした場合、物理メモリ上のページはプロセス間で共有される。
+     *
+     * @param file 設定値テーブルのファイル
+     * @return ストア
+     * @throws IOException ファイルの読み込みに失敗した場合
+     * @throws IllegalArgumentException ファイルが設定値テーブルの形式でない場合
+     */
+    static OffHeapLiteralStore attach(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long fileLength = channel.size();
+            if (fileLength < LiteralTableFormat.HEADER_SIZE) {
+                throw new IllegalArgumentException("literal table is truncated. length = " + fileLength);
+            }
+            ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, LiteralTableFormat.HEADER_SIZE);
+            if (header.getLong(LiteralTableFormat.MAGIC_POSITION) != LiteralTableFormat.MAGIC) {
+                throw new IllegalArgumentException("not a literal table.");
+            }
+            int chunkShift = header.getInt(LiteralTableFormat.CHUNK_SHIFT_POSITION);
+            long totalLength = header.getLong(LiteralTableFormat.TOTAL_LENGTH_POSITION);
+            if (chunkShift < 8 || chunkShift > LiteralTableFormat.DEFAULT_CHUNK_SHIFT || totalLength != fileLength) {
+                throw new IllegalArgumentException("literal table is broken."
+                        + " length = " + fileLength + ", expected length = " + totalLength);
+            }
+            long chunkSize = 1L << chunkShift;
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((totalLength + chunkSize - 1) >>> chunkShift)];
+            for (int i = 0; i < chunks.length; i++) {
+                long position = (long) i << chunkShift;
+                chunks[i] = channel.map(MapMode.READ_ONLY, position, Math.min(chunkSize, totalLength - position));
+            }
+            return new OffHeapLiteralStore(chunks);
+        } finally {
+            FileUtil.closeQuietly(raf);
+        }
+    }
+
+    /**
+     * 設定値テーブルのフィンガープリントを取得する。
+     *
+     * @return フィンガープリント
+     */
+    byte[] getFingerprint() {
+        byte[] fingerprint = new byte[LiteralTableFormat.FINGERPRINT_LENGTH];
+        arena.get(LiteralTableFormat.FINGERPRINT_POSITION, fingerprint);
+        return fingerprint;
+    }
+
+    /**
+     * 名前に対応する設定値を取得する。
+     * <p/>
+     * インデックスを二分探索し、見つかった値のみを文字列にデコードする。
+     *
+     * @param name 名前
+     * @return 設定値(存在しない場合は {@code null})
+     */
+    @Override
+    public String get(String name) {
+        if (name == null || size == 0) {
+            return null;
+        }
+        byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long record = recordOffset(mid);
+            int cmp = arena.compare(record + 4, arena.getInt(record), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return decodeValue(record);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * すべての設定値をデコードして{@link Map}に格納する。
+     * <p/>
+     * すべての値がヒープ上に展開されるため、通常は{@link #get(String)}を使用すること。
+     *
+     * @return すべての設定値
+     */
+    public Map<String, String> toMap() {
+        final Map<String, String> values = new HashMap<String, String>(size * 4 / 3 + 1);
+        forEach(new StreamingObjectLoader.Sink() {
+            @Override
+            public void put(String key, Object value) {
+                values.put(key, (String) value);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * すべての設定値を、キーの昇順に1件ずつデコードして受け渡す。
+     *
+     * @param sink 設定値の受け渡し先(値は文字列)
+     */
+    void forEach(StreamingObjectLoader.Sink sink) {
+        for (int i = 0; i < size; i++) {
+            long record = recordOffset(i);
+            byte[] key = new byte[arena.getInt(record)];
+            arena.get(record + 4, key);
+            sink.put(new String(key, StandardCharsets.UTF_8), decodeValue(record));
+        }
+    }
+
+    /**
+     * インデックスからレコードの位置を取得する。
+     *
+     * @param index インデックス
+     * @return レコードの位置
+     */
+    private long recordOffset(int index) {
+        return arena.getLong(indexOffset + 8L * index);
+    }
+
+    /**
+     * レコードの値をデコードする。
+     *
+     * @param record レコードの位置
+     * @return 値
+     */
+    private String decodeValue(long record) {
+        long valueLengthOffset = record + 4 + arena.getInt(record);
+        byte[] value = new byte[arena.getInt(valueLengthOffset)];
+        arena.get(valueLengthOffset + 4, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,411 @@
+package nablarch.core.repository.offheap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.core.repository.StreamingObjectLoader;
+import nablarch.core.repository.di.ConfigurationLoadException;
+import nablarch.core.repository.di.config.externalize.ExternalizedComponentDefinitionLoader;
+import nablarch.core.repository.di.config.externalize.ExternalizedValueResolver;
+import nablarch.core.util.FileUtil;
+import nablarch.core.util.annotation.Published;
+
+/**
+ * 解決済みの設定値を、同一ホスト上の複数のJVMで共有するメモリマップドファイル(セグメント)として公開する{@link OffHeapConfigFileLoader}。
+ * <p/>
+ * 最初に起動したJVMは、設定ファイルを読み込んで外部化された設定値による上書きと{@code ${キー}}の解決を行い、
+ * 結果をセグメントファイルに書き込む。以降に起動したJVMは、設定ファイルを解析せずにセグメントファイルを読み取り専用でマップする。
+ * 読み取り専用でマップしたページはOSのページキャッシュ上で共有されるため、JVMの数が増えても物理メモリの使用量は増えない。
+ * <p/>
+ * セグメントのヘッダには形式のバージョンと、以下から計算したフィンガープリント(SHA-256)を格納する。
+ * <ul>
+ *   <li>設定ファイルのパス、文字エンコーディング、および内容のバイト列</li>
+ *   <li>セグメントに含まれるキーを上書きする外部化された設定値のキーと値</li>
+ * </ul>
+ * マップしたセグメントの形式、バージョンまたはフィンガープリントが一致しない場合は、古いセグメントとみなして作成し直す。
+ * セグメントの作成は一時ファイルへの書き込みと、アトミックな名前の変更で行うため、
+ * 他のJVMが書き込み途中のセグメントをマップすることはない。
+ * <p/>
+ * 上書きは、DIコンテナの{@link ExternalizedComponentDefinitionLoader}を使用し、
+ * コンテナがコンポーネントを上書きする場合と同じ規則で行う({@link ExternalizedValueResolver})。
+ * このため、システムプロパティに加えてOS環境変数による上書きもセグメントに反映され、フィンガープリントの対象となる。
+ * コンテナの外で使用し、ローダーが設定されていない場合は上書きしない。
+ * <p/>
+ * {@code ${キー}}の解決は、セグメント内の設定値のみを対象に1回だけ行う。
+ * セグメント内に存在しないキーを参照している場合は、{@code ${キー}}のまま格納する。
+ * <p/>
+ * 設定例:
+ * <pre>
+ * {@code
+ * <component class="nablarch.core.repository.offheap.SharedLiteralSegmentLoader">
+ *   <property name="segmentFile" value="/var/tmp/batch-config.segment" />
+ *   <property name="configFiles">
+ *     <list>
+ *       <value>file:/opt/batch/conf/tenants.config</value>
+ *     </list>
+ *   </property>
+ * </component>
+ * }
+ * </pre>
+ */
+@Published(tag = "architect")
+public class SharedLiteralSegmentLoader extends OffHeapConfigFileLoader {
+
+    /** ロガー */
+    private static final Logger LOGGER = LoggerManager.get(SharedLiteralSegmentLoader.class);
+
+    /** 変数を検索するパターン */
+    private static final Pattern VARIABLE_FIND_PATTERN = Pattern.compile("\\$\\{([^}]*)\\}");
+
+    /**
+     * 上書きの有無を判定するために、読み込み済みの値として渡す値。
+     * ローダーは上書きしない場合に渡された値をそのまま返すため、参照の一致で判定する。
+     */
+    private static final String NOT_OVERRIDDEN = new String("");
+
+    /** セグメントファイルのパス */
+    private String segmentFile;
+
+    /** チャンクサイズのビットシフト数 */
+    private int chunkShift = LiteralTableFormat.DEFAULT_CHUNK_SHIFT;
+
+    /**
+     * セグメントファイルのパスを設定する。
+     * <p/>
+     * セグメントを共有するJVMの間で、同じパスを指定すること。
+     *
+     * @param segmentFile セグメントファイルのパス
+     */
+    public void setSegmentFile(String segmentFile) {
+        this.segmentFile = segmentFile;
+    }
+
+    /**
+     * チャンクサイズのビットシフト数を設定する。
+     *
+     * @param chunkShift チャンクサイズのビットシフト数
+     */
+    void setChunkShift(int chunkShift) {
+        this.chunkShift = chunkShift;
+    }
+
+    /**
+     * セグメントをマップする。
+     * <p/>
+     * 有効なセグメントが存在しない場合は、設定ファイルからセグメントを作成する。
+     *
+     * @return 設定値のストア
+     */
+    @Override
+    protected OffHeapLiteralStore createStore() {
+        if (segmentFile == null) {
+            throw new IllegalStateException("segmentFile was not specified.");
+        }
+        File file = new File(segmentFile);
+        byte[] sourceDigest = digestSources();
+
+        OffHeapLiteralStore attached = attach(file, sourceDigest);
+        if (attached != null) {
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.logInfo("shared literal segment was attached."
+                        + " file = " + file.getPath() + ", entries = " + attached.size());
+            }
+            return attached;
+        }
+        return publish(file, sourceDigest);
+    }
+
+    /**
+     * 既存のセグメントをマップする。
+     *
+     * @param file セグメントファイル
+     * @param sourceDigest 設定ファイルのダイジェスト
+     * @return 有効なセグメントのストア(存在しないか、古いセグメントの場合は{@code null})
+     */
+    private OffHeapLiteralStore attach(File file, byte[] sourceDigest) {
+        if (!file.isFile()) {
+            return null;
+        }
+        OffHeapLiteralStore store;
+        try {
+            store = OffHeapLiteralStore.attach(file);
+        } catch (IOException e) {
+            logStale(file, e.getMessage());
+            return null;
+        } catch (IllegalArgumentException e) {
+            logStale(file, e.getMessage());
+            return null;
+        }
+        byte[] expected = fingerprint(sourceDigest, collectOverrides(store));
+        if (!Arrays.equals(expected, store.getFingerprint())) {
+            logStale(file, "fingerprint mismatch.");
+            return null;
+        }
+        return store;
+    }
+
+    /**
+     * 設定ファイルからセグメントを作成して公開する。
+     *
+     * @param file セグメントファイル
+     * @param sourceDigest 設定ファイルのダイジェスト
+     * @return 作成したセグメントのストア
+     */
+    private OffHeapLiteralStore publish(File file, byte[] sourceDigest) {
+        // 外部化された設定値による上書きは、読み込み時に適用済み。
+        final OffHeapLiteralStore source = readConfigFiles();
+
+        File dir = file.getAbsoluteFile().getParentFile();
+        File temp;
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("failed to create directory. dir = " + dir.getPath());
+            }
+            temp = File.createTempFile(file.getName() + ".", ".tmp", dir);
+        } catch (IOException e) {
+            throw new ConfigurationLoadException("failed to create shared literal segment."
+                    + " file = " + file.getPath(), e);
+        }
+        temp.deleteOnExit();
+
+        // 読み込んだ設定値から1件ずつ解決を行い、セグメントに書き込む。
+        final LiteralTableWriter writer = LiteralTableWriter.toFile(temp, chunkShift);
+        final List<String[]> overrides = new ArrayList<String[]>();
+        OffHeapLiteralStore store = null;
+        try {
+            source.forEach(new StreamingObjectLoader.Sink() {
+                @Override
+                public void put(String key, Object value) {
+                    String override = findOverride(key);
+                    if (override != null) {
+                        overrides.add(new String[] {key, override});
+                    }
+                    writer.put(key, resolveVariables((String) value, source));
+                }
+            });
+            sortByKey(overrides);
+            store = new OffHeapLiteralStore(writer.finish(fingerprint(sourceDigest, overrides)));
+        } finally {
+            writer.close();
+            if (store == null) {
+                // 書き込みに失敗した一時ファイルは、JVMの終了を待たずに削除する。
+                delete(temp);
+            }
+        }
+
+        try {
+            try {
+                Files.move(temp.toPath(), file.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // 他のJVMがセグメントを使用中で置き換えられない場合など。
+            // 作成したセグメントはマップ済みのため、一時ファイルを削除してもこのJVM専用として使用を続けられる。
+            if (LOGGER.isWarnEnabled()) {
+                LOGGER.logWarn("failed to publish shared literal segment. the segment is used privately."
+                        + " file = " + file.getPath() + ", cause = " + e);
+            }
+            delete(temp);
+            return store;
+        }
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.logInfo("shared literal segment was published."
+                    + " file = " + file.getPath() + ", entries = " + store.size());
+        }
+        return store;
+    }
+
+    /**
+     * 設定ファイルのダイジェストを計算する。
+     *
+     * @return ダイジェスト
+     */
+    private byte[] digestSources() {
+        MessageDigest digest = createDigest();
+        update(digest, String.valueOf(getEncoding()));
+        byte[] buffer = new byte[8192];
+        for (String configFile : getConfigFiles()) {
+            update(digest, configFile);
+            InputStream in = null;
+            try {
+                in = FileUtil.getResource(configFile);
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                throw new ConfigurationLoadException("config file read failed. file = " + configFile, e);
+            } finally {
+                FileUtil.closeQuietly(in);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * セグメントに含まれるキーを上書きする外部化された設定値を収集する。
+     *
+     * @param store セグメントのストア
+     * @return 外部化された設定値(キーの昇順)
+     */
+    private List<String[]> collectOverrides(OffHeapLiteralStore store) {
+        final List<String[]> overrides = new ArrayList<String[]>();
+        if (getExternalizedComponentDefinitionLoader() == null) {
+            return overrides;
+        }
+        store.forEach(new StreamingObjectLoader.Sink() {
+            @Override
+            public void put(String key, Object value) {
+                String override = findOverride(key);
+                if (override != null) {
+                    overrides.add(new String[] {key, override});
+                }
+            }
+        });
+        sortByKey(overrides);
+        return overrides;
+    }
+
+    /**
+     * キーを上書きする外部化された設定値を取得する。
+     *
+     * @param key キー
+     * @return 上書きする値(上書きしない場合は{@code null})
+     */
+    private String findOverride(String key) {
+        ExternalizedComponentDefinitionLoader loader = getExternalizedComponentDefinitionLoader();
+        if (loader == null) {
+            return null;
+        }
+        String value = ExternalizedValueResolver.resolve(loader, key, NOT_OVERRIDDEN);
+        return value == NOT_OVERRIDDEN ? null : value;
+    }
+
+    /**
+     * 設定値に含まれる{@code ${キー}}を、他の設定値で置き換える。
+     * <p/>
+     * 参照先の設定値は、外部化された設定値による上書き後の値とし、{@code ${キー}}の解決前の値を使用する。
+     *
+     * @param value 設定値
+     * @param source 読み込んだ設定値(上書き適用済み)
+     * @return 置き換えた設定値
+     */
+    private static String resolveVariables(String value, OffHeapLiteralStore source) {
+        if (value.indexOf("${") < 0) {
+            return value;
+        }
+        Matcher matcher = VARIABLE_FIND_PATTERN.matcher(value);
+        StringBuffer resolved = new StringBuffer(value.length());
+        while (matcher.find()) {
+            String replacement = source.get(matcher.group(1));
+            matcher.appendReplacement(resolved,
+                    Matcher.quoteReplacement(replacement == null ? matcher.group() : replacement));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    /**
+     * ファイルを削除する。削除できない場合は、JVMの終了時の削除に任せる。
+     *
+     * @param file ファイル
+     */
+    private static void delete(File file) {
+        if (!file.delete() && file.exists() && LOGGER.isWarnEnabled()) {
+            LOGGER.logWarn("failed to delete temporary segment file. file = " + file.getPath());
+        }
+    }
+
+    /**
+     * フィンガープリントを計算する。
+     *
+     * @param sourceDigest 設定ファイルのダイジェスト
+     * @param overrides 上書きに使用した外部化された設定値
+     * @return フィンガープリント
+     */
+    private static byte[] fingerprint(byte[] sourceDigest, List<String[]> overrides) {
+        MessageDigest digest = createDigest();
+        digest.update(sourceDigest);
+        for (String[] override : overrides) {
+            update(digest, override[0]);
+            update(digest, override[1]);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * 文字列をダイジェストに追加する。
+     * <p/>
+     * 文字列の連結による衝突を避けるため、長さを前置する。
+     *
+     * @param digest ダイジェスト
+     * @param value 文字列
+     */
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    /**
+     * SHA-256のダイジェストを作成する。
+     *
+     * @return ダイジェスト
+     */
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256はすべてのJava実装でサポートされている。
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * キーと値の組をキーの昇順に並べる。
+     *
+     * @param pairs キーと値の組
+     */
+    private static void sortByKey(List<String[]> pairs) {
+        Collections.sort(pairs, new Comparator<String[]>() {
+            @Override
+            public int compare(String[] o1, String[] o2) {
+                return o1[0].compareTo(o2[0]);
+            }
+        });
+    }
+
+    /**
+     * 古いセグメントを検出したことをログに出力する。
+     *
+     * @param file セグメントファイル
+     * @param reason 理由
+     */
+    private static void logStale(File file, String reason) {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.logInfo("shared literal segment is stale and will be recreated."
+                    + " file = " + file.getPath() + ", reason = " + reason);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * 大量の設定値をヒープ外のメモリに保持する機能を提供する。
+ */
+package nablarch.core.repository.offheap;
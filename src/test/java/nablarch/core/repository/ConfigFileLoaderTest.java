@@ -8,6 +8,9 @@ import static org.junit.Assert.fail;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import org.hamcrest.CoreMatchers;
@@ -169,6 +172,21 @@ public class ConfigFileLoaderTest {
                 result, Matchers.<String, Object>hasEntry("\ud840\udc0b\uD83C\uDF63", "値"));
     }
 
+    /**
+     * 読み込んだ順に、同じキーも含めて1件ずつ受け渡されること。
+     */
+    @Test
+    public void testLoadToSink() {
+        final List<String> entries = new ArrayList<String>();
+        new ConfigFileLoader(createConfigFileName()).load(new StreamingObjectLoader.Sink() {
+            @Override
+            public void put(String key, Object value) {
+                entries.add(key + "=" + value);
+            }
+        });
+        assertThat(entries, is(Arrays.asList("key1=value1", "key2=value2", "key1=value1-2")));
+    }
+
     private String createConfigFileName() {
         return "classpath:" + getClass()
                                   .getName()
@@ -6,11 +6,15 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 import org.junit.rules.TemporaryFolder;
+import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 
@@ -139,6 +143,21 @@ public class PropertiesFileLoaderTest {
                 result, Matchers.<String, Object>hasEntry("\ud840\udc0b\uD83C\uDF63", "値"));
     }
 
+    /**
+     * 読み込んだ順に、同じキーも含めて1件ずつ受け渡されること。
+     */
+    @Test
+    public void testLoadToSink() {
+        final List<String> entries = new ArrayList<String>();
+        new PropertiesFileLoader(createPropertiesFileName()).load(new StreamingObjectLoader.Sink() {
+            @Override
+            public void put(String key, Object value) {
+                entries.add(key + "=" + value);
+            }
+        });
+        assertThat(entries, is(Arrays.asList("key1=value1", "key2=value2", "key1=value1-2")));
+    }
+
     private String createPropertiesFileName() {
         return "classpath:" + getClass()
                 .getName()
@@ -0,0 +1,123 @@
+package nablarch.core.repository.di;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import nablarch.core.repository.di.config.xml.XmlComponentDefinitionLoader;
+import nablarch.core.repository.di.test.Component2;
+import nablarch.core.repository.di.test.Component3;
+import org.junit.Test;
+
+/**
+ * {@link ComponentReferenceGraph}のテスト。
+ */
+public class ComponentReferenceGraphTest {
+
+    /**
+     * コンテナから、マップのキーと値の参照を含むグラフが作成されること。
+     */
+    @Test
+    public void testCreateFromContainer() {
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testLoadMapDefinition.xml"));
+        ComponentReferenceGraph graph = container.createReferenceGraph();
+
+        Map<Integer, ComponentReferenceGraph.Node> nodes = new HashMap<Integer, ComponentReferenceGraph.Node>();
+        for (ComponentReferenceGraph.Node node : graph.getNodes()) {
+            nodes.put(node.getId(), node);
+        }
+        List<String> edges = new ArrayList<String>();
+        for (ComponentReferenceGraph.Edge edge : graph.getEdges()) {
+            edges.add(nodes.get(edge.getFrom()).getType().getSimpleName()
+                    + " -" + edge.getKind() + ":" + edge.getLabel() + "-> "
+                    + nodes.get(edge.getTo()).getName());
+        }
+        assertThat(edges, hasItems(
+                "Component3 -ID:mapProp-> null",
+                "Map -MAP_VALUE:key2-> component2",
+                "Map -MAP_KEY:null-> key-component"));
+        // リテラル値の参照は辺に含まない
+        assertThat(edges.size(), is(5));
+
+        assertThat(graph.toJson(), containsString("{\"id\":0,\"name\":\"component2\","
+                + "\"type\":\"nablarch.core.repository.di.test.Component2\",\"state\":\"INJECTED\",\"createNanos\":"));
+        assertThat(graph.toDot(), containsString("[label=\"mapProp (ID)\""));
+    }
+
+    /**
+     * 経路上の時間の合計が最も大きい経路がクリティカルパスとなり、循環参照は無視されること。
+     */
+    @Test
+    public void testCriticalPath() {
+        ComponentHolder a = holder(0, "a", 10);
+        ComponentHolder b = holder(1, "b", 5);
+        ComponentHolder c = holder(2, "c", 15);
+        ComponentHolder d = holder(3, "d", 20);
+        ComponentHolder e = holder(4, "e", 1);
+        // a -> b -> d、a -> c、c -> a(循環)、e(独立)
+        reference(a, "b");
+        reference(a, "c");
+        reference(b, "d");
+        reference(c, "a");
+
+        Map<String, ComponentHolder> nameIndex = new HashMap<String, ComponentHolder>();
+        for (ComponentHolder holder : Arrays.asList(a, b, c, d, e)) {
+            nameIndex.put(holder.getDefinition().getName(), holder);
+        }
+        ComponentReferenceGraph graph = new ComponentReferenceGraph(Arrays.asList(a, b, c, d, e),
+                nameIndex, new HashMap<Class<?>, ComponentHolder>());
+
+        List<String> path = new ArrayList<String>();
+        for (ComponentReferenceGraph.Node node : graph.getCriticalPath()) {
+            path.add(node.getName());
+        }
+        assertThat(path, is(Arrays.asList("a", "b", "d")));
+        assertThat(graph.toJson(), containsString("\"criticalPath\":{\"ids\":[0,1,3],\"totalNanos\":35}"));
+        assertThat(graph.toDot(), containsString("n1 -> n3 [label=\"d (REF)\", color=red];"));
+        assertThat(graph.toDot(), containsString("n0 -> n2 [label=\"c (REF)\"];"));
+    }
+
+    /**
+     * 参照の連鎖が長い場合でも、スタックが溢れずにクリティカルパスが取得できること。
+     */
+    @Test
+    public void testCriticalPathOfLongChain() {
+        int length = 100000;
+        List<ComponentHolder> holders = new ArrayList<ComponentHolder>();
+        Map<String, ComponentHolder> nameIndex = new HashMap<String, ComponentHolder>();
+        for (int i = 0; i < length; i++) {
+            ComponentHolder holder = holder(i, "c" + i, 1);
+            if (i + 1 < length) {
+                reference(holder, "c" + (i + 1));
+            }
+            holders.add(holder);
+            nameIndex.put(holder.getDefinition().getName(), holder);
+        }
+        ComponentReferenceGraph graph = new ComponentReferenceGraph(holders,
+                nameIndex, new HashMap<Class<?>, ComponentHolder>());
+
+        List<ComponentReferenceGraph.Node> path = graph.getCriticalPath();
+        assertThat(path.size(), is(length));
+        assertThat(path.get(0).getName(), is("c0"));
+        assertThat(path.get(length - 1).getName(), is("c" + (length - 1)));
+    }
+
+    private static ComponentHolder holder(int id, String name, long nanos) {
+        ComponentHolder holder = new ComponentHolder(new ComponentDefinition(id, name,
+                new StoredValueComponentCreator(name), Component2.class));
+        holder.addCreateNanos(nanos);
+        return holder;
+    }
+
+    private static void reference(ComponentHolder from, String to) {
+        from.getDefinition().addReference(new ComponentReference(to, to, Component3.class, InjectionType.REF, -1));
+    }
+}
@@ -1,5 +1,6 @@
 package nablarch.core.repository.di;
 
+import nablarch.core.repository.ConfigFileLoader;
 import nablarch.core.repository.ObjectLoader;
 import nablarch.core.repository.di.config.DuplicateDefinitionPolicy;
 import nablarch.core.repository.di.config.xml.XmlComponentDefinitionLoader;
@@ -9,8 +10,14 @@ import nablarch.core.repository.di.test.Component3;
 import nablarch.core.repository.di.test.Component4;
 import nablarch.core.repository.di.test.Component6;
 import nablarch.core.repository.di.test.Component8;
+import nablarch.core.repository.di.test.DurationComponent;
+import nablarch.core.repository.di.test.Interface1;
 import nablarch.core.repository.di.test.NestedComponent;
+import nablarch.core.repository.di.test.RecordingLifecycleListener;
+import nablarch.core.repository.di.test.SharedObjectLoader;
+import nablarch.core.repository.di.test.ReinjectableComponent;
 import nablarch.core.repository.di.test.SurrogatePair;
+import nablarch.core.repository.test.ContextClassLoaderExchanger;
 import nablarch.core.repository.test.OnMemoryLogWriter;
 import nablarch.core.repository.test.SystemPropertyResource;
 import org.hamcrest.CoreMatchers;
@@ -21,13 +28,23 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.management.ManagementFactory;
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.RuntimeMBeanException;
+
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -50,6 +67,9 @@ public class DiContainerTest {
     @Rule
     public final SystemPropertyResource systemPropertyResource = new SystemPropertyResource();
 
+    @Rule
+    public ContextClassLoaderExchanger exchanger = new ContextClassLoaderExchanger();
+
     @Before
     public void setUp() throws Exception {
         OnMemoryLogWriter.clear();
@@ -289,6 +309,20 @@ public class DiContainerTest {
         assertThat(comp6.callTest(), is("this is message"));
     }
 
+    /**
+     * インタフェースのスーパーインタフェースの型でも自動インジェクションされること。
+     */
+    @Test
+    public void testLoadAutowireByTypeWithSuperInterface() throws Throwable {
+        XmlComponentDefinitionLoader loader = new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testLoadAutowireByTypeWithSuperInterface.xml");
+        DiContainer container = new DiContainer(loader);
+
+        Component6 comp6 = container.getComponentByName("comp6");
+        assertThat(comp6.callTest(), is("this is message"));
+        assertThat(container.getComponentByType(Interface1.class), is(sameInstance(container.getComponentByName("comp9"))));
+    }
+
     @Test
     public void testLoadAutowireByName() throws Throwable {
         XmlComponentDefinitionLoader loader = new XmlComponentDefinitionLoader(
@@ -635,6 +669,644 @@ public class DiContainerTest {
 
     }
 
+    /**
+     * config-file要素およびimport要素のdir属性のテスト。
+     * <p/>
+     * ディレクトリ内の複数ファイルは並列に読み込まれるが、
+     * 同じキー(コンポーネント名)はファイル名の昇順で後勝ちとなることを確認。
+     */
+    @Test
+    public void testLoadFromDirInSortedOrder() {
+        XmlComponentDefinitionLoader loader = new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/loadPropertyFileFromDirInOrder/test.xml");
+        DiContainer container = new DiContainer(loader);
+
+        assertThat(container.<String>getComponentByName("shared.key"), is("tenant12"));
+        assertThat(container.<Component1>getComponentByName("shared").getProp1(), is("component12"));
+        for (int i = 1; i <= 12; i++) {
+            String no = String.format("%02d", i);
+            assertThat(container.<String>getComponentByName("tenant" + no + ".key"), is("value" + no));
+            assertThat(container.<Component1>getComponentByName("comp" + no).getProp1(), is("value" + no));
+        }
+    }
+
+    /**
+     * 文字列の集約が有効な場合、設定値やリテラルの同じ内容の文字列が1つのインスタンスに集約されること。
+     */
+    @Test
+    public void testDeduplicateStrings() {
+        System.setProperty(DiContainer.DEDUPLICATE_STRINGS_SYSTEM_PROP_NAME, "true");  // @Rule SystemPropertyResourceで元に戻す
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testDeduplicateStrings.xml"));
+
+        String key1 = container.getComponentByName("key1");
+        String key2 = container.getComponentByName("key2");
+        Component1 comp1 = container.getComponentByName("comp1");
+        Component1 comp2 = container.getComponentByName("comp2");
+
+        assertThat(key1, is("duplicated value"));
+        assertThat(key2, sameInstance(key1));
+        assertThat(comp1.getProp1(), sameInstance(key1));
+        assertThat(comp2.getProp1(), sameInstance(key1));
+        OnMemoryLogWriter.assertLogContains("writer.appLog", "INFO ROOT string deduplication completed.");
+    }
+
+    /**
+     * 文字列の集約が無効な場合(デフォルト)、設定値は集約されないこと。
+     */
+    @Test
+    public void testDeduplicateStringsDisabled() {
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testDeduplicateStrings.xml"));
+
+        String key1 = container.getComponentByName("key1");
+        String key2 = container.getComponentByName("key2");
+        assertThat(key2, is(key1));
+        assertThat(key2, not(sameInstance(key1)));
+    }
+
+    /**
+     * {@link java.util.ServiceLoader}で読み込んだコンバータでリテラルが変換されること。
+     * 標準でサポートする型は、標準のコンバータで変換されること。
+     */
+    @Test
+    public void testLiteralConverter() {
+        exchanger.setupContextClassLoader("literalConverter");
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testLiteralConverter.xml"));
+
+        DurationComponent component = container.getComponentByName("timeout");
+        assertThat(component.getTimeout(), is(Duration.ofSeconds(30)));
+        assertThat(component.getName(), is("timeout"));
+    }
+
+    /**
+     * {@link java.util.ServiceLoader}で登録したリスナに、コンテナの処理が通知されること。
+     */
+    @Test
+    public void testLifecycleListener() {
+        exchanger.setupContextClassLoader("lifecycleListener");
+        RecordingLifecycleListener.EVENTS.clear();
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testLifecycleListener.xml"));
+        container.dispose();
+
+        List<String> events = RecordingLifecycleListener.EVENTS;
+        assertThat(events, CoreMatchers.hasItems(
+                "registered:comp2",
+                "registered:factory",
+                "created:comp2:Component2:true",
+                "injected:comp2:true",
+                "created:factory:Component2ComponentFactory:true",
+                "injected:factory:true",
+                "factory:factory:Component2:true",
+                "initialized:initializer:true"));
+        assertThat(events.indexOf("registered:comp2") < events.indexOf("created:comp2:Component2:true"), is(true));
+        assertThat(events.indexOf("created:comp2:Component2:true") < events.indexOf("injected:comp2:true"), is(true));
+        assertThat(events.get(events.size() - 1), is("disposed"));
+    }
+
+    /**
+     * 差分の再読み込みで、内容が変わったコンポーネントとその参照元のみが再生成され、
+     * それ以外のコンポーネントは前の世代のインスタンスが引き継がれること。
+     * 引き継いだコンポーネントは再度初期化されないこと。
+     */
+    @Test
+    public void testReloadIncrementally() {
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testReloadIncrementally.xml"));
+        Component2 changed = container.getComponentByName("changed");
+        Component3 dependent = container.getComponentByName("dependent");
+        Component2 unchanged = container.getComponentByName("unchanged");
+        Map<String, String> unchangedInitMap = unchanged.getInitMap();
+        Component3 unchangedNested = container.getComponentByName("unchangedNested");
+        assertThat(changed.getProp1(), is("value1"));
+
+        System.setProperty("incremental.value", "value2");  // @Rule SystemPropertyResourceで元に戻す
+        container.reloadIncrementally();
+
+        Component2 newChanged = container.getComponentByName("changed");
+        assertThat(newChanged, not(sameInstance(changed)));
+        assertThat(newChanged.getProp1(), is("value2"));
+        assertThat(newChanged.getInitMap(), not(nullValue()));
+        Component3 newDependent = container.getComponentByName("dependent");
+        assertThat(newDependent, not(sameInstance(dependent)));
+        assertThat(newDependent.getListProp().get(0), is((Object) newChanged));
+
+        assertThat(container.<Component2>getComponentByName("unchanged"), sameInstance(unchanged));
+        assertThat(unchanged.getInitMap(), sameInstance(unchangedInitMap));
+        assertThat(container.<Component3>getComponentByName("unchangedNested"), sameInstance(unchangedNested));
+        assertThat(container.load().get("unchanged"), is((Object) unchanged));
+
+        assertThat(container.getRebuiltComponentNames(),
+                is(Arrays.asList("changed", "dependent", "initializer", "incremental.value")));
+    }
+
+    /**
+     * 再読み込みの途中で失敗した場合、前の世代のコンポーネントがそのまま取得できること。
+     */
+    @Test
+    public void testReloadFailureKeepsPreviousGeneration() {
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testReinjectLiterals.xml"));
+        ReinjectableComponent reinjectable = container.getComponentByName("reinjectable");
+        Map<String, Object> loaded = container.load();
+
+        System.setProperty("reinject.interval", "notNumber");  // @Rule SystemPropertyResourceで元に戻す
+        for (int i = 0; i < 2; i++) {
+            try {
+                if (i == 0) {
+                    container.reload();
+                } else {
+                    container.reloadIncrementally();
+                }
+                fail("例外が発生するはず");
+            } catch (RuntimeException e) {
+                // OK
+            }
+            assertThat(container.<ReinjectableComponent>getComponentByName("reinjectable"), sameInstance(reinjectable));
+            assertThat(container.load(), sameInstance(loaded));
+            assertThat(reinjectable.getInterval(), is(10));
+        }
+    }
+
+    /**
+     * 差分の再読み込みで、ObjectLoaderがロードした文字列以外の値が前の世代と同じインスタンスの場合は変更なしとみなし、
+     * 参照元のコンポーネントが再生成されないこと。異なるインスタンスの場合は参照元が再生成されること。
+     */
+    @Test
+    public void testReloadIncrementallyStoredObject() {
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testReloadIncrementallyStoredObject.xml"));
+        Component3 sharedReferrer = container.getComponentByName("sharedReferrer");
+        Component3 freshReferrer = container.getComponentByName("freshReferrer");
+
+        container.reloadIncrementally();
+
+        assertThat(container.getComponentByName("sharedObject"), sameInstance((Object) SharedObjectLoader.SHARED));
+        assertThat(container.<Component3>getComponentByName("sharedReferrer"), sameInstance(sharedReferrer));
+        assertThat(container.<Component3>getComponentByName("freshReferrer"), not(sameInstance(freshReferrer)));
+        assertThat(container.getRebuiltComponentNames(), not(CoreMatchers.hasItem("sharedReferrer")));
+        assertThat(container.getRebuiltComponentNames(), CoreMatchers.hasItem("freshReferrer"));
+    }
+
+    /**
+     * リテラルの再インジェクションを有効にした差分の再読み込みで、変更がリテラルの値のみであるコンポーネントは
+     * 再生成されずに値が再インジェクションされ、参照元のコンポーネントも再生成されないこと。
+     */
+    @Test
+    public void testReinjectLiterals() {
+        System.setProperty(DiContainer.REINJECT_LITERALS_SYSTEM_PROP_NAME, "true");  // @Rule SystemPropertyResourceで元に戻す
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testReinjectLiterals.xml"));
+        ReinjectableComponent reinjectable = container.getComponentByName("reinjectable");
+        Component3 referrer = container.getComponentByName("referrer");
+        assertThat(reinjectable.getInterval(), is(10));
+
+        System.setProperty("reinject.interval", "20");  // @Rule SystemPropertyResourceで元に戻す
+        container.reloadIncrementally();
+
+        assertThat(container.<ReinjectableComponent>getComponentByName("reinjectable"), sameInstance(reinjectable));
+        assertThat(container.<Component3>getComponentByName("referrer"), sameInstance(referrer));
+        assertThat(reinjectable.getInterval(), is(20));
+        assertThat(reinjectable.getLabel(), is("fixed"));
+        assertThat(reinjectable.getNotifications(), is(Collections.singletonList(Arrays.asList("interval"))));
+        assertThat(container.getRebuiltComponentNames(), not(CoreMatchers.hasItem("reinjectable")));
+        OnMemoryLogWriter.assertLogContains("writer.appLog",
+                "INFO ROOT changed literals were reinjected into carried over components. components = 1, properties = 1");
+    }
+
+    /**
+     * リテラルの再インジェクションを有効にした差分の再読み込みで、新しい世代の初期化に失敗した場合は、
+     * 引き継ぐ予定だったコンポーネントに変更されたリテラルが再インジェクションされないこと。
+     */
+    @Test
+    public void testReinjectLiteralsNotAppliedOnFailure() {
+        System.setProperty(DiContainer.REINJECT_LITERALS_SYSTEM_PROP_NAME, "true");  // @Rule SystemPropertyResourceで元に戻す
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testReinjectLiteralsInitializeFailure.xml"));
+        ReinjectableComponent reinjectable = container.getComponentByName("reinjectable");
+
+        System.setProperty("reinject.interval", "20");  // @Rule SystemPropertyResourceで元に戻す
+        System.setProperty("reinject.fail", "true");
+        try {
+            container.reloadIncrementally();
+            fail("例外が発生するはず");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("initialization failed."));
+        }
+        assertThat(container.<ReinjectableComponent>getComponentByName("reinjectable"), sameInstance(reinjectable));
+        assertThat(reinjectable.getInterval(), is(10));
+        assertThat(reinjectable.getNotifications().isEmpty(), is(true));
+
+        // 初期化に成功すれば、公開後に再インジェクションされる
+        System.setProperty("reinject.fail", "false");
+        container.reloadIncrementally();
+        assertThat(container.<ReinjectableComponent>getComponentByName("reinjectable"), sameInstance(reinjectable));
+        assertThat(reinjectable.getInterval(), is(20));
+        assertThat(reinjectable.getNotifications(), is(Collections.singletonList(Arrays.asList("interval"))));
+    }
+
+    /**
+     * condition属性が偽となるコンポーネント、List、Map、インポートは読み込まれず、クラスのロードも行われないこと。
+     * 条件の値は、環境設定ファイルの値をシステムプロパティで上書きした値となること。
+     */
+    @Test
+    public void testCondition() {
+        System.setProperty("condition.mode", "red");  // @Rule SystemPropertyResourceで元に戻す
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testCondition.xml"));
+
+        Component1 enabledByConfig = container.getComponentByName("enabledByConfig");
+        assertThat(enabledByConfig, not(nullValue()));
+        assertThat(container.getComponentByName("disabled"), nullValue());
+        assertThat(container.getComponentByName("imported"), nullValue());
+        assertThat(container.getComponentByName("bySystemProperty"), not(nullValue()));
+        assertThat(container.getComponentByName("byNotEquals"), nullValue());
+        assertThat(container.getComponentByName("disabledList"), nullValue());
+        assertThat(container.getComponentByName("disabledMap"), nullValue());
+
+        Component3 holder = container.getComponentByName("holder");
+        assertThat(holder.getListProp(), is(Arrays.<Object>asList(enabledByConfig)));
+        assertThat(holder.getMapProp(), nullValue());
+    }
+
+    /**
+     * システムプロパティの選択モードでは、環境設定ファイルに存在せずプレフィックスにも一致しないシステムプロパティは
+     * 条件の評価に使用されないこと。
+     */
+    @Test
+    public void testConditionInSelectiveMode() {
+        System.setProperty("nablarch.systemPropertyExternalizedLoader.selective", "true");  // @Rule SystemPropertyResourceで元に戻す
+        System.setProperty("condition.mode", "red");
+        System.setProperty("condition.import", "true");
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testCondition.xml"));
+
+        assertThat(container.getComponentByName("imported"), nullValue());
+        assertThat(container.getComponentByName("bySystemProperty"), not(nullValue()));
+        assertThat(container.getComponentByName("byNotEquals"), nullValue());
+    }
+
+    /**
+     * condition属性の形式が不正な場合は例外となること。
+     */
+    @Test
+    public void testConditionInvalid() {
+        try {
+            new DiContainer(new XmlComponentDefinitionLoader(
+                    "nablarch/core/repository/di/DiContainerTest/testConditionInvalid.xml"));
+            fail();
+        } catch (ConfigurationLoadException e) {
+            assertThat(e.getCause().getMessage(), is("invalid condition. condition = [${condition.mode} > 1]"));
+        }
+    }
+
+    /**
+     * コンバータが存在しない型は、従来通り例外となること。
+     */
+    @Test
+    public void testLiteralConverterNotFound() {
+        try {
+            new DiContainer(new XmlComponentDefinitionLoader(
+                    "nablarch/core/repository/di/DiContainerTest/testLiteralConverter.xml"));
+            fail();
+        } catch (ConfigurationLoadException e) {
+            assertThat(e.getMessage(), containsString("property type was not supported. class name = java.time.Duration"));
+        }
+    }
+
+    /**
+     * {@link LiteralStore}の値が、名前での参照と${}の解決に使用されること。
+     * ストアの値はコンポーネント定義として登録されず、{@link DiContainer#load()}に含まれないこと。
+     */
+    @Test
+    public void testLiteralStore() {
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testOffHeapLiteralStore.xml"));
+
+        Component1 comp1 = container.getComponentByName("comp1");
+        assertThat(comp1.getProp1(), is("value1-properties value2"));
+        assertThat((String) container.getComponentByName("offheap.key3"), is("値3"));
+        assertThat(container.getComponentByName("offheap.unknown"), nullValue());
+        assertThat(container.load().containsKey("offheap.key1"), is(false));
+    }
+
+    /**
+     * システムプロパティでJMXを有効にした場合、コンテナの状態を公開するMBeanが登録されること。
+     */
+    @Test
+    public void testMBean() throws Exception {
+        System.setProperty(DiContainer.JMX_SYSTEM_PROP_NAME, "true");  // @Rule SystemPropertyResourceで元に戻す
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testLoadAutowireByType.xml"));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = container.getMBeanName();
+        try {
+            assertThat(name.getKeyProperty("type"), is("DiContainer"));
+            assertThat(server.isRegistered(name), is(true));
+            assertThat((Integer) server.getAttribute(name, "NameIndexSize"), is(container.load().size()));
+            assertThat((Long) server.getAttribute(name, "ReloadCount"), is(1L));
+
+            container.reload();
+            assertThat((Long) server.getAttribute(name, "ReloadCount"), is(2L));
+
+            DiContainerMXBean mbean = JMX.newMXBeanProxy(server, name, DiContainerMXBean.class);
+            assertThat(mbean.getComponentStateCounts().get("INJECTED"), is(mbean.getHolderCount()));
+            assertThat(mbean.getComponentStateCounts().get("NOT_INSTANTIATE"), is(0));
+            assertThat(mbean.getMultiRegisteredTypes().contains("java.lang.Object"), is(false));
+            assertThat(mbean.dumpReferenceGraph(), allOf(
+                    containsString("#0 comp1 (nablarch.core.repository.di.test.Component1) INJECTED\n"),
+                    containsString(" comp2 (nablarch.core.repository.di.test.Component2) INJECTED [BY_TYPE]\n"),
+                    containsString("  intArrayProp -> (unresolved) [BY_TYPE]\n")));
+        } finally {
+            container.dispose();
+        }
+        // 破棄するとMBeanの登録が解除される
+        assertThat(server.isRegistered(name), is(false));
+        assertThat(container.getMBeanName(), is(nullValue()));
+    }
+
+    /**
+     * 破棄されずにガベージコレクションされたコンテナのMBeanは、登録が解除されること。
+     */
+    @Test
+    public void testMBeanOfCollectedContainer() throws Exception {
+        System.setProperty(DiContainer.JMX_SYSTEM_PROP_NAME, "true");  // @Rule SystemPropertyResourceで元に戻す
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testLoadAutowireByType.xml"));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = container.getMBeanName();
+        WeakReference<DiContainer> ref = new WeakReference<DiContainer>(container);
+        container = null;
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+        Assume.assumeThat(ref.get(), is(nullValue()));
+
+        if (server.isRegistered(name)) {
+            try {
+                server.getAttribute(name, "HolderCount");
+                fail();
+            } catch (RuntimeMBeanException e) {
+                assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+            }
+        }
+        assertThat(server.isRegistered(name), is(false));
+    }
+
+    /**
+     * システムプロパティで取得回数の集計を有効にした場合、読み込み完了後の取得回数と取得元が集計されること。
+     */
+    @Test
+    public void testLookupStatistics() throws Exception {
+        System.setProperty(DiContainer.JMX_SYSTEM_PROP_NAME, "true");  // @Rule SystemPropertyResourceで元に戻す
+        System.setProperty(DiContainer.LOOKUP_STATISTICS_SYSTEM_PROP_NAME, "true");
+        System.setProperty(DiContainer.LOOKUP_SAMPLE_INTERVAL_SYSTEM_PROP_NAME, "1");
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testLoadAutowireByType.xml"));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = container.getMBeanName();
+        try {
+            DiContainerMXBean mbean = JMX.newMXBeanProxy(server, name, DiContainerMXBean.class);
+            // 読み込み中のインジェクションは集計しない
+            assertThat(mbean.dumpLookupStatistics(10), is("lookup count, component (sampling interval = 1)\n"));
+
+            for (int i = 0; i < 3; i++) {
+                container.getComponentByName("comp1");
+            }
+            container.getComponentByType(Component2.class);
+
+            String report = mbean.dumpLookupStatistics(10);
+            assertThat(report, allOf(
+                    containsString("3 comp1 (nablarch.core.repository.di.test.Component1)\n"
+                            + "  sampled 3 at nablarch.core.repository.di.DiContainerTest.testLookupStatistics("),
+                    containsString("1 comp2 (nablarch.core.repository.di.test.Component2)\n")));
+            assertThat(report.indexOf("comp1") < report.indexOf("comp2"), is(true));
+            assertThat(mbean.dumpLookupStatistics(1), not(containsString("comp2")));
+
+            mbean.resetLookupStatistics();
+            assertThat(mbean.dumpLookupStatistics(10), is("lookup count, component (sampling interval = 1)\n"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    /**
+     * 除外の起点を指定した場合、起点から到達できないコンポーネントが登録から除外されること。
+     */
+    @Test
+    public void testPruning() {
+        System.setProperty(DiContainer.PRUNING_ROOTS_SYSTEM_PROP_NAME, " root ,");  // @Rule SystemPropertyResourceで元に戻す
+        System.setProperty("pruning.test", "system property value");
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testPruning.xml"));
+
+        Component3 root = container.getComponentByName("root");
+        Component1 comp1 = (Component1) root.getListProp().get(0);
+        // 型による自動インジェクションの参照先も到達できる
+        assertThat(comp1.getComponent2(), sameInstance(container.<Object>getComponentByName("comp2")));
+        assertThat(container.getComponentByName("unused"), nullValue());
+        assertThat(container.getComponentByName("unused2"), nullValue());
+        assertThat(container.getComponentByType(Component8.class), nullValue());
+        // 作成済みのオブジェクト(システムプロパティなど)は除外しない
+        assertThat((String) container.getComponentByName("pruning.test"), is("system property value"));
+        assertThat(container.getPrunedComponentNames(), is(Arrays.asList("unused", "unused2")));
+        OnMemoryLogWriter.assertLogContains("writer.appLog",
+                "INFO ROOT unreachable components were pruned. roots = [root]");
+    }
+
+    /**
+     * 除外の起点に存在しないコンポーネントを指定した場合、例外が発生すること。
+     */
+    @Test
+    public void testPruningRootNotFound() {
+        System.setProperty(DiContainer.PRUNING_ROOTS_SYSTEM_PROP_NAME, "notFound");  // @Rule SystemPropertyResourceで元に戻す
+        try {
+            new DiContainer(new XmlComponentDefinitionLoader(
+                    "nablarch/core/repository/di/DiContainerTest/testPruning.xml"));
+            fail("例外が発生するはず");
+        } catch (ContainerProcessException e) {
+            assertThat(e.getMessage(), is("pruning root component was not found. component name = [notFound]"));
+        }
+    }
+
+    /**
+     * load()の結果がコピーされずに同じビューが返され、再読み込み後は新しいビューとなること。
+     */
+    @Test
+    public void testLoadReturnsReadOnlyView() {
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testLoadAutowireByType.xml"));
+
+        Map<String, Object> loaded = container.load();
+        assertThat(container.load(), is(sameInstance(loaded)));
+        Object comp1 = loaded.get("comp1");
+        assertThat(comp1, is(sameInstance(container.getComponentByName("comp1"))));
+        assertThat(loaded.containsKey("comp2"), is(true));
+        assertThat(loaded.get("notFound"), is(nullValue()));
+        try {
+            loaded.put("comp3", "value");
+            fail("例外が発生するはず");
+        } catch (UnsupportedOperationException e) {
+            // OK
+        }
+        try {
+            loaded.remove("comp1");
+            fail("例外が発生するはず");
+        } catch (UnsupportedOperationException e) {
+            // OK
+        }
+
+        container.reload();
+        assertThat(container.load(), is(not(sameInstance(loaded))));
+        assertThat(container.load().get("comp1"), is(not(sameInstance(comp1))));
+        // 再読み込み前に取得したビューは、再読み込み前のコンポーネントを参照する
+        assertThat(loaded.get("comp1"), is(sameInstance(comp1)));
+    }
+
+    /**
+     * 設定ファイルの値が1件ずつ登録され、同じキーは後の値で置き換えられること。
+     */
+    @Test
+    public void testStreamingObjectLoader() {
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testStreamingObjectLoader.xml"));
+
+        assertThat(container.<String>getComponentByName("key1"), is("value1-2"));
+        assertThat(container.<String>getComponentByName("key2"), is("value2"));
+        // 置き換えられた値はコンポーネントとして残らない
+        assertThat(container.load().containsValue("value1"), is(false));
+        OnMemoryLogWriter.assertLogContains("writer.appLog", "WARN ROOT duplicate key [key1]. change [value1] to [value1-2]");
+    }
+
+    /**
+     * 自動インジェクションの参照先が読み込み時に解決され、解決できたプロパティのみが記録されること。
+     */
+    @Test
+    public void testAutowireReport() {
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testLoadAutowireByType.xml"));
+
+        assertThat(container.getAutowireReport(), is(Arrays.asList("comp1.component2 <- comp2 [BY_TYPE]")));
+        Component1 comp1 = container.getComponentByName("comp1");
+        assertThat(comp1.getComponent2(), is(sameInstance(container.<Component2>getComponentByName("comp2"))));
+    }
+
+    /**
+     * リテラル値がコンポーネント定義として登録されず、参照からインジェクションされること。
+     */
+    @Test
+    public void testLiteralIsInjectedWithoutComponentDefinition() {
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testLoadAutowireByType.xml"));
+
+        Component1 comp1 = container.getComponentByName("comp1");
+        assertThat(comp1.getProp1(), is("string value"));
+        assertThat(comp1.getComponent2().getProp1(), is("prop2"));
+        for (ComponentReferenceGraph.Node node : container.createReferenceGraph().getNodes()) {
+            // 名前のないコンポーネント(リテラル値)は存在しない
+            assertThat(node.getName() != null, is(true));
+        }
+    }
+
+    /**
+     * デフォルトではMBeanが登録されないこと。
+     */
+    @Test
+    public void testMBeanIsNotRegisteredByDefault() {
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testLoadAutowireByType.xml"));
+        assertThat(container.getMBeanName(), nullValue());
+    }
+
+    /**
+     * コンテナに登録された値(システムプロパティ)が、{@link LiteralStore}の値より優先されること。
+     */
+    @Test
+    public void testLiteralStoreOverriddenBySystemProperty() {
+        System.setProperty("offheap.key1", "overridden");  // @Rule SystemPropertyResourceで元に戻す
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testOffHeapLiteralStore.xml"));
+
+        Component1 comp1 = container.getComponentByName("comp1");
+        assertThat(comp1.getProp1(), is("overridden-properties value2"));
+        assertThat((String) container.getComponentByName("offheap.key1"), is("overridden"));
+    }
+
+    /**
+     * システムプロパティの選択モードでも、{@link LiteralStore}の値を上書きするシステムプロパティはロードされること。
+     */
+    @Test
+    public void testLiteralStoreOverriddenBySystemPropertyInSelectiveMode() {
+        System.setProperty("nablarch.systemPropertyExternalizedLoader.selective", "true");  // @Rule SystemPropertyResourceで元に戻す
+        System.setProperty("offheap.key1", "overridden");
+        System.setProperty("unused.key", "unused");
+        DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testOffHeapLiteralStore.xml"));
+
+        Component1 comp1 = container.getComponentByName("comp1");
+        assertThat(comp1.getProp1(), is("overridden-properties value2"));
+        assertThat(container.getComponentByName("unused.key"), nullValue());
+        assertThat(container.getComponentByName("java.version"), nullValue());
+    }
+
+    /**
+     * config-file要素のdir属性のテスト。
+     * <p/>
+     * 並列に読み込んだ場合でも、設定ファイルローダの定義の型とコンポーネントが元の設定ファイルローダのままであることを確認。
+     */
+    @Test
+    public void testLoadFromDirKeepsConfigFileLoaderType() {
+        XmlComponentDefinitionLoader loader = new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/loadPropertyFileFromDirInOrder/test.xml");
+        DiContainer container = new DiContainer(loader);
+
+        int count = 0;
+        for (ComponentDefinition def : loader.load(container)) {
+            if (ObjectLoader.class.isAssignableFrom(def.getType())) {
+                assertThat(def.getType().getName(), is(ConfigFileLoader.class.getName()));
+                assertThat(def.getCreator().createComponent(container, def), instanceOf(ConfigFileLoader.class));
+                count++;
+            }
+        }
+        assertThat(count, is(12));
+    }
+
+    /**
+     * config-file要素のdir属性で先読みした読み込み結果が、コンテナへの登録後に定義から解放されること。
+     * dir属性を指定しない設定ファイルは先読みしないこと。
+     */
+    @Test
+    public void testPreloadedEntriesReleasedAfterRegistration() {
+        final List<ComponentDefinition> definitions = new ArrayList<ComponentDefinition>();
+        final XmlComponentDefinitionLoader dirLoader = new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/loadPropertyFileFromDirInOrder/test.xml");
+        new DiContainer(new ComponentDefinitionLoader() {
+            @Override
+            public List<ComponentDefinition> load(DiContainer container) {
+                List<ComponentDefinition> loaded = dirLoader.load(container);
+                definitions.addAll(loaded);
+                return loaded;
+            }
+        });
+        int count = 0;
+        for (ComponentDefinition def : definitions) {
+            if (def.getCreator() instanceof PreloadedObjectLoaderCreator) {
+                assertThat(((PreloadedObjectLoaderCreator) def.getCreator()).releasePreloaded(), nullValue());
+                count++;
+            }
+        }
+        assertThat(count, is(12));
+
+        XmlComponentDefinitionLoader fileLoader = new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/di/DiContainerTest/testCondition.xml");
+        for (ComponentDefinition def : fileLoader.load(new DiContainer(fileLoader))) {
+            assertThat(def.getCreator(), not(instanceOf(PreloadedObjectLoaderCreator.class)));
+        }
+    }
+
     @Test
     public void testLoadNestedFile() throws Throwable {
         XmlComponentDefinitionLoader loader = new XmlComponentDefinitionLoader(
@@ -0,0 +1,62 @@
+package nablarch.core.repository.di;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * {@link StringPool}のテスト。
+ */
+public class StringPoolTest {
+
+    /**
+     * 同じ内容の文字列が最初に登録したインスタンスに集約されること。
+     */
+    @Test
+    public void testDeduplicate() {
+        StringPool sut = new StringPool(true);
+        String first = new String("value");
+        String second = new String("value");
+        assertThat(second, not(sameInstance(first)));
+
+        assertThat(sut.deduplicate(first), sameInstance(first));
+        assertThat(sut.deduplicate(second), sameInstance(first));
+        assertThat(sut.deduplicate(first), sameInstance(first));
+
+        assertThat(sut.size(), is(1));
+        assertThat(sut.getDeduplicatedCount(), is(1L));
+        // 40バイト(オーバーヘッド) + 5文字(Latin-1) を8バイト境界に切り上げ
+        assertThat(sut.getSavedBytes(), is(48L));
+    }
+
+    /**
+     * Latin-1で表現できない文字列は1文字2バイトで見積もられること。
+     */
+    @Test
+    public void testSavedBytesForNonLatin1() {
+        StringPool sut = new StringPool(true);
+        sut.deduplicate(new String("値値値値値"));
+        sut.deduplicate(new String("値値値値値"));
+        assertThat(sut.getSavedBytes(), is(56L));
+    }
+
+    /**
+     * 無効な場合は引数がそのまま返されること。
+     */
+    @Test
+    public void testDisabled() {
+        StringPool sut = new StringPool(false);
+        String first = new String("value");
+        String second = new String("value");
+
+        assertThat(sut.deduplicate(first), sameInstance(first));
+        assertThat(sut.deduplicate(second), sameInstance(second));
+        assertThat(sut.deduplicate(null), is(nullValue()));
+        assertThat(sut.size(), is(0));
+        assertThat(sut.getDeduplicatedCount(), is(0L));
+    }
+}
@@ -0,0 +1,93 @@
+package nablarch.core.repository.di.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import nablarch.core.repository.di.ConfigurationLoadException;
+import nablarch.core.repository.di.test.DurationLiteralConverter;
+import org.junit.Test;
+
+/**
+ * {@link LiteralConverterRegistry}のテスト。
+ */
+public class LiteralConverterRegistryTest {
+
+    private final LiteralConverterRegistry sut = new LiteralConverterRegistry(
+            Collections.<LiteralConverter>emptyList());
+
+    /**
+     * 標準のコンバータで変換できること。
+     */
+    @Test
+    public void testBuiltInConverters() {
+        assertThat((String) convert("abc", String.class), is("abc"));
+        assertThat((Boolean) convert("true", boolean.class), is(true));
+        assertThat((Boolean) convert("TRUE", Boolean.class), is(true));
+        assertThat((Boolean) convert("yes", Boolean.class), is(false));
+        assertThat((Integer) convert("10", int.class), is(10));
+        assertThat((Integer) convert("-1", Integer.class), is(-1));
+        assertThat((Long) convert("10000000000", long.class), is(10000000000L));
+        assertThat((Long) convert("1", Long.class), is(1L));
+        assertArrayEquals(new String[] {"a", "b", ""}, (String[]) convert(" a, b ,", String[].class));
+        assertArrayEquals(new int[] {1, 2, 3}, (int[]) convert("1, 2 ,3", int[].class));
+        assertArrayEquals(new Integer[] {1, 2}, (Integer[]) convert("1,2", Integer[].class));
+    }
+
+    /**
+     * 数値に変換できない場合は、標準の変換と同じ例外となること。
+     */
+    @Test
+    public void testConversionFailure() {
+        try {
+            convert("a", int.class);
+            fail();
+        } catch (NumberFormatException e) {
+            // OK
+        }
+        try {
+            convert("1,a", int[].class);
+            fail();
+        } catch (ConfigurationLoadException e) {
+            assertThat(e.getMessage(), is("property value conversion failed. class name = [I ,value = a"));
+        }
+    }
+
+    /**
+     * 変換できない型は、変換時に例外となること。
+     */
+    @Test
+    public void testUnsupportedType() {
+        LiteralConverter converter = sut.getConverter(long[].class);
+        try {
+            converter.convert("1", long[].class);
+            fail();
+        } catch (ConfigurationLoadException e) {
+            assertThat(e.getMessage(), is("property type was not supported. class name = [J"));
+        }
+    }
+
+    /**
+     * 追加したコンバータは標準のコンバータの後に検索され、型ごとの検索結果がキャッシュされること。
+     */
+    @Test
+    public void testCustomConverter() {
+        LiteralConverterRegistry registry = new LiteralConverterRegistry(
+                Arrays.asList(new DurationLiteralConverter()));
+
+        LiteralConverter converter = registry.getConverter(Duration.class);
+        assertThat((Duration) converter.convert("PT1M", Duration.class), is(Duration.ofMinutes(1)));
+        assertThat(registry.getConverter(Duration.class), sameInstance(converter));
+        assertThat((String) registry.getConverter(String.class).convert("abc", String.class), is("abc"));
+    }
+
+    private Object convert(String value, Class<?> type) {
+        return sut.getConverter(type).convert(value, type);
+    }
+}
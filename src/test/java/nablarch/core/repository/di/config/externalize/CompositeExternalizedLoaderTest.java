@@ -1,11 +1,13 @@
 package nablarch.core.repository.di.config.externalize;
 
 import nablarch.core.repository.di.ComponentDefinition;
+import nablarch.core.repository.di.ComponentHolder;
 import nablarch.core.repository.di.DiContainer;
 import nablarch.core.repository.di.SimpleComponentDefinitionLoader;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +15,9 @@ import java.util.Map;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.hasKey;
+import static org.junit.Assert.fail;
 
 /**
  * {@link CompositeExternalizedLoader}のテスト。
@@ -71,4 +76,36 @@ public class CompositeExternalizedLoaderTest {
         assertThat(loadedComponentsInSecondLoader, hasEntry("three", (Object)"THREE(loaded)"));
         assertThat(loadedComponentsInSecondLoader, hasEntry("four", (Object)"FOUR(firstLoader)"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLoadedComponentsAreNotCopiedNorModified() {
+        firstLoader.put("one", "ONE(firstLoader)");
+        firstLoader.put("four", "FOUR(firstLoader)");
+        final List<Map<String, ComponentHolder>> views = new ArrayList<Map<String, ComponentHolder>>();
+        ExternalizedComponentDefinitionLoader capturingLoader = new ExternalizedComponentDefinitionLoader() {
+            @Override
+            public List<ComponentDefinition> load(DiContainer container, Map<String, ComponentHolder> loadedComponents) {
+                views.add(loadedComponents);
+                return new ArrayList<ComponentDefinition>();
+            }
+        };
+        sut = new CompositeExternalizedLoader(
+                Arrays.<ExternalizedComponentDefinitionLoader>asList(firstLoader, capturingLoader));
+        Map<String, ComponentHolder> loadedComponents = loadedComponentsBuilder.build();
+
+        sut.load(container, loadedComponents);
+
+        assertThat(extractor.toMap(loadedComponents).size(), is(3));
+        assertThat(loadedComponents, not(hasKey("four")));
+        Map<String, ComponentHolder> view = views.get(0);
+        assertThat(view.size(), is(4));
+        assertThat(view.containsKey("four"), is(true));
+        assertThat(extractor.toMap(view), hasEntry("one", (Object)"ONE(firstLoader)"));
+        try {
+            view.put("five", view.get("one"));
+            fail("読み取り専用のはず");
+        } catch (UnsupportedOperationException e) {
+            // OK
+        }
+    }
+}
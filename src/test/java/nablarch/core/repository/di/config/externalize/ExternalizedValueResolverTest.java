@@ -0,0 +1,89 @@
+package nablarch.core.repository.di.config.externalize;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import nablarch.core.repository.test.SystemPropertyResource;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * {@link ExternalizedValueResolver}のテスト。
+ */
+public class ExternalizedValueResolverTest {
+
+    @Rule
+    public final SystemPropertyResource systemPropertyResource = new SystemPropertyResource();
+
+    /**
+     * システムプロパティは、読み込み済みの値の有無によらず値を上書きすること。
+     */
+    @Test
+    public void testSystemProperty() {
+        System.setProperty("resolver.key", "system");  // @Rule SystemPropertyResourceで元に戻す
+        SystemPropertyExternalizedLoader loader = new SystemPropertyExternalizedLoader();
+
+        assertThat(ExternalizedValueResolver.resolve(loader, "resolver.key", "config"), is("system"));
+        assertThat(ExternalizedValueResolver.resolve(loader, "resolver.key", null), is("system"));
+        assertThat(ExternalizedValueResolver.resolve(loader, "resolver.unknown", "config"), is("config"));
+    }
+
+    /**
+     * 選択モードでは、読み込み済みの値がなくプレフィックスにも一致しないシステムプロパティで上書きしないこと。
+     */
+    @Test
+    public void testSystemPropertyInSelectiveMode() {
+        System.setProperty(SystemPropertyExternalizedLoader.SELECTIVE_SYSTEM_PROP_NAME, "true");
+        System.setProperty(SystemPropertyExternalizedLoader.PREFIXES_SYSTEM_PROP_NAME, "app.");
+        System.setProperty("resolver.key", "system");
+        System.setProperty("app.key", "prefixed");
+        SystemPropertyExternalizedLoader loader = new SystemPropertyExternalizedLoader();
+
+        assertThat(ExternalizedValueResolver.resolve(loader, "resolver.key", "config"), is("system"));
+        assertThat(ExternalizedValueResolver.resolve(loader, "resolver.key", null), nullValue());
+        assertThat(ExternalizedValueResolver.resolve(loader, "app.key", null), is("prefixed"));
+    }
+
+    /**
+     * OS環境変数は、名前を変換して検索し、読み込み済みの値のみを上書きすること。
+     */
+    @Test
+    public void testOsEnvironmentVariable() {
+        Map<String, String> env = new HashMap<String, String>();
+        env.put("RESOLVER_FOO_BAR", "env");
+        env.put("resolver.foo-bar", "not used");
+        OsEnvironmentVariableExternalizedLoader loader = new OsEnvironmentVariableExternalizedLoader(env);
+
+        assertThat(ExternalizedValueResolver.resolve(loader, "resolver.foo-bar", "config"), is("env"));
+        assertThat(ExternalizedValueResolver.resolve(loader, "resolver.foo-bar", null), nullValue());
+        assertThat(ExternalizedValueResolver.resolve(loader, "resolver.other", "config"), is("config"));
+    }
+
+    /**
+     * 組み合わせたローダーの順に上書きし、それ以外のローダーは値を上書きしないこと。
+     */
+    @Test
+    public void testComposite() {
+        System.setProperty("resolver.key", "system");
+        Map<String, String> env = new HashMap<String, String>();
+        env.put("RESOLVER_KEY", "env");
+        List<ExternalizedComponentDefinitionLoader> loaders = Arrays.<ExternalizedComponentDefinitionLoader>asList(
+                new SystemPropertyExternalizedLoader(),
+                new OsEnvironmentVariableExternalizedLoader(env),
+                new SimpleExternalizedLoader());
+
+        assertThat(ExternalizedValueResolver.resolve(new CompositeExternalizedLoader(loaders), "resolver.key", null),
+                is("env"));
+        assertThat(ExternalizedValueResolver.resolve(new CompositeExternalizedLoader(
+                Arrays.<ExternalizedComponentDefinitionLoader>asList(loaders.get(1), loaders.get(0))),
+                "resolver.key", "config"), is("system"));
+        assertThat(ExternalizedValueResolver.resolve(new SimpleExternalizedLoader(), "resolver.key", "config"),
+                is("config"));
+    }
+}
@@ -62,6 +62,37 @@ public class OsEnvironmentVariableExternalizedLoaderTest {
         assertThat(result, hasEntry("foo.bar-fizz.buzz", (Object)"override!"));
     }
 
+    @Test
+    public void testOverriderFindsValueAmongEnvNamesWithSameHashCode() {
+        // "AaAa"と"BBBB"はString#hashCode()が一致する
+        loadedComponentsBuilder.put("bbbb", "original value");
+        loadedComponentsBuilder.put("aaaa", "original value");
+        loadedComponentsBuilder.put("longer.name", "original value");
+        env.put("AaAa", "not override...");
+        env.put("BBBB", "override!");
+        sut = new OsEnvironmentVariableExternalizedLoader(env);
+
+        Map<String, Object> result = extractor.toMap(sut.load(container, loadedComponentsBuilder.build()));
+
+        assertThat(result.size(), is(1));
+        assertThat(result, hasEntry("bbbb", (Object)"override!"));
+    }
+
+    @Test
+    public void testOverriderConvertsNonAsciiNameWithToUpperCase() {
+        loadedComponentsBuilder.put("café.name", "original value");
+        loadedComponentsBuilder.put("straße", "original value");
+        env.put("CAFÉ_NAME", "override!");
+        env.put("STRASSE", "override too!");
+        sut = new OsEnvironmentVariableExternalizedLoader(env);
+
+        Map<String, Object> result = extractor.toMap(sut.load(container, loadedComponentsBuilder.build()));
+
+        assertThat(result.size(), is(2));
+        assertThat(result, hasEntry("café.name", (Object)"override!"));
+        assertThat(result, hasEntry("straße", (Object)"override too!"));
+    }
+
     @Test
     public void testLogAnEntryKeyIfOsEnvironmentVariableOverridesLoadedObjects() {
         loadedComponentsBuilder.put("first", "original");
@@ -74,4 +74,50 @@ public class SystemPropertyExternalizedLoaderTest {
                         "system property can override literal value only. key = [first] , previous class = [java.lang.Object]"));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSelectiveModeLoadsOnlyOverridingAndPrefixedProperties() {
+        System.setProperty(SystemPropertyExternalizedLoader.PREFIXES_SYSTEM_PROP_NAME, " app. , batch.,");
+        setUpSelectiveMode();
+        loadedComponentsBuilder.put("first", "FIRST");
+        System.setProperty("first", "OVERRIDE");
+        System.setProperty("second", "SECOND");
+        System.setProperty("app.third", "THIRD");
+        System.setProperty("batch.fourth", "FOURTH");
+
+        Map<String, Object> result = extractor.toMap(sut.load(container, loadedComponentsBuilder.build()));
+
+        assertThat(result.size(), is(3));
+        assertThat(result, hasEntry("first", (Object)"OVERRIDE"));
+        assertThat(result, hasEntry("app.third", (Object)"THIRD"));
+        assertThat(result, hasEntry("batch.fourth", (Object)"FOURTH"));
+        assertThat(result, not(hasKey("java.version")));
+        assertThat(OnMemoryLogWriter.getMessages("writer.appLog"), Matchers.<String>hasItem(
+                containsString("value was overridden by system property.  "
+                        + "key = first, previous value = [FIRST], new value = [OVERRIDE]")));
+    }
+
+    @Test
+    public void testSelectiveModeWithoutPrefixes() {
+        setUpSelectiveMode();
+        loadedComponentsBuilder.put("first", "FIRST");
+        System.setProperty("first", "OVERRIDE");
+        System.setProperty("second", "SECOND");
+
+        Map<String, Object> result = extractor.toMap(sut.load(container, loadedComponentsBuilder.build()));
+
+        assertThat(result.size(), is(1));
+        assertThat(result, hasEntry("first", (Object)"OVERRIDE"));
+    }
+
+    /**
+     * 選択モードを有効にし、選択モードで構築したコンテナを使用する。
+     * (デフォルトのモードで構築したコンテナには、すべてのシステムプロパティが登録されているため)
+     */
+    private void setUpSelectiveMode() {
+        System.setProperty(SystemPropertyExternalizedLoader.SELECTIVE_SYSTEM_PROP_NAME, "true");
+        container = new DiContainer(new SimpleComponentDefinitionLoader());
+        loadedComponentsBuilder = new LoadedComponentsBuilder(container);
+        extractor = new ComponentValueExtractor(container);
+    }
+}
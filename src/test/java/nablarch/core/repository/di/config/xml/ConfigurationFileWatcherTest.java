@@ -0,0 +1,126 @@
+package nablarch.core.repository.di.config.xml;
+
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import nablarch.core.repository.di.DiContainer;
+import nablarch.core.repository.di.test.Component2;
+import nablarch.core.util.FileUtil;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * {@link ConfigurationFileWatcher}のテスト。
+ */
+public class ConfigurationFileWatcherTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File xmlFile;
+
+    private File configFile;
+
+    private XmlComponentDefinitionLoader loader;
+
+    private DiContainer container;
+
+    private ConfigurationFileWatcher watcher;
+
+    @Before
+    public void setUp() throws Exception {
+        configFile = temporaryFolder.newFile("app.config");
+        write(configFile, "key1=value1\n");
+        xmlFile = temporaryFolder.newFile("component.xml");
+        write(xmlFile, "<component-configuration xmlns=\"http://tis.co.jp/nablarch/component-configuration\">\n"
+                + "  <config-file file=\"" + configFile.toURI() + "\" />\n"
+                + "</component-configuration>\n");
+        loader = new XmlComponentDefinitionLoader(xmlFile.toURI().toString());
+        container = new DiContainer(loader);
+    }
+
+    @After
+    public void tearDown() {
+        if (watcher != null) {
+            watcher.stop();
+        }
+    }
+
+    /**
+     * ローダが読み込んだファイルが記録されること。
+     */
+    @Test
+    public void testLoadedFiles() {
+        assertThat(loader.getLoadedFiles(), hasItems(xmlFile.getAbsoluteFile(), configFile.getAbsoluteFile()));
+    }
+
+    /**
+     * 設定ファイルの連続した変更が1回の再読み込みにまとめられ、再読み込み後の値が取得できること。
+     */
+    @Test
+    public void testReloadOnChange() throws Exception {
+        watcher = new ConfigurationFileWatcher(container, loader, 1000L);
+        watcher.start();
+        assertThat(container.<String>getComponentByName("key1"), is("value1"));
+
+        write(configFile, "key1=value2\n");
+        write(configFile, "key1=value3\n");
+        write(configFile, "key1=value4\n");
+
+        long deadline = System.currentTimeMillis() + 30000L;
+        while (watcher.getReloadCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50L);
+        }
+        assertThat(watcher.getReloadCount(), is(1L));
+        assertThat(watcher.getLastReloadMillis() >= 0, is(true));
+        assertThat(container.<String>getComponentByName("key1"), is("value4"));
+    }
+
+    /**
+     * パース結果のキャッシュが有効な場合でも、最終更新日時とサイズが変わらない変更が再読み込みで反映されること。
+     */
+    @Test
+    public void testParseCacheDetectsSameSizeChange() throws Exception {
+        File componentFile = temporaryFolder.newFile("literal.xml");
+        write(componentFile, "<component-configuration xmlns=\"http://tis.co.jp/nablarch/component-configuration\">\n"
+                + "  <import file=\"" + xmlFile.toURI() + "\" />\n"
+                + "  <component name=\"comp\" class=\"nablarch.core.repository.di.test.Component2\">\n"
+                + "    <property name=\"prop1\" value=\"1\" />\n"
+                + "  </component>\n"
+                + "</component-configuration>\n");
+        XmlComponentDefinitionLoader cachedLoader = new XmlComponentDefinitionLoader(componentFile.toURI().toString());
+        cachedLoader.enableParseCache();
+        DiContainer cachedContainer = new DiContainer(cachedLoader);
+        assertThat(cachedContainer.<Component2>getComponentByName("comp").getProp1(), is("1"));
+
+        long lastModified = componentFile.lastModified();
+        long length = componentFile.length();
+        String content = new String(Files.readAllBytes(componentFile.toPath()), "UTF-8");
+        write(componentFile, content.replace("value=\"1\"", "value=\"2\""));
+        assertThat(componentFile.setLastModified(lastModified), is(true));
+        assertThat(componentFile.length(), is(length));
+
+        cachedContainer.reload();
+        assertThat(cachedContainer.<Component2>getComponentByName("comp").getProp1(), is("2"));
+    }
+
+    private static void write(File file, String content) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            FileUtil.closeQuietly(out);
+        }
+    }
+}
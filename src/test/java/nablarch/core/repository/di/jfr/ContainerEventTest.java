@@ -0,0 +1,81 @@
+package nablarch.core.repository.di.jfr;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import nablarch.core.repository.di.DiContainer;
+import nablarch.core.repository.di.config.xml.XmlComponentDefinitionLoader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * {@link nablarch.core.repository.di.jfr}パッケージのイベントのテスト。
+ */
+public class ContainerEventTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * コンテナの読み込みとコンポーネントの取得がJFRのイベントとして記録されること。
+     */
+    @Test
+    public void testEventsAreRecorded() throws Exception {
+        List<RecordedEvent> events;
+        Recording recording = new Recording();
+        try {
+            recording.enable(ReloadPhaseEvent.NAME);
+            recording.enable(DefinitionFileLoadEvent.NAME);
+            recording.enable(ComponentLookupEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+            assertThat(ComponentLookupEvent.isLookupEnabled(), is(true));
+
+            DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                    "nablarch/core/repository/di/DiContainerTest/testLoadNestedFile.xml"));
+            container.getComponentByName("comp2");
+
+            recording.stop();
+            File file = temporaryFolder.newFile("events.jfr");
+            recording.dump(file.toPath());
+            events = RecordingFile.readAllEvents(file.toPath());
+        } finally {
+            recording.close();
+        }
+        // 記録が終了すると、取得のイベントは生成されない
+        assertThat(ComponentLookupEvent.isLookupEnabled(), is(false));
+
+        List<String> phases = new ArrayList<String>();
+        List<String> files = new ArrayList<String>();
+        List<String> lookups = new ArrayList<String>();
+        for (RecordedEvent event : events) {
+            String name = event.getEventType().getName();
+            if (name.equals(ReloadPhaseEvent.NAME)) {
+                phases.add(event.getString("phase"));
+            } else if (name.equals(DefinitionFileLoadEvent.NAME)) {
+                files.add(event.getString("file"));
+            } else if (name.equals(ComponentLookupEvent.NAME)) {
+                lookups.add(event.getString("lookupBy") + ":" + event.getString("key"));
+            }
+        }
+
+        assertThat(phases, hasItems("LOAD_DEFINITIONS", "REGISTER_DEFINITIONS", "LOAD_OBJECT_LOADERS",
+                "OVERRIDE_EXTERNALIZED", "CREATE_COMPONENTS", "INJECT_COMPONENTS"));
+        // 初期化対象クラスが定義されていない場合は記録しない
+        assertThat(phases.contains("INITIALIZE"), is(false));
+        assertThat(files, hasItems(
+                "classpath:nablarch/core/repository/di/DiContainerTest/testLoadNestedFile.xml",
+                "classpath:nablarch/core/repository/di/DiContainerTest/testLoadNestedFile-nest.xml"));
+        assertThat(lookups, hasItem("name:comp2"));
+    }
+}
@@ -0,0 +1,14 @@
+package nablarch.core.repository.di.test;
+
+public class Component9 implements SubInterface1 {
+
+    private String message;
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String test() {
+        return message;
+    }
+}
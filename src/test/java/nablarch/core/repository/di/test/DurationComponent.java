@@ -0,0 +1,26 @@
+package nablarch.core.repository.di.test;
+
+import java.time.Duration;
+
+public class DurationComponent {
+
+    private Duration timeout;
+
+    private String name;
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,26 @@
+package nablarch.core.repository.di.test;
+
+import java.time.Duration;
+
+import nablarch.core.repository.di.config.LiteralConverter;
+
+/**
+ * {@link Duration}に変換するテスト用のコンバータ。
+ * <p/>
+ * 標準のコンバータが優先されることを確認するため、{@link String}も変換対象とする。
+ */
+public class DurationLiteralConverter implements LiteralConverter {
+
+    @Override
+    public boolean isConvertible(Class<?> type) {
+        return type == Duration.class || type == String.class;
+    }
+
+    @Override
+    public Object convert(String value, Class<?> type) {
+        if (type == String.class) {
+            return "converted by custom converter";
+        }
+        return Duration.parse(value);
+    }
+}
@@ -0,0 +1,11 @@
+package nablarch.core.repository.di.test;
+
+import nablarch.core.repository.initialization.Initializable;
+
+public class FailingInitializable implements Initializable {
+
+    @Override
+    public void initialize() {
+        throw new IllegalStateException("initialization failed.");
+    }
+}
@@ -0,0 +1,47 @@
+package nablarch.core.repository.di.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nablarch.core.repository.di.ComponentDefinition;
+import nablarch.core.repository.di.ContainerLifecycleListener;
+import nablarch.core.repository.di.DiContainer;
+
+/**
+ * 通知された内容を記録するリスナ。
+ */
+public class RecordingLifecycleListener implements ContainerLifecycleListener {
+
+    /** 通知された内容 */
+    public static final List<String> EVENTS = new ArrayList<String>();
+
+    @Override
+    public void definitionRegistered(ComponentDefinition definition) {
+        EVENTS.add("registered:" + definition.getName());
+    }
+
+    @Override
+    public void componentCreated(ComponentDefinition definition, Object component, long elapsedNanos) {
+        EVENTS.add("created:" + definition.getName() + ":" + component.getClass().getSimpleName() + ":" + (elapsedNanos >= 0));
+    }
+
+    @Override
+    public void componentInjected(ComponentDefinition definition, Object component, long elapsedNanos) {
+        EVENTS.add("injected:" + definition.getName() + ":" + (elapsedNanos >= 0));
+    }
+
+    @Override
+    public void factoryObjectCreated(ComponentDefinition definition, Object createdObject, long elapsedNanos) {
+        EVENTS.add("factory:" + definition.getName() + ":" + createdObject.getClass().getSimpleName() + ":" + (elapsedNanos >= 0));
+    }
+
+    @Override
+    public void containerInitialized(ComponentDefinition definition, long elapsedNanos) {
+        EVENTS.add("initialized:" + definition.getName() + ":" + (elapsedNanos >= 0));
+    }
+
+    @Override
+    public void containerDisposed(DiContainer container) {
+        EVENTS.add("disposed");
+    }
+}
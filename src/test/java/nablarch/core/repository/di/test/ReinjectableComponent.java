@@ -0,0 +1,40 @@
+package nablarch.core.repository.di.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nablarch.core.repository.di.LiteralReinjectable;
+
+public class ReinjectableComponent implements LiteralReinjectable {
+
+    private int interval;
+
+    private String label;
+
+    private final List<List<String>> notifications = new ArrayList<List<String>>();
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public void setInterval(int interval) {
+        this.interval = interval;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public List<List<String>> getNotifications() {
+        return notifications;
+    }
+
+    @Override
+    public void literalsReinjected(List<String> propertyNames) {
+        notifications.add(propertyNames);
+    }
+}
@@ -0,0 +1,23 @@
+package nablarch.core.repository.di.test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import nablarch.core.repository.ObjectLoader;
+
+/**
+ * ロードごとに同じインスタンスと新しいインスタンスを返すローダ。
+ */
+public class SharedObjectLoader implements ObjectLoader {
+
+    /** ロードごとに同じインスタンスを返すオブジェクト */
+    public static final Component2 SHARED = new Component2();
+
+    @Override
+    public Map<String, Object> load() {
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("sharedObject", SHARED);
+        values.put("freshObject", new Component2());
+        return values;
+    }
+}
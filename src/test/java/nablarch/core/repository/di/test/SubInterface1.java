@@ -0,0 +1,4 @@
+package nablarch.core.repository.di.test;
+
+public interface SubInterface1 extends Interface1 {
+}
@@ -6,6 +6,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -117,6 +118,26 @@ public class BasicApplicationInitializerTest {
         }
     }
 
+    /**
+     * {@link BasicApplicationInitializer#initializeExcluding(java.util.Collection)} のテスト。
+     * 除外対象に指定したオブジェクトは初期化されず、それ以外のオブジェクトは初期化されること。
+     */
+    @Test
+    public void testInitializeExcluding() {
+        BasicApplicationInitializer initializer = new BasicApplicationInitializer();
+        InitializeClass1 excluded = new InitializeClass1();
+        InitializeClass1 target = new InitializeClass1();
+        List<Object> initList = new ArrayList<Object>();
+        initList.add(excluded);
+        initList.add(target);
+        initializer.setInitializeList(initList);
+
+        initializer.initializeExcluding(Collections.singleton(excluded));
+
+        assertTrue("除外対象は初期化されない", excluded.data.isEmpty());
+        assertEquals("1", target.data.get("1"));
+    }
+
     //------------------------------------------------------------------
     // 以下テスト用の初期化対象クラス
     //------------------------------------------------------------------
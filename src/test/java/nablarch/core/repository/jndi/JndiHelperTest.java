@@ -3,14 +3,17 @@ package nablarch.core.repository.jndi;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.beans.HasPropertyWithValue.hasProperty;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Map;
 
 import javax.naming.Context;
+import javax.naming.InitialContext;
 import javax.naming.Name;
 import javax.naming.NameNotFoundException;
+import javax.naming.NamingException;
 import javax.naming.Reference;
 import javax.naming.spi.ObjectFactory;
 
@@ -74,6 +77,108 @@ public class JndiHelperTest {
         sut.lookUp("notfound");
     }
 
+    @Test
+    public void デフォルトではルックアップごとにコンテキストを生成して閉じること() throws Exception {
+        final CountingJndiHelper sut = new CountingJndiHelper();
+
+        final Bean first = sut.lookUp("nablarch_test");
+        final Bean second = sut.lookUp("nablarch_test");
+
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(sut.created, is(2));
+        assertThat(sut.closed, is(2));
+    }
+
+    @Test
+    public void コンテキストの再利用を有効にした場合コンテキストが再利用されること() throws Exception {
+        final CountingJndiHelper sut = new CountingJndiHelper();
+        sut.setReuseContext(true);
+
+        sut.lookUp("nablarch_test");
+        sut.lookUp("default");
+        assertThat(sut.created, is(1));
+        assertThat(sut.closed, is(0));
+
+        // ルックアップに失敗したコンテキストは閉じて、再利用しない
+        try {
+            sut.lookUp("notfound");
+            fail("例外が発生するはず");
+        } catch (IllegalStateException e) {
+            assertThat(e.getCause(), is(CoreMatchers.<Throwable>instanceOf(NamingException.class)));
+        }
+        assertThat(sut.closed, is(1));
+        sut.lookUp("nablarch_test");
+        assertThat(sut.created, is(2));
+
+        sut.setReuseContext(false);
+        assertThat(sut.closed, is(2));
+    }
+
+    @Test
+    public void キャッシュを有効にした場合有効期間内はキャッシュした結果が返されること() throws Exception {
+        final CountingJndiHelper sut = new CountingJndiHelper();
+        sut.setCacheTtlMillis(1000);
+
+        final Bean first = sut.lookUp("nablarch_test");
+        sut.now += 999;
+        assertThat(sut.<Bean>lookUp("nablarch_test"), is(sameInstance(first)));
+        assertThat(sut.created, is(1));
+
+        sut.now += 1;
+        final Bean expired = sut.lookUp("nablarch_test");
+        assertThat(expired, is(not(sameInstance(first))));
+        assertThat(sut.created, is(2));
+
+        sut.invalidate("nablarch_test");
+        assertThat(sut.<Bean>lookUp("nablarch_test"), is(not(sameInstance(expired))));
+        assertThat(sut.created, is(3));
+    }
+
+    @Test
+    public void キャッシュの上限数を超えた場合最も長く参照されていない結果が破棄されること() throws Exception {
+        final CountingJndiHelper sut = new CountingJndiHelper();
+        sut.setCacheTtlMillis(1000);
+        sut.setCacheMaxSize(1);
+
+        final Bean first = sut.lookUp("nablarch_test");
+        sut.lookUp("default");
+        assertThat(sut.<Bean>lookUp("nablarch_test"), is(not(sameInstance(first))));
+        assertThat(sut.created, is(3));
+
+        sut.invalidateAll();
+        sut.lookUp("nablarch_test");
+        assertThat(sut.created, is(4));
+    }
+
+    /**
+     * コンテキストの生成と破棄の回数を数える{@link JndiHelper}。
+     */
+    private static class CountingJndiHelper extends JndiHelper {
+
+        private int created;
+
+        private int closed;
+
+        private long now = 1000000L;
+
+        @Override
+        protected InitialContext createContext() throws NamingException {
+            created++;
+            return new InitialContext() {
+                @Override
+                public void close() throws NamingException {
+                    closed++;
+                    super.close();
+                }
+            };
+        }
+
+        @Override
+        long currentTimeMillis() {
+            return now;
+        }
+    }
+
     public static class Bean {
 
         private String name;
@@ -0,0 +1,88 @@
+package nablarch.core.repository.jndi;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.beans.HasPropertyWithValue.hasProperty;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.naming.NameNotFoundException;
+
+import nablarch.core.repository.di.DiContainer;
+import nablarch.core.repository.di.config.xml.XmlComponentDefinitionLoader;
+import nablarch.core.repository.jndi.JndiHelperTest.Bean;
+import org.junit.Test;
+
+/**
+ * {@link JndiPrefetchLoader}のテスト
+ */
+public class JndiPrefetchLoaderTest {
+
+    private JndiPrefetchLoader sut = new JndiPrefetchLoader();
+
+    @Test
+    public void 指定したリソースがコンポーネント名をキーにルックアップされること() throws Exception {
+        final Map<String, String> resources = new LinkedHashMap<String, String>();
+        resources.put("testBean", "nablarch_test");
+        resources.put("defaultBean", "default");
+        sut.setResources(resources);
+        sut.setMaxConcurrency(2);
+
+        final Map<String, Object> result = sut.load();
+
+        assertThat(result.size(), is(2));
+        assertThat(result.get("testBean"), hasProperty("name", is("abcdefg")));
+        assertThat(result.get("defaultBean"), hasProperty("name", is("12345")));
+    }
+
+    @Test
+    public void ルックアップに失敗したリソースがまとめて報告されること() throws Exception {
+        final Map<String, String> resources = new LinkedHashMap<String, String>();
+        resources.put("notFound1", "notfound1");
+        resources.put("testBean", "nablarch_test");
+        resources.put("notFound2", "notfound2");
+        sut.setResources(resources);
+
+        try {
+            sut.load();
+            fail("例外が発生するはず");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("looking up resources in JNDI failed."
+                    + " failed = 2/3, component names = [notFound1, notFound2]"));
+            assertThat(e.getSuppressed().length, is(2));
+            assertThat(e.getSuppressed()[0].getMessage(), containsString("resource name=[notfound1]"));
+            assertThat(e.getSuppressed()[0].getCause(), is(instanceOf(NameNotFoundException.class)));
+            assertThat(e.getSuppressed()[1].getMessage(), containsString("resource name=[notfound2]"));
+        }
+    }
+
+    @Test
+    public void リソースが指定されていない場合は何もロードされないこと() throws Exception {
+        assertThat(sut.load().isEmpty(), is(true));
+    }
+
+    @Test
+    public void ルックアップ結果がDIコンテナに登録され参照できること() throws Exception {
+        final DiContainer container = new DiContainer(new XmlComponentDefinitionLoader(
+                "nablarch/core/repository/jndi/JndiPrefetchLoaderTest/prefetch.xml"));
+
+        final BeanHolder holder = container.getComponentByName("holder");
+        assertThat(holder.getBean(), hasProperty("name", is("abcdefg")));
+        assertThat(container.<Bean>getComponentByName("defaultBean"), hasProperty("name", is("12345")));
+    }
+
+    public static class BeanHolder {
+
+        private Bean bean;
+
+        public Bean getBean() {
+            return bean;
+        }
+
+        public void setBean(final Bean bean) {
+            this.bean = bean;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package nablarch.core.repository.offheap;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import nablarch.core.repository.ObjectLoader;
+import nablarch.core.repository.StreamingObjectLoader;
+import nablarch.core.repository.di.config.externalize.SystemPropertyExternalizedLoader;
+import nablarch.core.repository.test.SystemPropertyResource;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * {@link OffHeapConfigFileLoader}のテスト。
+ */
+public class OffHeapConfigFileLoaderTest {
+
+    @Rule
+    public final SystemPropertyResource systemPropertyResource = new SystemPropertyResource();
+
+    /**
+     * 通常の{@link ObjectLoader}として使用した場合、設定値が{@link Map}にまとめて取得できること。
+     */
+    @Test
+    public void testLoad() {
+        ObjectLoader sut = createLoader();
+        Map<String, Object> values = sut.load();
+        assertThat(values.size(), is(3));
+        assertThat((String) values.get("offheap.key1"), is("value1"));
+        assertThat((String) values.get("offheap.key2"), is("properties value2"));
+        assertThat((String) values.get("offheap.key3"), is("値3"));
+    }
+
+    /**
+     * {@link StreamingObjectLoader}として使用した場合、設定値がキーの昇順に1件ずつ受け渡されること。
+     */
+    @Test
+    public void testLoadWithSink() {
+        final List<String> keys = new ArrayList<String>();
+        createLoader().load(new StreamingObjectLoader.Sink() {
+            @Override
+            public void put(String key, Object value) {
+                keys.add(key);
+            }
+        });
+        assertThat(keys, is(Arrays.asList("offheap.key1", "offheap.key2", "offheap.key3")));
+    }
+
+    /**
+     * 外部化コンポーネント定義のローダーが設定されている場合、ストアの構築時に値が上書きされること。
+     * 設定されていない場合は上書きされないこと。
+     */
+    @Test
+    public void testExternalizedOverride() {
+        System.setProperty("offheap.key1", "overridden");  // @Rule SystemPropertyResourceで元に戻す
+
+        OffHeapConfigFileLoader sut = createLoader();
+        sut.setExternalizedComponentDefinitionLoader(new SystemPropertyExternalizedLoader());
+        assertThat(sut.get("offheap.key1"), is("overridden"));
+        assertThat((String) sut.load().get("offheap.key1"), is("overridden"));
+        assertThat(sut.get("offheap.key2"), is("properties value2"));
+
+        assertThat(createLoader().get("offheap.key1"), is("value1"));
+    }
+
+    private static OffHeapConfigFileLoader createLoader() {
+        OffHeapConfigFileLoader loader = new OffHeapConfigFileLoader();
+        loader.setConfigFiles(Arrays.asList(
+                "classpath:nablarch/core/repository/di/DiContainerTest/testOffHeapLiteralStore.config",
+                "classpath:nablarch/core/repository/di/DiContainerTest/testOffHeapLiteralStore.properties"));
+        return loader;
+    }
+}
@@ -0,0 +1,169 @@
+package nablarch.core.repository.offheap;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * {@link OffHeapLiteralStore}のテスト。
+ */
+public class OffHeapLiteralStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * キーに対応する値が取得できること。
+     */
+    @Test
+    public void testGet() {
+        Map<String, String> values = createValues(1000);
+        OffHeapLiteralStore sut = OffHeapLiteralStore.create(values);
+
+        assertThat(sut.size(), is(1000));
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            assertThat(sut.get(entry.getKey()), is(entry.getValue()));
+        }
+        assertThat(sut.get("key"), nullValue());
+        assertThat(sut.get("key0000"), nullValue());
+        assertThat(sut.get("key9999"), nullValue());
+        assertThat(sut.get(null), nullValue());
+        assertThat(sut.toMap(), is(values));
+    }
+
+    /**
+     * レコードがチャンクの境界をまたがないように配置され、チャンクをまたいで値が取得できること。
+     */
+    @Test
+    public void testGetAcrossChunks() {
+        Map<String, String> values = createValues(200);
+        values.put("ユニコード", "値𠀋");
+        values.put("empty", "");
+        OffHeapLiteralStore sut = OffHeapLiteralStore.create(values, 8);
+
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            assertThat(sut.get(entry.getKey()), is(entry.getValue()));
+        }
+        assertThat(sut.toMap(), is(values));
+    }
+
+    /**
+     * ダイレクトバッファの容量を拡張しながら書き込んだ値が取得できること。
+     */
+    @Test
+    public void testGrowDirectBuffer() {
+        Map<String, String> values = createValues(9999);
+        OffHeapLiteralStore sut = OffHeapLiteralStore.create(values, 20);
+
+        assertThat(sut.size(), is(9999));
+        assertThat(sut.toMap(), is(values));
+    }
+
+    /**
+     * 空のストアが作成できること。
+     */
+    @Test
+    public void testEmpty() {
+        OffHeapLiteralStore sut = OffHeapLiteralStore.create(new HashMap<String, String>());
+
+        assertThat(sut.size(), is(0));
+        assertThat(sut.get("key"), nullValue());
+    }
+
+    /**
+     * メモリマップドファイルに格納したストアから値が取得できること。
+     */
+    @Test
+    public void testMappedFile() throws Exception {
+        Map<String, String> values = createValues(300);
+        File file = temporaryFolder.newFile("literal.tbl");
+        OffHeapLiteralStore sut = OffHeapLiteralStore.create(values, file, 10);
+
+        assertThat(sut.size(), is(300));
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            assertThat(sut.get(entry.getKey()), is(entry.getValue()));
+        }
+        assertThat(file.length() > 0, is(true));
+    }
+
+    /**
+     * 同じキーを複数回書き込んだ場合、後に書き込んだ値が有効となること。
+     * 書き込んだ順序によらず、キーの昇順に並べられること。
+     */
+    @Test
+    public void testWriteOverwrittenKeys() throws Exception {
+        LiteralTableWriter writer = LiteralTableWriter.toFile(temporaryFolder.newFile("literal.tbl"), 8);
+        for (int i = 300; i >= 1; i--) {
+            writer.put(String.format("key%04d", i), "old" + i);
+        }
+        for (int i = 1; i <= 300; i += 2) {
+            writer.put(String.format("key%04d", i), "value" + i);
+        }
+        writer.put("key0001", "last");
+        OffHeapLiteralStore sut = new OffHeapLiteralStore(writer.finish(null));
+
+        assertThat(sut.size(), is(300));
+        assertThat(sut.get("key0001"), is("last"));
+        assertThat(sut.get("key0002"), is("old2"));
+        assertThat(sut.get("key0003"), is("value3"));
+        assertThat(sut.get("key0300"), is("old300"));
+        assertThat(sut.get("key0301"), nullValue());
+    }
+
+    /**
+     * チャンクに収まらないエントリは例外となること。
+     */
+    @Test
+    public void testEntryTooLarge() {
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("key", "0123456789012345678901234567890123456789012345678901234567890123456789"
+                + "0123456789012345678901234567890123456789012345678901234567890123456789"
+                + "0123456789012345678901234567890123456789012345678901234567890123456789"
+                + "0123456789012345678901234567890123456789012345678901234567890123456789");
+        try {
+            OffHeapLiteralStore.create(values, 8);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("entry is too large. key = [key]"));
+        }
+    }
+
+    /**
+     * nullの値は例外となること。
+     */
+    @Test
+    public void testNullValue() {
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("key", null);
+        try {
+            OffHeapLiteralStore.create(values);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("null key or value is not allowed. key = [key]"));
+        }
+    }
+
+    /**
+     * テスト用の設定値を作成する。
+     *
+     * @param count 件数
+     * @return 設定値
+     */
+    private static Map<String, String> createValues(int count) {
+        Map<String, String> values = new HashMap<String, String>();
+        for (int i = 1; i <= count; i++) {
+            values.put(String.format("key%04d", i), "value" + i);
+        }
+        return values;
+    }
+}
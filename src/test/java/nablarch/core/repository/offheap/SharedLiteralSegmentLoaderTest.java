@@ -0,0 +1,171 @@
+package nablarch.core.repository.offheap;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import nablarch.core.repository.di.config.externalize.SystemPropertyExternalizedLoader;
+import nablarch.core.repository.test.OnMemoryLogWriter;
+import nablarch.core.repository.test.SystemPropertyResource;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * {@link SharedLiteralSegmentLoader}のテスト。
+ */
+public class SharedLiteralSegmentLoaderTest {
+
+    @Rule
+    public final SystemPropertyResource systemPropertyResource = new SystemPropertyResource();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File configFile;
+
+    private File segmentFile;
+
+    @Before
+    public void setUp() throws Exception {
+        OnMemoryLogWriter.clear();
+        configFile = temporaryFolder.newFile("test.config");
+        write(configFile, "segment.key1 = value1\n"
+                + "segment.key2 = ${segment.key1}-${segment.unknown}\n"
+                + "segment.key3 = 値3\n");
+        segmentFile = new File(temporaryFolder.getRoot(), "segment/test.segment");
+    }
+
+    /**
+     * セグメントが存在しない場合は作成して公開し、2回目以降は作成済みのセグメントをマップすること。
+     */
+    @Test
+    public void testPublishAndAttach() {
+        SharedLiteralSegmentLoader first = createLoader();
+        assertThat(first.get("segment.key1"), is("value1"));
+        assertThat(first.get("segment.key2"), is("value1-${segment.unknown}"));
+        assertThat(first.get("segment.key3"), is("値3"));
+        assertThat(segmentFile.isFile(), is(true));
+        OnMemoryLogWriter.assertLogContains("writer.appLog", "INFO ROOT shared literal segment was published.");
+
+        OnMemoryLogWriter.clear();
+        SharedLiteralSegmentLoader second = createLoader();
+        assertThat(second.size(), is(3));
+        assertThat(second.get("segment.key2"), is("value1-${segment.unknown}"));
+        OnMemoryLogWriter.assertLogContains("writer.appLog", "INFO ROOT shared literal segment was attached.");
+    }
+
+    /**
+     * 設定ファイルが変更された場合、古いセグメントを作成し直すこと。
+     */
+    @Test
+    public void testStaleByConfigFile() throws Exception {
+        createLoader().size();
+
+        write(configFile, "segment.key1 = changed\n");
+        OnMemoryLogWriter.clear();
+        SharedLiteralSegmentLoader sut = createLoader();
+        assertThat(sut.get("segment.key1"), is("changed"));
+        assertThat(sut.size(), is(1));
+        OnMemoryLogWriter.assertLogContains("writer.appLog",
+                "INFO ROOT shared literal segment is stale and will be recreated.",
+                "reason = fingerprint mismatch.",
+                "INFO ROOT shared literal segment was published.");
+    }
+
+    /**
+     * セグメントのキーを上書きするシステムプロパティが変更された場合、古いセグメントを作成し直すこと。
+     * セグメントに含まれないキーのシステムプロパティは影響しないこと。
+     */
+    @Test
+    public void testStaleBySystemProperty() {
+        System.setProperty("segment.key1", "overridden");  // @Rule SystemPropertyResourceで元に戻す
+        SharedLiteralSegmentLoader first = createLoader();
+        assertThat(first.get("segment.key1"), is("overridden"));
+        assertThat(first.get("segment.key2"), is("overridden-${segment.unknown}"));
+
+        System.setProperty("segment.other", "other");
+        OnMemoryLogWriter.clear();
+        assertThat(createLoader().get("segment.key1"), is("overridden"));
+        OnMemoryLogWriter.assertLogContains("writer.appLog", "INFO ROOT shared literal segment was attached.");
+
+        System.clearProperty("segment.key1");
+        OnMemoryLogWriter.clear();
+        SharedLiteralSegmentLoader sut = createLoader();
+        assertThat(sut.get("segment.key1"), is("value1"));
+        assertThat(sut.get("segment.key2"), is("value1-${segment.unknown}"));
+        OnMemoryLogWriter.assertLogContains("writer.appLog",
+                "INFO ROOT shared literal segment is stale and will be recreated.");
+    }
+
+    /**
+     * セグメントファイルが壊れている場合、作成し直すこと。
+     */
+    @Test
+    public void testBrokenSegment() throws Exception {
+        createLoader().size();
+        byte[] garbage = new byte[200];
+        Arrays.fill(garbage, (byte) 1);
+        OutputStream out = new FileOutputStream(segmentFile);
+        try {
+            out.write(garbage);
+        } finally {
+            out.close();
+        }
+
+        OnMemoryLogWriter.clear();
+        SharedLiteralSegmentLoader sut = createLoader();
+        assertThat(sut.get("segment.key1"), is("value1"));
+        assertThat(segmentFile.length(), is(not(200L)));
+        OnMemoryLogWriter.assertLogContains("writer.appLog",
+                "INFO ROOT shared literal segment is stale and will be recreated.",
+                "reason = not a literal table.");
+    }
+
+    /**
+     * セグメントの書き込みに失敗した場合、一時ファイルがすぐに削除されること。
+     */
+    @Test
+    public void testDeleteTempFileOnFailure() throws Exception {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            large.append('x');
+        }
+        write(configFile, "segment.key1 = " + large + "\n");
+        try {
+            createLoader().size();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage().contains("entry is too large."), is(true));
+        }
+        assertThat(segmentFile.getParentFile().list().length, is(0));
+    }
+
+    private SharedLiteralSegmentLoader createLoader() {
+        SharedLiteralSegmentLoader loader = new SharedLiteralSegmentLoader();
+        // DIコンテナが設定する外部化コンポーネント定義のローダー
+        loader.setExternalizedComponentDefinitionLoader(new SystemPropertyExternalizedLoader());
+        loader.setConfigFiles(Arrays.asList("file:" + configFile.getAbsolutePath()));
+        loader.setSegmentFile(segmentFile.getPath());
+        loader.setChunkShift(8);
+        return loader;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            out.close();
+        }
+    }
+}